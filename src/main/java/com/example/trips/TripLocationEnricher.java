@@ -1,13 +1,23 @@
 package com.example.trips;
 
+import com.example.trips.api.exception.GeolocationEnrichmentException;
 import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationData;
 import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
 import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripEnrichmentResult;
 import com.example.trips.api.service.GeolocationInfoRetriever;
 import com.example.trips.api.service.TripEnricher;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 class TripLocationEnricher implements TripEnricher {
 
@@ -19,18 +29,69 @@ class TripLocationEnricher implements TripEnricher {
 
   @Override
   public Trip enrich(Trip trip) {
+    return enrichAll(List.of(trip)).get(0).getOrThrow();
+  }
+
+  @Override
+  public List<TripEnrichmentResult> enrichAll(List<Trip> trips) {
+    Set<GeolocationCoordinates> geolocationCoordinates = new LinkedHashSet<>();
+    for (Trip trip : trips) {
+      geolocationCoordinates.add(toCoordinates(trip.getStartDestination()));
+      geolocationCoordinates.add(toCoordinates(trip.getFinalDestination()));
+    }
+    Map<GeolocationCoordinates, GeolocationInfoResult> geolocationInfoResults =
+      geolocationInfoRetriever.retrieveAll(geolocationCoordinates);
+    List<TripEnrichmentResult> enrichmentResults = new ArrayList<>(trips.size());
+    for (Trip trip : trips) {
+      try {
+        enrichmentResults.add(TripEnrichmentResult.success(enrich(trip, geolocationInfoResults)));
+      } catch (RuntimeException e) {
+        enrichmentResults.add(TripEnrichmentResult.failure(trip, e));
+      }
+    }
+    return enrichmentResults;
+  }
+
+  @Override
+  public CompletableFuture<Trip> enrichAsync(Trip trip) {
+    GeolocationCoordinates startCoordinates = toCoordinates(trip.getStartDestination());
+    GeolocationCoordinates finalCoordinates = toCoordinates(trip.getFinalDestination());
+    CompletableFuture<GeolocationInfo> startGeolocationInfo = geolocationInfoRetriever.retrieveAsync(startCoordinates);
+    CompletableFuture<GeolocationInfo> finalGeolocationInfo = startCoordinates.equals(finalCoordinates)
+      ? startGeolocationInfo
+      : geolocationInfoRetriever.retrieveAsync(finalCoordinates);
+    return startGeolocationInfo.thenCombine(finalGeolocationInfo, (startInfo, finalInfo) ->
+      Trip.builderFromExisting(trip)
+        .withStartDestination(withGeolocationInfo(trip.getStartDestination(), startInfo))
+        .withFinalDestination(withGeolocationInfo(trip.getFinalDestination(), finalInfo))
+        .build());
+  }
+
+  private Trip enrich(Trip trip, Map<GeolocationCoordinates, GeolocationInfoResult> geolocationInfoResults) {
     return Trip.builderFromExisting(trip)
-      .withStartDestination(getEnrichedGeolocationData(trip.getStartDestination()))
-      .withFinalDestination(getEnrichedGeolocationData(trip.getFinalDestination()))
+      .withStartDestination(getEnrichedGeolocationData(trip.getStartDestination(), geolocationInfoResults))
+      .withFinalDestination(getEnrichedGeolocationData(trip.getFinalDestination(), geolocationInfoResults))
       .build();
   }
 
-  private GeolocationData getEnrichedGeolocationData(GeolocationData geolocationData) {
-    double latitude = geolocationData.getLatitude();
-    double longitude = geolocationData.getLongitude();
-    GeolocationInfo geolocationInfo = geolocationInfoRetriever.retrieve(new GeolocationCoordinates(latitude, longitude));
+  private GeolocationData getEnrichedGeolocationData(GeolocationData geolocationData,
+                                                     Map<GeolocationCoordinates, GeolocationInfoResult> geolocationInfoResults) {
+    GeolocationCoordinates geolocationCoordinates = toCoordinates(geolocationData);
+    GeolocationInfoResult geolocationInfoResult = geolocationInfoResults.get(geolocationCoordinates);
+    if (geolocationInfoResult == null) {
+      throw new GeolocationEnrichmentException(String.format(
+        "No geolocation data retrieved for coordinates: %s", geolocationCoordinates));
+    }
+    return withGeolocationInfo(geolocationData, geolocationInfoResult.getOrThrow());
+  }
+
+  private GeolocationData withGeolocationInfo(GeolocationData geolocationData, GeolocationInfo geolocationInfo) {
     geolocationData.setCountry(geolocationInfo.getCountry());
     geolocationData.setLocality(geolocationInfo.getLocality());
     return geolocationData;
   }
-}
\ No newline at end of file
+
+  private GeolocationCoordinates toCoordinates(GeolocationData geolocationData) {
+    return new GeolocationCoordinates(geolocationData.getLatitude(), geolocationData.getLongitude());
+  }
+}
@@ -43,8 +43,9 @@ class TripServiceImpl implements TripService {
   public Trip create(TripCreateDto tripCreateDto) {
     validateTripCreateDto(tripCreateDto);
     Trip trip = buildTripFromTripCreateDto(tripCreateDto);
+    tripPublisher.checkCapacity();
     trip = tripRepository.save(trip);
-    tripPublisher.publish(new TripDto(trip.getId()));
+    tripPublisher.publish(TripDto.fromTrip(trip));
     return trip;
   }
 
@@ -54,8 +55,9 @@ class TripServiceImpl implements TripService {
     validateTripUpdateDto(tripUpdateDto);
     Trip trip = findById(id);
     Trip updatedTrip = updateTripFromTripUpdateDto(trip, tripUpdateDto);
+    tripPublisher.checkCapacity();
     Trip savedTrip = tripRepository.save(updatedTrip);
-    tripPublisher.publish(new TripDto(savedTrip.getId()));
+    tripPublisher.publish(TripDto.fromTrip(savedTrip));
     return savedTrip;
   }
 
@@ -31,6 +31,11 @@ public class ExceptionHandlingAdvice {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(ConflictException.class)
+  public final ResponseEntity<String> handleConflictException(ConflictException ex) {
+    return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(GeolocationEnrichmentException.class)
   public final ResponseEntity<String> handleGeolocationEnrichmentException(GeolocationEnrichmentException ex) {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -41,6 +46,11 @@ public class ExceptionHandlingAdvice {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public final ResponseEntity<String> handleServiceUnavailableException(ServiceUnavailableException ex) {
+    return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(AccessDeniedException.class)
   public final ResponseEntity<String> handleAccessDeniedException(AccessDeniedException ex) {
     return new ResponseEntity<>("You don't have enough permissions to perform such request", HttpStatus.FORBIDDEN);
@@ -0,0 +1,11 @@
+package com.example.trips.api.exception;
+
+/**
+ * The provider answered 429 Too Many Requests: it is up, but takes no more calls from us for now.
+ */
+public class GeolocationProviderThrottledException extends GeolocationProviderUnavailableException {
+
+  public GeolocationProviderThrottledException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
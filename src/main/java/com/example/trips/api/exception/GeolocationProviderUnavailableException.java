@@ -0,0 +1,12 @@
+package com.example.trips.api.exception;
+
+public class GeolocationProviderUnavailableException extends GeolocationEnrichmentException {
+
+  public GeolocationProviderUnavailableException(String message) {
+    super(message);
+  }
+
+  public GeolocationProviderUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
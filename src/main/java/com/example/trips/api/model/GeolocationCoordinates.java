@@ -1,5 +1,10 @@
 package com.example.trips.api.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Objects;
 
 public class GeolocationCoordinates {
@@ -8,7 +13,9 @@ public class GeolocationCoordinates {
 
   private final double longitude;
 
-  public GeolocationCoordinates(double latitude, double longitude) {
+  @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+  public GeolocationCoordinates(@JsonProperty("latitude") double latitude,
+                                @JsonProperty("longitude") double longitude) {
     this.latitude = latitude;
     this.longitude = longitude;
   }
@@ -21,6 +28,14 @@ public class GeolocationCoordinates {
     return longitude;
   }
 
+  public GeolocationCoordinates rounded(int scale) {
+    return new GeolocationCoordinates(round(latitude, scale), round(longitude, scale));
+  }
+
+  private static double round(double value, int scale) {
+    return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP).doubleValue();
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,67 @@
+package com.example.trips.api.model;
+
+import java.util.Objects;
+
+public class GeolocationInfoResult {
+
+  private final GeolocationInfo geolocationInfo;
+
+  private final RuntimeException error;
+
+  private GeolocationInfoResult(GeolocationInfo geolocationInfo, RuntimeException error) {
+    this.geolocationInfo = geolocationInfo;
+    this.error = error;
+  }
+
+  public static GeolocationInfoResult success(GeolocationInfo geolocationInfo) {
+    return new GeolocationInfoResult(geolocationInfo, null);
+  }
+
+  public static GeolocationInfoResult failure(RuntimeException error) {
+    return new GeolocationInfoResult(null, error);
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  public GeolocationInfo getGeolocationInfo() {
+    return geolocationInfo;
+  }
+
+  public RuntimeException getError() {
+    return error;
+  }
+
+  public GeolocationInfo getOrThrow() {
+    if (error != null) {
+      throw error;
+    }
+    return geolocationInfo;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    GeolocationInfoResult that = (GeolocationInfoResult) o;
+    return Objects.equals(geolocationInfo, that.geolocationInfo) && Objects.equals(error, that.error);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(geolocationInfo, error);
+  }
+
+  @Override
+  public String toString() {
+    return "GeolocationInfoResult{" +
+      "geolocationInfo=" + geolocationInfo +
+      ", error=" + error +
+      '}';
+  }
+}
@@ -21,6 +21,8 @@ public class Trip {
 
   private final String ownerEmail;
 
+  private final Long version;
+
   private Trip(Builder builder) {
     this.id = builder.id;
     this.startTime = builder.startTime;
@@ -29,6 +31,7 @@ public class Trip {
     this.finalDestination = builder.finalDestination;
     this.dateCreated = builder.dateCreated;
     this.ownerEmail = builder.ownerEmail;
+    this.version = builder.version;
   }
 
   public String getId() {
@@ -59,6 +62,13 @@ public class Trip {
     return ownerEmail;
   }
 
+  /**
+   * Incremented by every save of the trip; null for a trip that was not saved yet or not since versions were added.
+   */
+  public Long getVersion() {
+    return version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -74,12 +84,14 @@ public class Trip {
       && Objects.equals(startDestination, trip.startDestination)
       && Objects.equals(finalDestination, trip.finalDestination)
       && Objects.equals(dateCreated, trip.dateCreated)
-      && Objects.equals(ownerEmail, trip.ownerEmail);
+      && Objects.equals(ownerEmail, trip.ownerEmail)
+      && Objects.equals(version, trip.version);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, startTime, endTime, startDestination, finalDestination, dateCreated, ownerEmail);
+    return Objects.hash(id, startTime, endTime, startDestination, finalDestination, dateCreated, ownerEmail,
+      version);
   }
 
   @Override
@@ -92,6 +104,7 @@ public class Trip {
       ", finalDestination='" + finalDestination + '\'' +
       ", dateCreated=" + dateCreated +
       ", ownerEmail=" + EMAIL_OBFUSCATED +
+      ", version=" + version +
       '}';
   }
 
@@ -111,6 +124,8 @@ public class Trip {
 
     private String ownerEmail;
 
+    private Long version;
+
     public Builder withId(String id) {
       this.id = id;
       return this;
@@ -146,6 +161,11 @@ public class Trip {
       return this;
     }
 
+    public Builder withVersion(Long version) {
+      this.version = version;
+      return this;
+    }
+
     public Trip build() {
       return new Trip(this);
     }
@@ -163,6 +183,7 @@ public class Trip {
       .withStartTime(trip.getStartTime())
       .withEndTime(trip.getEndTime())
       .withStartDestination(trip.getStartDestination())
-      .withFinalDestination(trip.getFinalDestination());
+      .withFinalDestination(trip.getFinalDestination())
+      .withVersion(trip.getVersion());
   }
 }
@@ -6,19 +6,63 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.Objects;
 
+/**
+ * Enrichment message of a trip. It carries the version and the coordinates of both destinations as they were saved,
+ * so the trip can be enriched without reading it first; messages published by earlier versions carry the id only.
+ */
 public class TripDto {
 
   private final String id;
 
+  private final Long version;
+
+  private final GeolocationCoordinates startDestination;
+
+  private final GeolocationCoordinates finalDestination;
+
+  public TripDto(String id) {
+    this(id, null, null, null);
+  }
+
   @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
-  public TripDto(@JsonProperty("id") String id) {
+  public TripDto(@JsonProperty("id") String id,
+                 @JsonProperty("version") Long version,
+                 @JsonProperty("startDestination") GeolocationCoordinates startDestination,
+                 @JsonProperty("finalDestination") GeolocationCoordinates finalDestination) {
     this.id = id;
+    this.version = version;
+    this.startDestination = startDestination;
+    this.finalDestination = finalDestination;
+  }
+
+  public static TripDto fromTrip(Trip trip) {
+    return new TripDto(trip.getId(), trip.getVersion(), toCoordinates(trip.getStartDestination()),
+      toCoordinates(trip.getFinalDestination()));
+  }
+
+  private static GeolocationCoordinates toCoordinates(GeolocationData geolocationData) {
+    return new GeolocationCoordinates(geolocationData.getLatitude(), geolocationData.getLongitude());
   }
 
   public String getId() {
     return id;
   }
 
+  /**
+   * Version of the trip the message was published for; null in messages published before trips had versions.
+   */
+  public Long getVersion() {
+    return version;
+  }
+
+  public GeolocationCoordinates getStartDestination() {
+    return startDestination;
+  }
+
+  public GeolocationCoordinates getFinalDestination() {
+    return finalDestination;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -28,18 +72,24 @@ public class TripDto {
       return false;
     }
     TripDto that = (TripDto) o;
-    return Objects.equals(id, that.id);
+    return Objects.equals(id, that.id)
+      && Objects.equals(version, that.version)
+      && Objects.equals(startDestination, that.startDestination)
+      && Objects.equals(finalDestination, that.finalDestination);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id);
+    return Objects.hash(id, version, startDestination, finalDestination);
   }
 
   @Override
   public String toString() {
     return "TripDto{" +
       "id='" + id + '\'' +
+      ", version=" + version +
+      ", startDestination=" + startDestination +
+      ", finalDestination=" + finalDestination +
       '}';
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.example.trips.api.model;
+
+import java.util.Objects;
+
+public class TripEnrichmentResult {
+
+  private final Trip trip;
+
+  private final RuntimeException error;
+
+  private TripEnrichmentResult(Trip trip, RuntimeException error) {
+    this.trip = trip;
+    this.error = error;
+  }
+
+  public static TripEnrichmentResult success(Trip enrichedTrip) {
+    return new TripEnrichmentResult(enrichedTrip, null);
+  }
+
+  public static TripEnrichmentResult failure(Trip trip, RuntimeException error) {
+    return new TripEnrichmentResult(trip, error);
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+
+  public Trip getTrip() {
+    return trip;
+  }
+
+  public RuntimeException getError() {
+    return error;
+  }
+
+  public Trip getOrThrow() {
+    if (error != null) {
+      throw error;
+    }
+    return trip;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TripEnrichmentResult that = (TripEnrichmentResult) o;
+    return Objects.equals(trip, that.trip) && Objects.equals(error, that.error);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(trip, error);
+  }
+
+  @Override
+  public String toString() {
+    return "TripEnrichmentResult{" +
+      "trip=" + trip +
+      ", error=" + error +
+      '}';
+  }
+}
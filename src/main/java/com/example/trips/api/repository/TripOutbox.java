@@ -0,0 +1,30 @@
+package com.example.trips.api.repository;
+
+import com.example.trips.api.model.TripDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Trips saved but not yet published for enrichment. {@link TripRepository#save} records the pending publication in
+ * the same write as the trip, so it survives a crash or a broker outage between saving and publishing.
+ */
+public interface TripOutbox {
+
+  /**
+   * Messages of the latest version of the trips pending publication since before the given time, oldest first.
+   */
+  List<TripDto> findPendingSince(LocalDateTime before, int limit);
+
+  /**
+   * Time the oldest pending publication was recorded at, empty when nothing is pending.
+   */
+  Optional<LocalDateTime> findOldestPendingSince();
+
+  /**
+   * Removes the trips of the given messages from the outbox, except those saved again since the message was built:
+   * their newer version is still to be published.
+   */
+  void markPublished(List<TripDto> published);
+}
@@ -2,19 +2,62 @@ package com.example.trips.api.repository;
 
 import com.example.trips.api.model.Trip;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TripRepository {
 
   Optional<Trip> findById(String id);
 
+  /**
+   * Loads the given trips in one query; ids of trips that do not exist are left out of the result.
+   */
+  List<Trip> findAllById(Collection<String> ids);
+
   List<Trip> findAllByEmail(String email);
 
   List<Trip> findAll();
 
+  /**
+   * Inserts a new trip, or replaces an existing one unless it was saved by someone else since it was read. The saved
+   * trip has its version incremented and is put to the {@link TripOutbox} in the same write.
+   *
+   * @throws com.example.trips.api.exception.ConflictException when the stored trip has another version or is gone
+   */
   Trip save(Trip trip);
 
+  /**
+   * Tells whether the trip with the given id is still at the given version, without loading it.
+   */
+  boolean existsWithVersion(String id, long version);
+
+  /**
+   * Sets the country and locality of both destinations of the stored trip to those of the given trip, leaving the
+   * rest of the document as it is, version included. Nothing is written unless the stored trip still has the
+   * coordinates of both destinations and, when the given trip has one, its version, so a geolocation resolved for a
+   * trip changed in the meantime is not saved.
+   *
+   * @return false when there is no such trip
+   */
+  boolean updateGeolocation(Trip trip);
+
+  /**
+   * {@link #updateGeolocation(Trip) Updates the geolocation} of the given trips in one round trip. A failed write
+   * does not stop the others; a trip deleted or changed in the meantime is not a failure.
+   *
+   * @return the failure of every trip that could not be written, by trip id
+   */
+  Map<String, RuntimeException> updateGeolocationAll(List<Trip> trips);
+
+  /**
+   * Streams up to {@code limit} of the most recently created trips with at least one enriched destination. The
+   * stream holds a database cursor and has to be closed.
+   */
+  Stream<Trip> streamLatestEnriched(int limit);
+
   void deleteById(String id);
 
   void deleteAll();
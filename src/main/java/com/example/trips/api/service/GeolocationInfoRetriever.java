@@ -2,8 +2,53 @@ package com.example.trips.api.service;
 
 import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public interface GeolocationInfoRetriever {
 
   GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates);
+
+  default Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+      if (results.containsKey(coordinates)) {
+        continue;
+      }
+      try {
+        results.put(coordinates, GeolocationInfoResult.success(retrieve(coordinates)));
+      } catch (RuntimeException e) {
+        results.put(coordinates, GeolocationInfoResult.failure(e));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Retrieves without holding the calling thread for the remote call. The default runs {@link #retrieve} on the
+   * calling thread, so every tier between the caller and the provider has to override it to stay non-blocking.
+   */
+  default CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    try {
+      return CompletableFuture.completedFuture(retrieve(geolocationCoordinates));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * Dependent stages of a failed future fail with a {@link CompletionException}; returns the failure it wraps.
+   */
+  static Throwable unwrapAsyncFailure(Throwable failure) {
+    if (failure instanceof CompletionException && failure.getCause() != null) {
+      return failure.getCause();
+    }
+    return failure;
+  }
 }
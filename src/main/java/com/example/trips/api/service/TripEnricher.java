@@ -1,8 +1,19 @@
 package com.example.trips.api.service;
 
 import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripEnrichmentResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface TripEnricher {
 
   Trip enrich(Trip trip);
+
+  List<TripEnrichmentResult> enrichAll(List<Trip> trips);
+
+  /**
+   * Enriches without holding the calling thread while the geolocation lookups are in flight.
+   */
+  CompletableFuture<Trip> enrichAsync(Trip trip);
 }
@@ -5,4 +5,11 @@ import com.example.trips.api.model.TripDto;
 public interface TripPublisher {
 
   void publish(TripDto tripDto);
+
+  /**
+   * Fails with {@link com.example.trips.api.exception.ServiceUnavailableException} when a trip would not be accepted
+   * for publishing now. Called before the trip is saved, so a rejected request leaves nothing behind to retry over.
+   */
+  default void checkCapacity() {
+  }
 }
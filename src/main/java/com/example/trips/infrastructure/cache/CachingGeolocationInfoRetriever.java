@@ -0,0 +1,115 @@
+package com.example.trips.infrastructure.cache;
+
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps found places and "nothing found" answers in separate caches, so the usually much more numerous empty
+ * answers (oceans, unmapped areas) cannot evict found places and can expire sooner.
+ */
+class CachingGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final Cache<GeolocationCoordinates, GeolocationInfo> cache;
+
+  private final Cache<GeolocationCoordinates, Boolean> notFoundCache;
+
+  private final int coordinatesScale;
+
+  CachingGeolocationInfoRetriever(GeolocationInfoRetriever delegate,
+                                  Cache<GeolocationCoordinates, GeolocationInfo> cache,
+                                  Cache<GeolocationCoordinates, Boolean> notFoundCache,
+                                  int coordinatesScale) {
+    this.delegate = delegate;
+    this.cache = cache;
+    this.notFoundCache = notFoundCache;
+    this.coordinatesScale = coordinatesScale;
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationCoordinates key = geolocationCoordinates.rounded(coordinatesScale);
+    GeolocationInfo cachedGeolocationInfo = cache.getIfPresent(key);
+    if (cachedGeolocationInfo != null) {
+      return cachedGeolocationInfo;
+    }
+    if (notFoundCache.getIfPresent(key) != null) {
+      throw notFound(geolocationCoordinates);
+    }
+    // not using Cache.get(key, loader) here: it would hold the cache's bin lock for the whole remote call
+    GeolocationInfo geolocationInfo;
+    try {
+      geolocationInfo = delegate.retrieve(geolocationCoordinates);
+    } catch (NotFoundException e) {
+      notFoundCache.put(key, Boolean.TRUE);
+      throw e;
+    }
+    cache.put(key, geolocationInfo);
+    return geolocationInfo;
+  }
+
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationCoordinates key = geolocationCoordinates.rounded(coordinatesScale);
+    GeolocationInfo cachedGeolocationInfo = cache.getIfPresent(key);
+    if (cachedGeolocationInfo != null) {
+      return CompletableFuture.completedFuture(cachedGeolocationInfo);
+    }
+    if (notFoundCache.getIfPresent(key) != null) {
+      return CompletableFuture.failedFuture(notFound(geolocationCoordinates));
+    }
+    return delegate.retrieveAsync(geolocationCoordinates).whenComplete((geolocationInfo, failure) -> {
+      if (failure == null) {
+        cache.put(key, geolocationInfo);
+      } else if (GeolocationInfoRetriever.unwrapAsyncFailure(failure) instanceof NotFoundException) {
+        notFoundCache.put(key, Boolean.TRUE);
+      }
+    });
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    List<GeolocationCoordinates> misses = new ArrayList<>();
+    for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+      GeolocationCoordinates key = coordinates.rounded(coordinatesScale);
+      GeolocationInfo cachedGeolocationInfo = cache.getIfPresent(key);
+      if (cachedGeolocationInfo != null) {
+        results.put(coordinates, GeolocationInfoResult.success(cachedGeolocationInfo));
+      } else if (notFoundCache.getIfPresent(key) != null) {
+        results.put(coordinates, GeolocationInfoResult.failure(notFound(coordinates)));
+      } else {
+        misses.add(coordinates);
+      }
+    }
+    if (misses.isEmpty()) {
+      return results;
+    }
+    delegate.retrieveAll(misses).forEach((coordinates, result) -> {
+      if (result.isSuccess()) {
+        cache.put(coordinates.rounded(coordinatesScale), result.getGeolocationInfo());
+      } else if (result.getError() instanceof NotFoundException) {
+        notFoundCache.put(coordinates.rounded(coordinatesScale), Boolean.TRUE);
+      }
+      results.put(coordinates, result);
+    });
+    return results;
+  }
+
+  private static NotFoundException notFound(GeolocationCoordinates geolocationCoordinates) {
+    return new NotFoundException(String.format("Geolocation info not found for coordinates: %s", geolocationCoordinates));
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.trips.infrastructure.cache;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.repository.TripRepository;
+import com.example.trips.infrastructure.geolocation.GeolocationInfoRetrieverDecorator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-cache", name = "enabled", havingValue = "true")
+class GeolocationCacheConfiguration {
+
+  static final String GEOLOCATION_CACHE_NAME = "geolocation";
+
+  static final String GEOLOCATION_NOT_FOUND_CACHE_NAME = "geolocation-not-found";
+
+  @Bean
+  public Cache<GeolocationCoordinates, GeolocationInfo> geolocationInfoCache(
+    GeolocationCacheProperties geolocationCacheProperties, MeterRegistry meterRegistry) {
+    Cache<GeolocationCoordinates, GeolocationInfo> cache = Caffeine.newBuilder()
+      .maximumSize(geolocationCacheProperties.getMaximumSize())
+      .expireAfterWrite(geolocationCacheProperties.getTimeToLive())
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, GEOLOCATION_CACHE_NAME);
+    return cache;
+  }
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.IN_MEMORY_CACHE_ORDER)
+  public GeolocationInfoRetrieverDecorator cachingGeolocationInfoRetrieverDecorator(
+    GeolocationCacheProperties geolocationCacheProperties,
+    Cache<GeolocationCoordinates, GeolocationInfo> geolocationInfoCache, MeterRegistry meterRegistry) {
+    Cache<GeolocationCoordinates, Boolean> notFoundCache = Caffeine.newBuilder()
+      .maximumSize(geolocationCacheProperties.getNotFoundMaximumSize())
+      .expireAfterWrite(geolocationCacheProperties.getNotFoundTimeToLive())
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, notFoundCache, GEOLOCATION_NOT_FOUND_CACHE_NAME);
+    return delegate -> new CachingGeolocationInfoRetriever(delegate, geolocationInfoCache, notFoundCache,
+      geolocationCacheProperties.getCoordinatesScale());
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "geolocation-cache-warm-up", name = "enabled", havingValue = "true")
+  public GeolocationCacheWarmer geolocationCacheWarmer(TripRepository tripRepository,
+                                                       Cache<GeolocationCoordinates, GeolocationInfo> geolocationInfoCache,
+                                                       GeolocationCacheProperties geolocationCacheProperties,
+                                                       GeolocationCacheWarmUpProperties geolocationCacheWarmUpProperties,
+                                                       MeterRegistry meterRegistry) {
+    return new GeolocationCacheWarmer(tripRepository, geolocationInfoCache,
+      geolocationCacheProperties.getCoordinatesScale(), geolocationCacheWarmUpProperties.getMaxTrips(),
+      geolocationCacheWarmUpProperties.getTimeBudget(), meterRegistry);
+  }
+}
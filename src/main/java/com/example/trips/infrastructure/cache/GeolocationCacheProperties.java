@@ -0,0 +1,50 @@
+package com.example.trips.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-cache")
+@ConstructorBinding
+class GeolocationCacheProperties {
+
+  private final long maximumSize;
+
+  private final Duration timeToLive;
+
+  private final int coordinatesScale;
+
+  private final long notFoundMaximumSize;
+
+  private final Duration notFoundTimeToLive;
+
+  GeolocationCacheProperties(long maximumSize, Duration timeToLive, int coordinatesScale, long notFoundMaximumSize,
+                             Duration notFoundTimeToLive) {
+    this.maximumSize = maximumSize;
+    this.timeToLive = timeToLive;
+    this.coordinatesScale = coordinatesScale;
+    this.notFoundMaximumSize = notFoundMaximumSize;
+    this.notFoundTimeToLive = notFoundTimeToLive;
+  }
+
+  long getMaximumSize() {
+    return maximumSize;
+  }
+
+  Duration getTimeToLive() {
+    return timeToLive;
+  }
+
+  int getCoordinatesScale() {
+    return coordinatesScale;
+  }
+
+  long getNotFoundMaximumSize() {
+    return notFoundMaximumSize;
+  }
+
+  Duration getNotFoundTimeToLive() {
+    return notFoundTimeToLive;
+  }
+}
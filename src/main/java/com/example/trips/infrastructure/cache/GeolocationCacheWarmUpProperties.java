@@ -0,0 +1,28 @@
+package com.example.trips.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-cache-warm-up")
+@ConstructorBinding
+class GeolocationCacheWarmUpProperties {
+
+  private final int maxTrips;
+
+  private final Duration timeBudget;
+
+  GeolocationCacheWarmUpProperties(int maxTrips, Duration timeBudget) {
+    this.maxTrips = maxTrips;
+    this.timeBudget = timeBudget;
+  }
+
+  int getMaxTrips() {
+    return maxTrips;
+  }
+
+  Duration getTimeBudget() {
+    return timeBudget;
+  }
+}
@@ -0,0 +1,156 @@
+package com.example.trips.infrastructure.cache;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.repository.TripRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Preloads the geolocation cache with the destinations of the most recently enriched trips before the listener
+ * containers and the web server start, so the first minutes after a deploy do not all go to the provider.
+ * <p>
+ * Startup waits for the warm-up at most for the time budget; past it, the warm-up is cancelled and whatever was
+ * loaded so far stays in the cache. A failed warm-up never fails startup.
+ */
+class GeolocationCacheWarmer implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(GeolocationCacheWarmer.class);
+
+  // before RabbitListenerEndpointRegistry and the web server, which both start in the last phases
+  private static final int PHASE = Integer.MAX_VALUE - 1000;
+
+  private static final int PROGRESS_INTERVAL = 1000;
+
+  private final TripRepository tripRepository;
+
+  private final Cache<GeolocationCoordinates, GeolocationInfo> cache;
+
+  private final int coordinatesScale;
+
+  private final int maxTrips;
+
+  private final Duration timeBudget;
+
+  private final MeterRegistry meterRegistry;
+
+  private final Counter loadedEntries;
+
+  private final AtomicInteger tripsRead = new AtomicInteger();
+
+  private volatile boolean cancelled;
+
+  private volatile boolean running;
+
+  GeolocationCacheWarmer(TripRepository tripRepository, Cache<GeolocationCoordinates, GeolocationInfo> cache,
+                         int coordinatesScale, int maxTrips, Duration timeBudget, MeterRegistry meterRegistry) {
+    this.tripRepository = tripRepository;
+    this.cache = cache;
+    this.coordinatesScale = coordinatesScale;
+    this.maxTrips = maxTrips;
+    this.timeBudget = timeBudget;
+    this.meterRegistry = meterRegistry;
+    this.loadedEntries = meterRegistry.counter("geolocation.cache.warm.up.entries");
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    log.info("Warming up geolocation cache from up to {} latest enriched trips, time budget {}", maxTrips, timeBudget);
+    long start = System.nanoTime();
+    // a separate thread, so a slow cursor cannot hold startup past the budget
+    ExecutorService executor = Executors.newSingleThreadExecutor(
+      new CustomizableThreadFactory("geolocation-cache-warm-up-"));
+    String outcome;
+    try {
+      Future<?> warmUp = executor.submit(this::warmUp);
+      warmUp.get(timeBudget.toNanos(), TimeUnit.NANOSECONDS);
+      outcome = "completed";
+    } catch (TimeoutException e) {
+      cancelled = true;
+      outcome = "budget_exceeded";
+    } catch (ExecutionException e) {
+      outcome = "failed";
+      log.warn("Geolocation cache warm-up failed: {}", e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancelled = true;
+      outcome = "interrupted";
+    } finally {
+      executor.shutdown();
+    }
+    long durationNanos = System.nanoTime() - start;
+    Timer.builder("geolocation.cache.warm.up")
+      .description("Time spent warming up the geolocation cache at startup")
+      .tag("outcome", outcome)
+      .register(meterRegistry)
+      .record(durationNanos, TimeUnit.NANOSECONDS);
+    log.info("Geolocation cache warm-up {} in {} ms: {} trips read, {} entries loaded", outcome,
+      TimeUnit.NANOSECONDS.toMillis(durationNanos), tripsRead.get(), (long) loadedEntries.count());
+  }
+
+  @Override
+  public void stop() {
+    cancelled = true;
+    running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  private void warmUp() {
+    try (Stream<Trip> trips = tripRepository.streamLatestEnriched(maxTrips)) {
+      Iterator<Trip> iterator = trips.iterator();
+      while (!cancelled && iterator.hasNext()) {
+        Trip trip = iterator.next();
+        preload(trip.getStartDestination());
+        preload(trip.getFinalDestination());
+        if (tripsRead.incrementAndGet() % PROGRESS_INTERVAL == 0) {
+          log.info("Geolocation cache warm-up: {} trips read, {} entries loaded", tripsRead.get(),
+            (long) loadedEntries.count());
+        }
+      }
+    }
+  }
+
+  private void preload(GeolocationData geolocationData) {
+    if (geolocationData == null || geolocationData.getCountry() == null) {
+      return;
+    }
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry(geolocationData.getCountry());
+    geolocationInfo.setLocality(geolocationData.getLocality());
+    GeolocationCoordinates key = new GeolocationCoordinates(geolocationData.getLatitude(), geolocationData.getLongitude())
+      .rounded(coordinatesScale);
+    // an answer the provider gave since startup is fresher than the one stored with the trip
+    if (cache.asMap().putIfAbsent(key, geolocationInfo) == null) {
+      loadedEntries.increment();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that paces calls to the geolocation provider. Every throttled response multiplies the refill rate by
+ * the decrease factor and blocks the bucket for the Retry-After period; every other response adds the recovery step
+ * back until the configured rate is reached again.
+ * <p>
+ * Callers reserve a token up front and then sleep until it is due, so waiting callers are served in order.
+ */
+class AdaptiveTokenBucket {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final double maxRate;
+
+  private final double minRate;
+
+  private final double capacity;
+
+  private final double decreaseFactor;
+
+  private final double recoveryStep;
+
+  private final long maxWaitNanos;
+
+  private final LongSupplier nanoTime;
+
+  private double rate;
+
+  private double tokens;
+
+  private long lastRefillNanos;
+
+  private long blockedUntilNanos;
+
+  AdaptiveTokenBucket(GeolocationRateLimitProperties properties, LongSupplier nanoTime) {
+    this.maxRate = properties.getRequestsPerSecond();
+    this.minRate = properties.getMinRequestsPerSecond();
+    this.capacity = properties.getBurst();
+    this.decreaseFactor = properties.getDecreaseFactor();
+    this.recoveryStep = properties.getRecoveryStep();
+    this.maxWaitNanos = properties.getMaxWait().toNanos();
+    this.nanoTime = nanoTime;
+    this.rate = maxRate;
+    this.tokens = capacity;
+    this.lastRefillNanos = nanoTime.getAsLong();
+    this.blockedUntilNanos = lastRefillNanos;
+  }
+
+  /**
+   * Reserves a token and returns how long the caller has to wait before using it.
+   *
+   * @throws GeolocationProviderUnavailableException if the token would not be due within the max wait
+   */
+  synchronized long reserve() {
+    long now = nanoTime.getAsLong();
+    refill(now);
+    // tokens only start refilling once the block is over, so the two waits add up
+    long waitNanos = Math.max(0, blockedUntilNanos - now);
+    if (tokens < 1) {
+      waitNanos += (long) ((1 - tokens) / rate * NANOS_PER_SECOND);
+    }
+    if (waitNanos > maxWaitNanos) {
+      throw new GeolocationProviderUnavailableException(String.format(
+        "Geolocation provider rate limit would delay the call by %d ms", TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+    }
+    tokens -= 1;
+    return waitNanos;
+  }
+
+  synchronized void onThrottled(Duration retryAfter) {
+    long now = nanoTime.getAsLong();
+    refill(now);
+    rate = Math.max(minRate, rate * decreaseFactor);
+    tokens = Math.min(tokens, 0);
+    blockedUntilNanos = Math.max(blockedUntilNanos, now + retryAfter.toNanos());
+  }
+
+  synchronized void onAccepted() {
+    refill(nanoTime.getAsLong());
+    rate = Math.min(maxRate, rate + recoveryStep);
+  }
+
+  synchronized double availableTokens() {
+    refill(nanoTime.getAsLong());
+    return Math.max(0, tokens);
+  }
+
+  synchronized double currentRate() {
+    return rate;
+  }
+
+  private void refill(long now) {
+    long refillFrom = Math.max(lastRefillNanos, Math.min(now, blockedUntilNanos));
+    if (now > refillFrom) {
+      tokens = Math.min(capacity, tokens + (now - refillFrom) / NANOS_PER_SECOND * rate);
+    }
+    lastRefillNanos = Math.max(lastRefillNanos, now);
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.trips.infrastructure.feign;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking HTTP client for the geolocation provider. Requests are multiplexed by the client's selector thread;
+ * the small pool only runs completion callbacks, so it does not have to grow with the number of calls in flight.
+ */
+class AsyncGeolocationHttpClient {
+
+  private final ExecutorService executor;
+
+  private final HttpClient httpClient;
+
+  AsyncGeolocationHttpClient(int threads, Duration connectTimeout) {
+    this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("geolocation-async-"));
+    this.httpClient = HttpClient.newBuilder()
+      .connectTimeout(connectTimeout)
+      .executor(executor)
+      .build();
+  }
+
+  /**
+   * Sends the request after the given delay without holding a thread while waiting.
+   */
+  CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request, long delayNanos) {
+    if (delayNanos <= 0) {
+      return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+    return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS))
+      .thenCompose(ignored -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+  }
+
+  Executor executor() {
+    return executor;
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+}
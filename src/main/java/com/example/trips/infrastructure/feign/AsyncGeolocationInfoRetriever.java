@@ -0,0 +1,176 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderThrottledException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Serves {@link #retrieveAsync} with the non-blocking {@link AsyncGeolocationHttpClient} instead of the Feign client,
+ * so hundreds of lookups can be in flight on a handful of threads. Blocking lookups still go to the delegate.
+ * <p>
+ * Calls in flight are bounded by {@link AsyncPermits}. When a rate limit is configured, a token is reserved up front
+ * and the request is sent once it is due, without holding a thread in between.
+ */
+class AsyncGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncGeolocationInfoRetriever.class);
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final AsyncGeolocationHttpClient httpClient;
+
+  private final AsyncPermits permits;
+
+  private final GeolocationInfoResponseReader responseReader;
+
+  private final String reverseUrl;
+
+  private final Duration requestTimeout;
+
+  private final AdaptiveTokenBucket tokenBucket;
+
+  private final Duration defaultRetryAfter;
+
+  private final Counter throttledResponses;
+
+  AsyncGeolocationInfoRetriever(GeolocationInfoRetriever delegate, AsyncGeolocationHttpClient httpClient,
+                                AsyncPermits permits, GeolocationInfoResponseReader responseReader, String url,
+                                String apiKey, Duration requestTimeout, AdaptiveTokenBucket tokenBucket,
+                                Duration defaultRetryAfter, Counter throttledResponses) {
+    this.delegate = delegate;
+    this.httpClient = httpClient;
+    this.permits = permits;
+    this.responseReader = responseReader;
+    this.reverseUrl = url + "/reverse?limit=1&access_key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8)
+      + "&query=";
+    this.requestTimeout = requestTimeout;
+    this.tokenBucket = tokenBucket;
+    this.defaultRetryAfter = defaultRetryAfter;
+    this.throttledResponses = throttledResponses;
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    return delegate.retrieve(geolocationCoordinates);
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    return delegate.retrieveAll(geolocationCoordinates);
+  }
+
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    CompletableFuture<GeolocationInfo> result = new CompletableFuture<>();
+    BiConsumer<Void, Throwable> sendWithPermit = (ignored, permitFailure) -> {
+      if (permitFailure != null) {
+        result.completeExceptionally(GeolocationInfoRetriever.unwrapAsyncFailure(permitFailure));
+        return;
+      }
+      send(geolocationCoordinates).whenComplete((geolocationInfo, failure) -> {
+        permits.release();
+        if (failure != null) {
+          result.completeExceptionally(GeolocationInfoRetriever.unwrapAsyncFailure(failure));
+        } else {
+          result.complete(geolocationInfo);
+        }
+      });
+    };
+    CompletableFuture<Void> permit = permits.acquire();
+    if (permit.isDone()) {
+      permit.whenComplete(sendWithPermit);
+    } else {
+      // a permit handed over by release() would otherwise send on the releasing thread, one call nested in another
+      permit.whenCompleteAsync(sendWithPermit, httpClient.executor());
+    }
+    return result;
+  }
+
+  private CompletableFuture<GeolocationInfo> send(GeolocationCoordinates geolocationCoordinates) {
+    long delayNanos;
+    try {
+      delayNanos = tokenBucket == null ? 0 : tokenBucket.reserve();
+    } catch (GeolocationProviderUnavailableException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    HttpRequest request = HttpRequest.newBuilder(URI.create(reverseUrl + geolocationCoordinates.getLatitude() + ","
+        + geolocationCoordinates.getLongitude()))
+      .timeout(requestTimeout)
+      .header("Accept", "application/json")
+      .GET()
+      .build();
+    return httpClient.send(request, delayNanos).handle((response, failure) -> {
+      if (failure != null) {
+        log.error("Exception when trying to get geolocation data for coordinates: {}", geolocationCoordinates);
+        throw enrichmentException(geolocationCoordinates, GeolocationInfoRetriever.unwrapAsyncFailure(failure));
+      }
+      return toGeolocationInfo(response, geolocationCoordinates);
+    });
+  }
+
+  private GeolocationInfo toGeolocationInfo(HttpResponse<byte[]> response,
+                                            GeolocationCoordinates geolocationCoordinates) {
+    if (tokenBucket != null) {
+      if (response.statusCode() == RateLimitingClient.TOO_MANY_REQUESTS) {
+        throttledResponses.increment();
+        tokenBucket.onThrottled(RateLimitingClient.parseRetryAfter(
+          response.headers().firstValue(RateLimitingClient.RETRY_AFTER_HEADER).orElse(null), defaultRetryAfter));
+      } else {
+        tokenBucket.onAccepted();
+      }
+    }
+    if (response.statusCode() == RateLimitingClient.TOO_MANY_REQUESTS) {
+      log.warn("Geolocation provider answered 429 Too Many Requests for coordinates: {}", geolocationCoordinates);
+      throw new GeolocationProviderThrottledException(String.format(
+        "Geolocation provider throttled the call for coordinates: %s", geolocationCoordinates), null);
+    }
+    if (response.statusCode() / 100 != 2) {
+      log.error("Geolocation provider answered with status {} for coordinates: {}", response.statusCode(),
+        geolocationCoordinates);
+      throw enrichmentException(geolocationCoordinates, null);
+    }
+    GeolocationInfoFeignResponse body;
+    try {
+      body = responseReader.read(new ByteArrayInputStream(response.body()));
+    } catch (IOException e) {
+      throw enrichmentException(geolocationCoordinates, e);
+    }
+    if (body == null) {
+      throw enrichmentException(geolocationCoordinates, null);
+    }
+    List<GeolocationInfo> data = body.getData();
+    if (data == null || data.isEmpty()) {
+      throw new NotFoundException(String.format("Geolocation info not found for coordinates: %s", geolocationCoordinates));
+    }
+    return data.get(0);
+  }
+
+  private static GeolocationEnrichmentException enrichmentException(GeolocationCoordinates geolocationCoordinates,
+                                                                    Throwable cause) {
+    return new GeolocationEnrichmentException(String.format(
+      "Exception when trying to get geolocation data for coordinates: %s", geolocationCoordinates), cause);
+  }
+}
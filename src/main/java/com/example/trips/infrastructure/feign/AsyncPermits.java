@@ -0,0 +1,96 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Semaphore for asynchronous calls: a caller that finds no free permit gets a future that completes once a permit
+ * is handed over to it, instead of blocking. Waiters are served in order, at most {@code maxQueued} of them wait at
+ * a time, and a waiter that got no permit within the queue timeout fails.
+ */
+class AsyncPermits {
+
+  private final int maxPermits;
+
+  private final int maxQueued;
+
+  private final long queueTimeoutNanos;
+
+  private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+  private int available;
+
+  AsyncPermits(int maxPermits, int maxQueued, Duration queueTimeout) {
+    this.maxPermits = maxPermits;
+    this.maxQueued = maxQueued;
+    this.queueTimeoutNanos = queueTimeout.toNanos();
+    this.available = maxPermits;
+  }
+
+  /**
+   * Returns a future that completes when the caller holds a permit; it has to be given back with {@link #release()}.
+   * The future fails with {@link GeolocationProviderUnavailableException} when the queue is full or the wait timed
+   * out.
+   */
+  CompletableFuture<Void> acquire() {
+    CompletableFuture<Void> waiter = new CompletableFuture<>();
+    synchronized (this) {
+      if (available > 0) {
+        available--;
+        waiter.complete(null);
+        return waiter;
+      }
+      if (waiters.size() >= maxQueued) {
+        waiters.removeIf(CompletableFuture::isDone);
+        if (waiters.size() >= maxQueued) {
+          return CompletableFuture.failedFuture(
+            new GeolocationProviderUnavailableException("Too many queued calls to geolocation provider"));
+        }
+      }
+      waiters.add(waiter);
+    }
+    CompletableFuture.delayedExecutor(queueTimeoutNanos, TimeUnit.NANOSECONDS).execute(() ->
+      waiter.completeExceptionally(new GeolocationProviderUnavailableException(String.format(
+        "No geolocation provider call permit within %d ms", TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos)))));
+    return waiter;
+  }
+
+  /**
+   * Hands the permit over to the oldest waiter that has not timed out yet, or returns it to the pool.
+   */
+  void release() {
+    while (true) {
+      CompletableFuture<Void> waiter;
+      synchronized (this) {
+        waiter = waiters.poll();
+        if (waiter == null) {
+          available = Math.min(maxPermits, available + 1);
+          return;
+        }
+      }
+      // completed outside the lock: completing runs the waiter's dependent stages on this thread
+      if (waiter.complete(null)) {
+        return;
+      }
+    }
+  }
+
+  synchronized int inFlight() {
+    return maxPermits - available;
+  }
+
+  synchronized int queued() {
+    int queued = 0;
+    for (CompletableFuture<Void> waiter : waiters) {
+      if (!waiter.isDone()) {
+        queued++;
+      }
+    }
+    return queued;
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.trips.infrastructure.feign;
+
+import java.util.function.Supplier;
+
+class DirectGeolocationRequestInvoker implements GeolocationRequestInvoker {
+
+  @Override
+  public <T> T invoke(Supplier<T> call) {
+    return call.get();
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.infrastructure.geolocation.GeolocationInfoRetrieverDecorator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-async", name = "enabled", havingValue = "true")
+class GeolocationAsyncConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  public AsyncGeolocationHttpClient asyncGeolocationHttpClient(GeolocationAsyncProperties geolocationAsyncProperties) {
+    return new AsyncGeolocationHttpClient(geolocationAsyncProperties.getThreads(),
+      geolocationAsyncProperties.getConnectTimeout());
+  }
+
+  @Bean
+  public AsyncPermits asyncGeolocationPermits(GeolocationAsyncProperties geolocationAsyncProperties,
+                                              MeterRegistry meterRegistry) {
+    AsyncPermits permits = new AsyncPermits(geolocationAsyncProperties.getMaxConcurrentRequests(),
+      geolocationAsyncProperties.getMaxQueuedRequests(), geolocationAsyncProperties.getQueueTimeout());
+    Gauge.builder("geolocation.async.in.flight", permits, AsyncPermits::inFlight)
+      .description("Asynchronous calls to the geolocation provider in flight")
+      .register(meterRegistry);
+    Gauge.builder("geolocation.async.queued", permits, AsyncPermits::queued)
+      .description("Asynchronous calls to the geolocation provider waiting for a permit")
+      .register(meterRegistry);
+    return permits;
+  }
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.ASYNC_PROVIDER_ORDER)
+  public GeolocationInfoRetrieverDecorator asyncGeolocationInfoRetrieverDecorator(
+    AsyncGeolocationHttpClient asyncGeolocationHttpClient, AsyncPermits asyncGeolocationPermits,
+    GeolocationAsyncProperties geolocationAsyncProperties, GeolocationProperties geolocationProperties,
+    GeolocationRateLimitProperties geolocationRateLimitProperties, ObjectProvider<AdaptiveTokenBucket> tokenBucket,
+    ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    return delegate -> new AsyncGeolocationInfoRetriever(delegate, asyncGeolocationHttpClient, asyncGeolocationPermits,
+      new GeolocationInfoResponseReader(objectMapper), geolocationProperties.getUrl(),
+      geolocationProperties.getApiKey(), geolocationAsyncProperties.getRequestTimeout(), tokenBucket.getIfAvailable(),
+      geolocationRateLimitProperties.getDefaultRetryAfter(), meterRegistry.counter("geolocation.rate.limit.throttled"));
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.trips.infrastructure.feign;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-async")
+@ConstructorBinding
+class GeolocationAsyncProperties {
+
+  private final int maxConcurrentRequests;
+
+  private final int maxQueuedRequests;
+
+  private final Duration queueTimeout;
+
+  private final Duration connectTimeout;
+
+  private final Duration requestTimeout;
+
+  private final int threads;
+
+  GeolocationAsyncProperties(int maxConcurrentRequests, int maxQueuedRequests, Duration queueTimeout,
+                             Duration connectTimeout, Duration requestTimeout, int threads) {
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    this.maxQueuedRequests = maxQueuedRequests;
+    this.queueTimeout = queueTimeout;
+    this.connectTimeout = connectTimeout;
+    this.requestTimeout = requestTimeout;
+    this.threads = threads;
+  }
+
+  int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  int getMaxQueuedRequests() {
+    return maxQueuedRequests;
+  }
+
+  Duration getQueueTimeout() {
+    return queueTimeout;
+  }
+
+  Duration getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  Duration getRequestTimeout() {
+    return requestTimeout;
+  }
+
+  int getThreads() {
+    return threads;
+  }
+}
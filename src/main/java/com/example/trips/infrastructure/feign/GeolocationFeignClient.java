@@ -4,8 +4,11 @@ import java.util.List;
 
 import org.springframework.cloud.openfeign.CollectionFormat;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @FeignClient(name = "geolocationFeignClient", url = "${geolocation-api.url}")
@@ -16,4 +19,8 @@ interface GeolocationFeignClient {
   ResponseEntity<GeolocationInfoFeignResponse> getLocation(@RequestParam(defaultValue = "1") int limit,
                                                            @RequestParam("access_key") String accessKey,
                                                            @RequestParam("query") List<Double> coordinates);
+
+  @PostMapping(value = "/reverse", consumes = MediaType.APPLICATION_JSON_VALUE)
+  ResponseEntity<GeolocationInfoFeignBatchResponse> getLocations(@RequestParam("access_key") String accessKey,
+                                                                 @RequestBody GeolocationInfoFeignBatchRequest request);
 }
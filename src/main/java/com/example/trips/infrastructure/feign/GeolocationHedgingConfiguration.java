@@ -0,0 +1,26 @@
+package com.example.trips.infrastructure.feign;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+class GeolocationHedgingConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  @ConditionalOnProperty(prefix = "geolocation-hedging", name = "enabled", havingValue = "true")
+  public HedgingGeolocationRequestInvoker hedgingGeolocationRequestInvoker(
+    GeolocationHedgingProperties geolocationHedgingProperties, MeterRegistry meterRegistry) {
+    return new HedgingGeolocationRequestInvoker(geolocationHedgingProperties.getDelayPercentile(),
+      geolocationHedgingProperties.getInitialDelay(), geolocationHedgingProperties.getMinDelay(),
+      geolocationHedgingProperties.getBudgetRatio(), geolocationHedgingProperties.getPoolSize(),
+      geolocationHedgingProperties.getQueueCapacity(), meterRegistry);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "geolocation-hedging", name = "enabled", havingValue = "false", matchIfMissing = true)
+  public DirectGeolocationRequestInvoker directGeolocationRequestInvoker() {
+    return new DirectGeolocationRequestInvoker();
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.trips.infrastructure.feign;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-hedging")
+@ConstructorBinding
+class GeolocationHedgingProperties {
+
+  private final double delayPercentile;
+
+  private final Duration initialDelay;
+
+  private final Duration minDelay;
+
+  private final double budgetRatio;
+
+  private final int poolSize;
+
+  private final int queueCapacity;
+
+  GeolocationHedgingProperties(double delayPercentile, Duration initialDelay, Duration minDelay, double budgetRatio,
+                               int poolSize, int queueCapacity) {
+    this.delayPercentile = delayPercentile;
+    this.initialDelay = initialDelay;
+    this.minDelay = minDelay;
+    this.budgetRatio = budgetRatio;
+    this.poolSize = poolSize;
+    this.queueCapacity = queueCapacity;
+  }
+
+  double getDelayPercentile() {
+    return delayPercentile;
+  }
+
+  Duration getInitialDelay() {
+    return initialDelay;
+  }
+
+  Duration getMinDelay() {
+    return minDelay;
+  }
+
+  double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  int getPoolSize() {
+    return poolSize;
+  }
+
+  int getQueueCapacity() {
+    return queueCapacity;
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.trips.infrastructure.feign;
+
+import java.util.List;
+import java.util.Objects;
+
+class GeolocationInfoFeignBatchRequest {
+
+  private final List<Query> batch;
+
+  GeolocationInfoFeignBatchRequest(List<Query> batch) {
+    this.batch = batch;
+  }
+
+  public List<Query> getBatch() {
+    return batch;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    GeolocationInfoFeignBatchRequest that = (GeolocationInfoFeignBatchRequest) o;
+    return Objects.equals(batch, that.batch);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(batch);
+  }
+
+  @Override
+  public String toString() {
+    return "GeolocationInfoFeignBatchRequest{" +
+      "batch=" + batch +
+      '}';
+  }
+
+  static class Query {
+
+    private final String query;
+
+    private final int limit;
+
+    Query(String query, int limit) {
+      this.query = query;
+      this.limit = limit;
+    }
+
+    public String getQuery() {
+      return query;
+    }
+
+    public int getLimit() {
+      return limit;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Query that = (Query) o;
+      return limit == that.limit && Objects.equals(query, that.query);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(query, limit);
+    }
+
+    @Override
+    public String toString() {
+      return "Query{" +
+        "query='" + query + '\'' +
+        ", limit=" + limit +
+        '}';
+    }
+  }
+}
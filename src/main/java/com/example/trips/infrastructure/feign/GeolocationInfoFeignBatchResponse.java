@@ -0,0 +1,43 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.model.GeolocationInfo;
+
+import java.util.List;
+import java.util.Objects;
+
+class GeolocationInfoFeignBatchResponse {
+
+  private List<List<GeolocationInfo>> data;
+
+  List<List<GeolocationInfo>> getData() {
+    return data;
+  }
+
+  void setData(List<List<GeolocationInfo>> data) {
+    this.data = data;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    GeolocationInfoFeignBatchResponse that = (GeolocationInfoFeignBatchResponse) o;
+    return Objects.equals(data, that.data);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(data);
+  }
+
+  @Override
+  public String toString() {
+    return "GeolocationInfoFeignBatchResponse{" +
+      "data=" + data +
+      '}';
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.trips.infrastructure.feign;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Streams single lookup responses with {@link GeolocationInfoResponseReader} instead of binding them through the
+ * message converters. Any other type goes to the delegate.
+ * <p>
+ * Public because the Feign configuration lives in another package.
+ */
+public class GeolocationInfoFeignDecoder implements Decoder {
+
+  private final GeolocationInfoResponseReader responseReader;
+
+  private final Decoder delegate;
+
+  public GeolocationInfoFeignDecoder(ObjectMapper objectMapper, Decoder delegate) {
+    this.responseReader = new GeolocationInfoResponseReader(objectMapper);
+    this.delegate = delegate;
+  }
+
+  @Override
+  public Object decode(Response response, Type type) throws IOException {
+    if (type != GeolocationInfoFeignResponse.class) {
+      return delegate.decode(response, type);
+    }
+    if (response.body() == null) {
+      return null;
+    }
+    try (InputStream body = response.body().asInputStream()) {
+      return responseReader.read(body);
+    } catch (JsonParseException e) {
+      throw new DecodeException(response.status(), e.getOriginalMessage(), response.request(), e);
+    }
+  }
+}
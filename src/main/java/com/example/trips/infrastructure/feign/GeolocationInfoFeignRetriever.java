@@ -1,10 +1,13 @@
 package com.example.trips.infrastructure.feign;
 
 import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderThrottledException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
 import com.example.trips.api.exception.InternalServerErrorException;
 import com.example.trips.api.exception.NotFoundException;
 import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
 import com.example.trips.api.service.GeolocationInfoRetriever;
 import feign.FeignException;
 import org.slf4j.Logger;
@@ -12,7 +15,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 @Component
@@ -26,10 +34,14 @@ class GeolocationInfoFeignRetriever implements GeolocationInfoRetriever {
 
   private final GeolocationFeignClient geolocationFeignClient;
 
+  private final GeolocationRequestInvoker geolocationRequestInvoker;
+
   GeolocationInfoFeignRetriever(GeolocationProperties geolocationProperties,
-                                GeolocationFeignClient geolocationFeignClient) {
+                                GeolocationFeignClient geolocationFeignClient,
+                                GeolocationRequestInvoker geolocationRequestInvoker) {
     this.geolocationProperties = geolocationProperties;
     this.geolocationFeignClient = geolocationFeignClient;
+    this.geolocationRequestInvoker = geolocationRequestInvoker;
   }
 
   @Override
@@ -37,8 +49,12 @@ class GeolocationInfoFeignRetriever implements GeolocationInfoRetriever {
     List<Double> startLocationQuery = List.of(geolocationCoordinates.getLatitude(), geolocationCoordinates.getLongitude());
     ResponseEntity<GeolocationInfoFeignResponse> geolocationInfoFeignResponse;
     try {
-      geolocationInfoFeignResponse = geolocationFeignClient.getLocation(RESULTS_LIMIT, geolocationProperties.getApiKey(), startLocationQuery);
+      geolocationInfoFeignResponse = geolocationRequestInvoker.invoke(() ->
+        geolocationFeignClient.getLocation(RESULTS_LIMIT, geolocationProperties.getApiKey(), startLocationQuery));
     } catch (FeignException e) {
+      if (e.status() == RateLimitingClient.TOO_MANY_REQUESTS) {
+        throw throttledException(e);
+      }
       log.error("Exception when trying to get geolocation data for coordinates: {}", geolocationCoordinates);
       throw new GeolocationEnrichmentException(String.format("Exception when trying to get geolocation data for coordinates: %s", geolocationCoordinates), e);
     }
@@ -50,4 +66,79 @@ class GeolocationInfoFeignRetriever implements GeolocationInfoRetriever {
     }
     return data.get(0);
   }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    if (!geolocationProperties.isBatchEnabled()) {
+      return GeolocationInfoRetriever.super.retrieveAll(geolocationCoordinates);
+    }
+    List<GeolocationCoordinates> distinctCoordinates = new ArrayList<>(new LinkedHashSet<>(geolocationCoordinates));
+    int batchSize = geolocationProperties.getBatchSize();
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    for (int from = 0; from < distinctCoordinates.size(); from += batchSize) {
+      List<GeolocationCoordinates> batch =
+        distinctCoordinates.subList(from, Math.min(from + batchSize, distinctCoordinates.size()));
+      results.putAll(retrieveBatch(batch));
+    }
+    return results;
+  }
+
+  private Map<GeolocationCoordinates, GeolocationInfoResult> retrieveBatch(List<GeolocationCoordinates> batch) {
+    List<GeolocationInfoFeignBatchRequest.Query> queries = new ArrayList<>(batch.size());
+    for (GeolocationCoordinates geolocationCoordinates : batch) {
+      String query = geolocationCoordinates.getLatitude() + "," + geolocationCoordinates.getLongitude();
+      queries.add(new GeolocationInfoFeignBatchRequest.Query(query, RESULTS_LIMIT));
+    }
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    ResponseEntity<GeolocationInfoFeignBatchResponse> geolocationInfoFeignBatchResponse;
+    try {
+      geolocationInfoFeignBatchResponse = geolocationFeignClient.getLocations(geolocationProperties.getApiKey(),
+        new GeolocationInfoFeignBatchRequest(queries));
+    } catch (FeignException e) {
+      if (e.status() == RateLimitingClient.TOO_MANY_REQUESTS) {
+        GeolocationProviderThrottledException throttledException = throttledException(e);
+        for (GeolocationCoordinates geolocationCoordinates : batch) {
+          results.put(geolocationCoordinates, GeolocationInfoResult.failure(throttledException));
+        }
+        return results;
+      }
+      log.error("Exception when trying to get geolocation data for {} coordinates", batch.size());
+      for (GeolocationCoordinates geolocationCoordinates : batch) {
+        results.put(geolocationCoordinates, GeolocationInfoResult.failure(new GeolocationEnrichmentException(
+          String.format("Exception when trying to get geolocation data for coordinates: %s", geolocationCoordinates), e)));
+      }
+      return results;
+    } catch (GeolocationProviderUnavailableException e) {
+      for (GeolocationCoordinates geolocationCoordinates : batch) {
+        results.put(geolocationCoordinates, GeolocationInfoResult.failure(e));
+      }
+      return results;
+    }
+    GeolocationInfoFeignBatchResponse body = geolocationInfoFeignBatchResponse.getBody();
+    List<List<GeolocationInfo>> data = body == null || body.getData() == null ? List.of() : body.getData();
+    if (data.size() < batch.size()) {
+      log.error("Batch response holds {} results for {} coordinates", data.size(), batch.size());
+    }
+    for (int i = 0; i < batch.size(); i++) {
+      GeolocationCoordinates geolocationCoordinates = batch.get(i);
+      List<GeolocationInfo> itemData = i < data.size() ? data.get(i) : null;
+      // a missing result is a truncated or malformed response, not an answer that nothing is there
+      if (itemData == null) {
+        results.put(geolocationCoordinates, GeolocationInfoResult.failure(new GeolocationEnrichmentException(
+          String.format("Batch response holds no result for coordinates: %s", geolocationCoordinates))));
+      } else if (itemData.isEmpty()) {
+        results.put(geolocationCoordinates, GeolocationInfoResult.failure(new NotFoundException(
+          String.format("Geolocation info not found for coordinates: %s", geolocationCoordinates))));
+      } else {
+        results.put(geolocationCoordinates, GeolocationInfoResult.success(itemData.get(0)));
+      }
+    }
+    return results;
+  }
+
+  private static GeolocationProviderThrottledException throttledException(FeignException e) {
+    log.warn("Geolocation provider answered 429 Too Many Requests");
+    return new GeolocationProviderThrottledException("Geolocation provider throttled the call", e);
+  }
 }
@@ -0,0 +1,73 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.model.GeolocationInfo;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a single lookup response as a stream: only the first element of {@code data} is bound, and every other
+ * token is skipped without being materialized. Skipping still reads the body to the end, so a pooled connection can
+ * be reused.
+ */
+class GeolocationInfoResponseReader {
+
+  private static final String DATA_FIELD = "data";
+
+  private final ObjectReader geolocationInfoReader;
+
+  GeolocationInfoResponseReader(ObjectMapper objectMapper) {
+    this.geolocationInfoReader = objectMapper.readerFor(GeolocationInfo.class);
+  }
+
+  /**
+   * Returns {@code null} for an empty body.
+   *
+   * @throws JsonParseException if the body is not a JSON object
+   */
+  GeolocationInfoFeignResponse read(InputStream body) throws IOException {
+    try (JsonParser parser = geolocationInfoReader.createParser(body)) {
+      JsonToken firstToken = parser.nextToken();
+      if (firstToken == null) {
+        return null;
+      }
+      if (firstToken != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser,
+          String.format("Expected geolocation response object but got %s", firstToken));
+      }
+      return readResponse(parser);
+    }
+  }
+
+  private GeolocationInfoFeignResponse readResponse(JsonParser parser) throws IOException {
+    GeolocationInfoFeignResponse geolocationInfoFeignResponse = new GeolocationInfoFeignResponse();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if (DATA_FIELD.equals(fieldName) && value == JsonToken.START_ARRAY) {
+        geolocationInfoFeignResponse.setData(readFirstElement(parser));
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return geolocationInfoFeignResponse;
+  }
+
+  private List<GeolocationInfo> readFirstElement(JsonParser parser) throws IOException {
+    if (parser.nextToken() == JsonToken.END_ARRAY) {
+      return Collections.emptyList();
+    }
+    GeolocationInfo geolocationInfo = geolocationInfoReader.readValue(parser);
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      parser.skipChildren();
+    }
+    return Collections.singletonList(geolocationInfo);
+  }
+}
@@ -11,9 +11,15 @@ class GeolocationProperties {
 
   private final String apiKey;
 
-  GeolocationProperties(String url, String apiKey) {
+  private final boolean batchEnabled;
+
+  private final int batchSize;
+
+  GeolocationProperties(String url, String apiKey, boolean batchEnabled, int batchSize) {
     this.url = url;
     this.apiKey = apiKey;
+    this.batchEnabled = batchEnabled;
+    this.batchSize = batchSize;
   }
 
   String getUrl() {
@@ -23,4 +29,12 @@ class GeolocationProperties {
   String getApiKey() {
     return apiKey;
   }
+
+  boolean isBatchEnabled() {
+    return batchEnabled;
+  }
+
+  int getBatchSize() {
+    return batchSize;
+  }
 }
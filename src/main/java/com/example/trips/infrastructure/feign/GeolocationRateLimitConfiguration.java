@@ -0,0 +1,38 @@
+package com.example.trips.infrastructure.feign;
+
+import feign.Capability;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-rate-limit", name = "enabled", havingValue = "true")
+class GeolocationRateLimitConfiguration {
+
+  @Bean
+  public AdaptiveTokenBucket geolocationTokenBucket(GeolocationRateLimitProperties geolocationRateLimitProperties,
+                                                    MeterRegistry meterRegistry) {
+    AdaptiveTokenBucket tokenBucket = new AdaptiveTokenBucket(geolocationRateLimitProperties, System::nanoTime);
+    Gauge.builder("geolocation.rate.limit.tokens", tokenBucket, AdaptiveTokenBucket::availableTokens)
+      .description("Calls that can be made to the geolocation provider without waiting")
+      .register(meterRegistry);
+    Gauge.builder("geolocation.rate.limit.rate", tokenBucket, AdaptiveTokenBucket::currentRate)
+      .description("Current allowed calls per second to the geolocation provider")
+      .register(meterRegistry);
+    return tokenBucket;
+  }
+
+  @Bean
+  public Capability geolocationRateLimitCapability(AdaptiveTokenBucket geolocationTokenBucket,
+                                                   GeolocationRateLimitProperties geolocationRateLimitProperties,
+                                                   MeterRegistry meterRegistry) {
+    Timer waitTimer = Timer.builder("geolocation.rate.limit.wait")
+      .description("Time spent waiting for a geolocation provider rate limit token")
+      .register(meterRegistry);
+    return new RateLimitingCapability(geolocationTokenBucket, geolocationRateLimitProperties.getDefaultRetryAfter(),
+      waitTimer, meterRegistry.counter("geolocation.rate.limit.throttled"));
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.trips.infrastructure.feign;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-rate-limit")
+@ConstructorBinding
+class GeolocationRateLimitProperties {
+
+  private final double requestsPerSecond;
+
+  private final double minRequestsPerSecond;
+
+  private final int burst;
+
+  private final double decreaseFactor;
+
+  private final double recoveryStep;
+
+  private final Duration maxWait;
+
+  private final Duration defaultRetryAfter;
+
+  GeolocationRateLimitProperties(double requestsPerSecond, double minRequestsPerSecond, int burst,
+                                 double decreaseFactor, double recoveryStep, Duration maxWait,
+                                 Duration defaultRetryAfter) {
+    this.requestsPerSecond = requestsPerSecond;
+    this.minRequestsPerSecond = minRequestsPerSecond;
+    this.burst = burst;
+    this.decreaseFactor = decreaseFactor;
+    this.recoveryStep = recoveryStep;
+    this.maxWait = maxWait;
+    this.defaultRetryAfter = defaultRetryAfter;
+  }
+
+  double getRequestsPerSecond() {
+    return requestsPerSecond;
+  }
+
+  double getMinRequestsPerSecond() {
+    return minRequestsPerSecond;
+  }
+
+  int getBurst() {
+    return burst;
+  }
+
+  double getDecreaseFactor() {
+    return decreaseFactor;
+  }
+
+  double getRecoveryStep() {
+    return recoveryStep;
+  }
+
+  Duration getMaxWait() {
+    return maxWait;
+  }
+
+  Duration getDefaultRetryAfter() {
+    return defaultRetryAfter;
+  }
+}
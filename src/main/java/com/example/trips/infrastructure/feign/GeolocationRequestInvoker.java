@@ -0,0 +1,11 @@
+package com.example.trips.infrastructure.feign;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a single call to the geolocation provider. Exceptions thrown by the call are rethrown as they are.
+ */
+interface GeolocationRequestInvoker {
+
+  <T> T invoke(Supplier<T> call);
+}
@@ -0,0 +1,31 @@
+package com.example.trips.infrastructure.feign;
+
+/**
+ * Every call deposits {@code ratio} of a token and every hedge withdraws a whole one, so over time no more than
+ * {@code ratio} of the calls are hedged. The balance is capped to limit how many hedges a quiet period can save up.
+ */
+class HedgeBudget {
+
+  private final double ratio;
+
+  private final double maxTokens;
+
+  private double tokens;
+
+  HedgeBudget(double ratio, double maxTokens) {
+    this.ratio = ratio;
+    this.maxTokens = maxTokens;
+  }
+
+  synchronized void onCall() {
+    tokens = Math.min(maxTokens, tokens + ratio);
+  }
+
+  synchronized boolean tryWithdraw() {
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+}
@@ -0,0 +1,195 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second, identical call when the first one has not answered within the configured latency percentile of
+ * recent calls, and returns whichever answers first. The call only fails once every attempt has failed.
+ * <p>
+ * Hedges are paid for from a {@link HedgeBudget}, so a slow provider sees at most the budget ratio of extra load.
+ */
+class HedgingGeolocationRequestInvoker implements GeolocationRequestInvoker {
+
+  private static final int LATENCY_WINDOW_SIZE = 512;
+
+  private static final int MIN_LATENCY_SAMPLES = 20;
+
+  private static final double MAX_BUDGET_TOKENS = 10;
+
+  private final ThreadPoolExecutor executor;
+
+  private final LatencyWindow latencyWindow = new LatencyWindow(LATENCY_WINDOW_SIZE);
+
+  private final HedgeBudget hedgeBudget;
+
+  private final double delayPercentile;
+
+  private final long initialDelayNanos;
+
+  private final long minDelayNanos;
+
+  private final Counter calls;
+
+  private final Counter sentHedges;
+
+  private final Counter budgetExhaustedHedges;
+
+  private final Counter rejectedHedges;
+
+  private final Counter hedgeWins;
+
+  HedgingGeolocationRequestInvoker(double delayPercentile, Duration initialDelay, Duration minDelay,
+                                   double budgetRatio, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("geolocation-hedging-"));
+    this.hedgeBudget = new HedgeBudget(budgetRatio, MAX_BUDGET_TOKENS);
+    this.delayPercentile = delayPercentile;
+    this.initialDelayNanos = initialDelay.toNanos();
+    this.minDelayNanos = minDelay.toNanos();
+    this.calls = meterRegistry.counter("geolocation.hedging.calls");
+    this.sentHedges = meterRegistry.counter("geolocation.hedging.hedges", "outcome", "sent");
+    this.budgetExhaustedHedges = meterRegistry.counter("geolocation.hedging.hedges", "outcome", "budget_exhausted");
+    this.rejectedHedges = meterRegistry.counter("geolocation.hedging.hedges", "outcome", "rejected");
+    this.hedgeWins = meterRegistry.counter("geolocation.hedging.wins");
+    TimeGauge.builder("geolocation.hedging.delay", this, TimeUnit.NANOSECONDS,
+        HedgingGeolocationRequestInvoker::hedgeDelayNanos)
+      .description("Time after which a second call is sent to the geolocation provider")
+      .register(meterRegistry);
+  }
+
+  @Override
+  public <T> T invoke(Supplier<T> call) {
+    calls.increment();
+    hedgeBudget.onCall();
+    HedgedCall<T> hedgedCall = new HedgedCall<>(call);
+    try {
+      if (!hedgedCall.start(false)) {
+        // the pool is saturated: make the call on the calling thread, without a hedge
+        return call.get();
+      }
+      try {
+        return hedgedCall.result.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        hedge(hedgedCall);
+      }
+      return hedgedCall.result.get();
+    } catch (ExecutionException e) {
+      throw rethrow(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new GeolocationEnrichmentException("Interrupted while waiting for geolocation provider", e);
+    } finally {
+      hedgedCall.cancel();
+    }
+  }
+
+  long hedgeDelayNanos() {
+    if (latencyWindow.size() < MIN_LATENCY_SAMPLES) {
+      return initialDelayNanos;
+    }
+    return Math.max(minDelayNanos, latencyWindow.percentile(delayPercentile));
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private void hedge(HedgedCall<?> hedgedCall) {
+    if (hedgedCall.result.isDone()) {
+      return;
+    }
+    if (!hedgeBudget.tryWithdraw()) {
+      budgetExhaustedHedges.increment();
+      return;
+    }
+    if (hedgedCall.start(true)) {
+      sentHedges.increment();
+    } else {
+      rejectedHedges.increment();
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable cause) {
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new IllegalStateException(cause);
+  }
+
+  private final class HedgedCall<T> {
+
+    private final Supplier<T> call;
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private final AtomicInteger runningAttempts = new AtomicInteger();
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // only touched by the calling thread
+    private final List<Future<?>> attempts = new ArrayList<>(2);
+
+    private HedgedCall(Supplier<T> call) {
+      this.call = call;
+    }
+
+    private boolean start(boolean hedge) {
+      runningAttempts.incrementAndGet();
+      try {
+        attempts.add(executor.submit(() -> run(hedge)));
+        return true;
+      } catch (RejectedExecutionException e) {
+        attemptFailed();
+        return false;
+      }
+    }
+
+    private void run(boolean hedge) {
+      long start = System.nanoTime();
+      try {
+        T value = call.get();
+        latencyWindow.record(System.nanoTime() - start);
+        if (result.complete(value) && hedge) {
+          hedgeWins.increment();
+        }
+      } catch (RuntimeException | Error e) {
+        failure.compareAndSet(null, e);
+        attemptFailed();
+      }
+    }
+
+    private void attemptFailed() {
+      // a failure only fails the call once no other attempt can still answer it
+      Throwable firstFailure = failure.get();
+      if (runningAttempts.decrementAndGet() == 0 && firstFailure != null) {
+        result.completeExceptionally(firstFailure);
+      }
+    }
+
+    private void cancel() {
+      attempts.forEach(attempt -> attempt.cancel(true));
+    }
+  }
+}
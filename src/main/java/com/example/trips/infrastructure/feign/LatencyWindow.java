@@ -0,0 +1,45 @@
+package com.example.trips.infrastructure.feign;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring of the most recent call latencies, used to derive a percentile without keeping a histogram.
+ */
+class LatencyWindow {
+
+  private final long[] samples;
+
+  private int next;
+
+  private int size;
+
+  LatencyWindow(int capacity) {
+    this.samples = new long[capacity];
+  }
+
+  synchronized void record(long latencyNanos) {
+    samples[next] = latencyNanos;
+    next = (next + 1) % samples.length;
+    size = Math.min(size + 1, samples.length);
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   * @return the latency at the given percentile (0..1) of the recorded samples, or -1 if nothing was recorded yet
+   */
+  long percentile(double percentile) {
+    long[] copy;
+    synchronized (this) {
+      if (size == 0) {
+        return -1;
+      }
+      copy = Arrays.copyOf(samples, size);
+    }
+    Arrays.sort(copy);
+    int index = (int) Math.ceil(percentile * copy.length) - 1;
+    return copy[Math.max(0, Math.min(index, copy.length - 1))];
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.trips.infrastructure.feign;
+
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+
+/**
+ * Public because Feign looks up the {@code enrich} overloads reflectively.
+ */
+public class RateLimitingCapability implements Capability {
+
+  private final AdaptiveTokenBucket tokenBucket;
+
+  private final Duration defaultRetryAfter;
+
+  private final Timer waitTimer;
+
+  private final Counter throttledResponses;
+
+  RateLimitingCapability(AdaptiveTokenBucket tokenBucket, Duration defaultRetryAfter, Timer waitTimer,
+                         Counter throttledResponses) {
+    this.tokenBucket = tokenBucket;
+    this.defaultRetryAfter = defaultRetryAfter;
+    this.waitTimer = waitTimer;
+    this.throttledResponses = throttledResponses;
+  }
+
+  @Override
+  public Client enrich(Client client) {
+    return new RateLimitingClient(client, tokenBucket, defaultRetryAfter, waitTimer, throttledResponses);
+  }
+}
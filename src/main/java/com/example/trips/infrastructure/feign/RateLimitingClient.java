@@ -0,0 +1,98 @@
+package com.example.trips.infrastructure.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+class RateLimitingClient implements Client {
+
+  static final int TOO_MANY_REQUESTS = 429;
+
+  static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private final Client delegate;
+
+  private final AdaptiveTokenBucket tokenBucket;
+
+  private final Duration defaultRetryAfter;
+
+  private final Timer waitTimer;
+
+  private final Counter throttledResponses;
+
+  RateLimitingClient(Client delegate, AdaptiveTokenBucket tokenBucket, Duration defaultRetryAfter, Timer waitTimer,
+                     Counter throttledResponses) {
+    this.delegate = delegate;
+    this.tokenBucket = tokenBucket;
+    this.defaultRetryAfter = defaultRetryAfter;
+    this.waitTimer = waitTimer;
+    this.throttledResponses = throttledResponses;
+  }
+
+  @Override
+  public Response execute(Request request, Request.Options options) throws IOException {
+    awaitToken();
+    Response response = delegate.execute(request, options);
+    if (response.status() == TOO_MANY_REQUESTS) {
+      throttledResponses.increment();
+      tokenBucket.onThrottled(retryAfter(response));
+    } else {
+      tokenBucket.onAccepted();
+    }
+    return response;
+  }
+
+  private void awaitToken() throws InterruptedIOException {
+    long waitNanos = tokenBucket.reserve();
+    waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+    if (waitNanos == 0) {
+      return;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for geolocation provider rate limit");
+    }
+  }
+
+  private Duration retryAfter(Response response) {
+    Collection<String> values = response.headers().get(RETRY_AFTER_HEADER);
+    if (values == null || values.isEmpty()) {
+      values = response.headers().get(RETRY_AFTER_HEADER.toLowerCase());
+    }
+    return parseRetryAfter(values == null || values.isEmpty() ? null : values.iterator().next(), defaultRetryAfter);
+  }
+
+  /**
+   * Parses a Retry-After header given either in seconds or as an HTTP date.
+   */
+  static Duration parseRetryAfter(String headerValue, Duration defaultRetryAfter) {
+    if (headerValue == null) {
+      return defaultRetryAfter;
+    }
+    String value = headerValue.trim();
+    try {
+      return Duration.ofSeconds(Long.parseLong(value));
+    } catch (NumberFormatException e) {
+      try {
+        Duration untilDate = Duration.between(ZonedDateTime.now(),
+          ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+        return untilDate.isNegative() ? Duration.ZERO : untilDate;
+      } catch (DateTimeParseException ex) {
+        return defaultRetryAfter;
+      }
+    }
+  }
+}
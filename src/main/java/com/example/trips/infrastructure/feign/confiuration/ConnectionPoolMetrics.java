@@ -0,0 +1,37 @@
+package com.example.trips.infrastructure.feign.confiuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.function.ToDoubleFunction;
+
+class ConnectionPoolMetrics implements MeterBinder {
+
+  private static final String CONNECTIONS_METRIC = "feign.http.pool.connections";
+
+  private final ConnPoolControl<?> connectionPool;
+
+  ConnectionPoolMetrics(ConnPoolControl<?> connectionPool) {
+    this.connectionPool = connectionPool;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry meterRegistry) {
+    registerConnectionsGauge(meterRegistry, "leased", PoolStats::getLeased);
+    registerConnectionsGauge(meterRegistry, "pending", PoolStats::getPending);
+    registerConnectionsGauge(meterRegistry, "idle", PoolStats::getAvailable);
+    Gauge.builder(CONNECTIONS_METRIC + ".max", connectionPool, pool -> pool.getTotalStats().getMax())
+      .description("Maximum number of pooled connections")
+      .register(meterRegistry);
+  }
+
+  private void registerConnectionsGauge(MeterRegistry meterRegistry, String state, ToDoubleFunction<PoolStats> value) {
+    Gauge.builder(CONNECTIONS_METRIC, connectionPool, pool -> value.applyAsDouble(pool.getTotalStats()))
+      .tag("state", state)
+      .description("Number of pooled connections in the given state")
+      .register(meterRegistry);
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.trips.infrastructure.feign.confiuration;
 
+import com.example.trips.infrastructure.feign.GeolocationInfoFeignDecoder;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -34,7 +35,8 @@ class FeignConfiguration {
     objectMapper.registerModule(javaTimeModule);
 
     HttpMessageConverter jacksonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
-    ObjectFactory<HttpMessageConverters> objectFactory = () -> new HttpMessageConverters(jacksonConverter);
-    return new ResponseEntityDecoder(new SpringDecoder(objectFactory));
+    HttpMessageConverters messageConverters = new HttpMessageConverters(jacksonConverter);
+    ObjectFactory<HttpMessageConverters> objectFactory = () -> messageConverters;
+    return new ResponseEntityDecoder(new GeolocationInfoFeignDecoder(objectMapper, new SpringDecoder(objectFactory)));
   }
 }
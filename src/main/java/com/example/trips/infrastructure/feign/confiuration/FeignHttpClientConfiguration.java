@@ -0,0 +1,22 @@
+package com.example.trips.infrastructure.feign.confiuration;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(value = "feign.httpclient.hc5.enabled", havingValue = "true")
+class FeignHttpClientConfiguration {
+
+  @Bean
+  public MeterBinder feignConnectionPoolMetrics(HttpClientConnectionManager hc5ConnectionManager) {
+    if (hc5ConnectionManager instanceof PoolingHttpClientConnectionManager) {
+      return new ConnectionPoolMetrics((PoolingHttpClientConnectionManager) hc5ConnectionManager);
+    }
+    return meterRegistry -> {
+    };
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.trips.infrastructure.gazetteer;
+
+import com.example.trips.infrastructure.geolocation.GeolocationInfoRetrieverDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-gazetteer", name = "enabled", havingValue = "true")
+class GazetteerConfiguration {
+
+  private static final Logger log = LoggerFactory.getLogger(GazetteerConfiguration.class);
+
+  @Bean
+  public GazetteerIndex gazetteerIndex(GazetteerProperties gazetteerProperties) throws IOException {
+    long startTime = System.nanoTime();
+    GazetteerIndex gazetteerIndex = GazetteerIndex.load(Paths.get(gazetteerProperties.getFile()));
+    log.info("Loaded {} places from gazetteer file {} in {} ms", gazetteerIndex.size(), gazetteerProperties.getFile(),
+      (System.nanoTime() - startTime) / 1_000_000);
+    return gazetteerIndex;
+  }
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.OFFLINE_GAZETTEER_ORDER)
+  public GeolocationInfoRetrieverDecorator gazetteerGeolocationInfoRetrieverDecorator(
+    GazetteerIndex gazetteerIndex, GazetteerProperties gazetteerProperties, MeterRegistry meterRegistry) {
+    return delegate -> new GazetteerGeolocationInfoRetriever(delegate, gazetteerIndex,
+      gazetteerProperties.getMaxDistanceKilometers(), meterRegistry);
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.trips.infrastructure.gazetteer;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+class GazetteerGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final GazetteerIndex gazetteerIndex;
+
+  private final double maxDistanceKilometers;
+
+  private final Counter hits;
+
+  private final Counter misses;
+
+  GazetteerGeolocationInfoRetriever(GeolocationInfoRetriever delegate, GazetteerIndex gazetteerIndex,
+                                    double maxDistanceKilometers, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.gazetteerIndex = gazetteerIndex;
+    this.maxDistanceKilometers = maxDistanceKilometers;
+    this.hits = meterRegistry.counter("geolocation.gazetteer.lookups", "result", "hit");
+    this.misses = meterRegistry.counter("geolocation.gazetteer.lookups", "result", "miss");
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    Optional<GeolocationInfo> geolocationInfo = gazetteerIndex.findNearest(geolocationCoordinates, maxDistanceKilometers);
+    if (geolocationInfo.isPresent()) {
+      hits.increment();
+      return geolocationInfo.get();
+    }
+    misses.increment();
+    return delegate.retrieve(geolocationCoordinates);
+  }
+
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    Optional<GeolocationInfo> geolocationInfo = gazetteerIndex.findNearest(geolocationCoordinates, maxDistanceKilometers);
+    if (geolocationInfo.isPresent()) {
+      hits.increment();
+      return CompletableFuture.completedFuture(geolocationInfo.get());
+    }
+    misses.increment();
+    return delegate.retrieveAsync(geolocationCoordinates);
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    List<GeolocationCoordinates> unresolved = new ArrayList<>();
+    for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+      Optional<GeolocationInfo> geolocationInfo = gazetteerIndex.findNearest(coordinates, maxDistanceKilometers);
+      if (geolocationInfo.isPresent()) {
+        hits.increment();
+        results.put(coordinates, GeolocationInfoResult.success(geolocationInfo.get()));
+      } else {
+        misses.increment();
+        unresolved.add(coordinates);
+      }
+    }
+    if (!unresolved.isEmpty()) {
+      results.putAll(delegate.retrieveAll(unresolved));
+    }
+    return results;
+  }
+}
@@ -0,0 +1,254 @@
+package com.example.trips.infrastructure.gazetteer;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Nearest-place lookup over a GeoNames-style dump (tab separated: name in column 1, latitude and longitude in
+ * columns 4 and 5, feature class in column 6, ISO country code in column 8).
+ * <p>
+ * Places are kept as unit-sphere vectors in flat float arrays laid out as an implicit k-d tree: the median of every
+ * range is its splitting node, so no node objects are allocated and lookups do not depend on longitude wrapping.
+ */
+final class GazetteerIndex {
+
+  private static final int NAME_COLUMN = 1;
+
+  private static final int LATITUDE_COLUMN = 4;
+
+  private static final int LONGITUDE_COLUMN = 5;
+
+  private static final int FEATURE_CLASS_COLUMN = 6;
+
+  private static final int COUNTRY_CODE_COLUMN = 8;
+
+  private static final String POPULATED_PLACE_FEATURE_CLASS = "P";
+
+  private static final double EARTH_RADIUS_KILOMETERS = 6371.0088;
+
+  private static final int DIMENSIONS = 3;
+
+  private final float[][] coordinates;
+
+  private final String[] localities;
+
+  private final String[] countries;
+
+  private GazetteerIndex(float[][] coordinates, String[] localities, String[] countries) {
+    this.coordinates = coordinates;
+    this.localities = localities;
+    this.countries = countries;
+  }
+
+  static GazetteerIndex load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException(String.format("Gazetteer file %s is too large to be mapped", file));
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return parse(buffer);
+    }
+  }
+
+  int size() {
+    return localities.length;
+  }
+
+  Optional<GeolocationInfo> findNearest(GeolocationCoordinates geolocationCoordinates, double maxDistanceKilometers) {
+    if (size() == 0) {
+      return Optional.empty();
+    }
+    float[] query = toUnitVector(geolocationCoordinates.getLatitude(), geolocationCoordinates.getLongitude());
+    double maxChord = 2 * Math.sin(maxDistanceKilometers / EARTH_RADIUS_KILOMETERS / 2);
+    Nearest nearest = new Nearest(maxChord * maxChord);
+    search(0, size(), 0, query, nearest);
+    if (nearest.index < 0) {
+      return Optional.empty();
+    }
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry(countries[nearest.index]);
+    geolocationInfo.setLocality(localities[nearest.index]);
+    return Optional.of(geolocationInfo);
+  }
+
+  private void search(int from, int to, int depth, float[] query, Nearest nearest) {
+    if (from >= to) {
+      return;
+    }
+    int median = (from + to) >>> 1;
+    double distance = squaredDistance(median, query);
+    if (distance <= nearest.squaredDistance) {
+      nearest.squaredDistance = distance;
+      nearest.index = median;
+    }
+    int axis = depth % DIMENSIONS;
+    double delta = query[axis] - coordinates[axis][median];
+    boolean queryOnLeft = delta < 0;
+    search(queryOnLeft ? from : median + 1, queryOnLeft ? median : to, depth + 1, query, nearest);
+    if (delta * delta <= nearest.squaredDistance) {
+      search(queryOnLeft ? median + 1 : from, queryOnLeft ? to : median, depth + 1, query, nearest);
+    }
+  }
+
+  private double squaredDistance(int index, float[] query) {
+    double dx = coordinates[0][index] - query[0];
+    double dy = coordinates[1][index] - query[1];
+    double dz = coordinates[2][index] - query[2];
+    return dx * dx + dy * dy + dz * dz;
+  }
+
+  private static GazetteerIndex parse(ByteBuffer buffer) {
+    Map<String, String> countryNames = new HashMap<>();
+    List<float[]> points = new ArrayList<>();
+    List<String> localities = new ArrayList<>();
+    List<String> countries = new ArrayList<>();
+    int[] columnStarts = new int[COUNTRY_CODE_COLUMN + 2];
+    int limit = buffer.limit();
+    int lineStart = 0;
+    while (lineStart < limit) {
+      int lineEnd = lineStart;
+      while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+        lineEnd++;
+      }
+      if (splitColumns(buffer, lineStart, lineEnd, columnStarts)) {
+        String featureClass = column(buffer, columnStarts, FEATURE_CLASS_COLUMN);
+        if (featureClass.isEmpty() || POPULATED_PLACE_FEATURE_CLASS.equals(featureClass)) {
+          double latitude = Double.parseDouble(column(buffer, columnStarts, LATITUDE_COLUMN));
+          double longitude = Double.parseDouble(column(buffer, columnStarts, LONGITUDE_COLUMN));
+          String countryCode = column(buffer, columnStarts, COUNTRY_CODE_COLUMN);
+          points.add(toUnitVector(latitude, longitude));
+          localities.add(column(buffer, columnStarts, NAME_COLUMN));
+          countries.add(countryNames.computeIfAbsent(countryCode,
+            code -> new Locale("", code).getDisplayCountry(Locale.ENGLISH)));
+        }
+      }
+      lineStart = lineEnd + 1;
+    }
+    return build(points, localities, countries);
+  }
+
+  private static boolean splitColumns(ByteBuffer buffer, int lineStart, int lineEnd, int[] columnStarts) {
+    int column = 0;
+    columnStarts[0] = lineStart;
+    for (int i = lineStart; i < lineEnd && column < columnStarts.length - 1; i++) {
+      if (buffer.get(i) == '\t') {
+        columnStarts[++column] = i + 1;
+      }
+    }
+    if (column < COUNTRY_CODE_COLUMN) {
+      return false;
+    }
+    if (column == COUNTRY_CODE_COLUMN) {
+      columnStarts[COUNTRY_CODE_COLUMN + 1] = lineEnd + 1;
+    }
+    return true;
+  }
+
+  private static String column(ByteBuffer buffer, int[] columnStarts, int column) {
+    int start = columnStarts[column];
+    int end = columnStarts[column + 1] - 1;
+    if (end > start && buffer.get(end - 1) == '\r') {
+      end--;
+    }
+    byte[] bytes = new byte[end - start];
+    buffer.duplicate().position(start).get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static GazetteerIndex build(List<float[]> points, List<String> localities, List<String> countries) {
+    int size = points.size();
+    int[] order = new int[size];
+    Arrays.setAll(order, i -> i);
+    arrange(points, order, 0, size, 0);
+
+    float[][] coordinates = new float[DIMENSIONS][size];
+    String[] orderedLocalities = new String[size];
+    String[] orderedCountries = new String[size];
+    for (int i = 0; i < size; i++) {
+      float[] point = points.get(order[i]);
+      for (int axis = 0; axis < DIMENSIONS; axis++) {
+        coordinates[axis][i] = point[axis];
+      }
+      orderedLocalities[i] = localities.get(order[i]);
+      orderedCountries[i] = countries.get(order[i]);
+    }
+    return new GazetteerIndex(coordinates, orderedLocalities, orderedCountries);
+  }
+
+  private static void arrange(List<float[]> points, int[] order, int from, int to, int depth) {
+    if (to - from <= 1) {
+      return;
+    }
+    int median = (from + to) >>> 1;
+    select(points, order, from, to - 1, median, depth % DIMENSIONS);
+    arrange(points, order, from, median, depth + 1);
+    arrange(points, order, median + 1, to, depth + 1);
+  }
+
+  private static void select(List<float[]> points, int[] order, int left, int right, int k, int axis) {
+    while (left < right) {
+      float pivot = points.get(order[(left + right) >>> 1])[axis];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (points.get(order[i])[axis] < pivot) {
+          i++;
+        }
+        while (points.get(order[j])[axis] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int swap = order[i];
+          order[i] = order[j];
+          order[j] = swap;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private static float[] toUnitVector(double latitude, double longitude) {
+    double latitudeRadians = Math.toRadians(latitude);
+    double longitudeRadians = Math.toRadians(longitude);
+    double cosLatitude = Math.cos(latitudeRadians);
+    return new float[]{
+      (float) (cosLatitude * Math.cos(longitudeRadians)),
+      (float) (cosLatitude * Math.sin(longitudeRadians)),
+      (float) Math.sin(latitudeRadians)
+    };
+  }
+
+  private static final class Nearest {
+
+    private double squaredDistance;
+
+    private int index = -1;
+
+    private Nearest(double squaredDistance) {
+      this.squaredDistance = squaredDistance;
+    }
+  }
+}
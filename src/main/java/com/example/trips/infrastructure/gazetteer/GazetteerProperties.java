@@ -0,0 +1,26 @@
+package com.example.trips.infrastructure.gazetteer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+@ConfigurationProperties(prefix = "geolocation-gazetteer")
+@ConstructorBinding
+class GazetteerProperties {
+
+  private final String file;
+
+  private final double maxDistanceKilometers;
+
+  GazetteerProperties(String file, double maxDistanceKilometers) {
+    this.file = file;
+    this.maxDistanceKilometers = maxDistanceKilometers;
+  }
+
+  String getFile() {
+    return file;
+  }
+
+  double getMaxDistanceKilometers() {
+    return maxDistanceKilometers;
+  }
+}
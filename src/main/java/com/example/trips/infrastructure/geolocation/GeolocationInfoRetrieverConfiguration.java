@@ -0,0 +1,28 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+class GeolocationInfoRetrieverConfiguration {
+
+  @Bean
+  @Primary
+  public GeolocationInfoRetriever geolocationInfoRetriever(
+    @Qualifier("geolocationInfoFeignRetriever") GeolocationInfoRetriever geolocationInfoFeignRetriever,
+    ObjectProvider<GeolocationInfoRetrieverDecorator> decorators) {
+    List<GeolocationInfoRetrieverDecorator> orderedDecorators = decorators.orderedStream().collect(Collectors.toList());
+    GeolocationInfoRetriever geolocationInfoRetriever = geolocationInfoFeignRetriever;
+    for (int i = orderedDecorators.size() - 1; i >= 0; i--) {
+      geolocationInfoRetriever = orderedDecorators.get(i).decorate(geolocationInfoRetriever);
+    }
+    return geolocationInfoRetriever;
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.service.GeolocationInfoRetriever;
+
+/**
+ * Adds a lookup tier in front of the provider-backed {@link GeolocationInfoRetriever}.
+ * Decorators are applied in {@link org.springframework.core.annotation.Order} order, the lowest order being the
+ * outermost tier.
+ */
+@FunctionalInterface
+public interface GeolocationInfoRetrieverDecorator {
+
+  int IN_MEMORY_CACHE_ORDER = 100;
+
+  int PROXIMITY_REUSE_ORDER = 120;
+
+  int SINGLE_FLIGHT_ORDER = 150;
+
+  int PARALLEL_LOOKUP_ORDER = 175;
+
+  int PERSISTENT_STORE_ORDER = 200;
+
+  int OFFLINE_GAZETTEER_ORDER = 400;
+
+  int PROVIDER_RESILIENCE_ORDER = 500;
+
+  int ASYNC_PROVIDER_ORDER = 600;
+
+  GeolocationInfoRetriever decorate(GeolocationInfoRetriever delegate);
+}
@@ -0,0 +1,49 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+class GeolocationLookupExecutor {
+
+  private final ThreadPoolExecutor executor;
+
+  private final Counter rejectedLookups;
+
+  GeolocationLookupExecutor(int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("geolocation-lookup-"));
+    this.rejectedLookups = meterRegistry.counter("geolocation.lookups.parallel.rejected");
+    meterRegistry.gauge("geolocation.lookups.parallel.active", Tags.empty(), executor, ThreadPoolExecutor::getActiveCount);
+    meterRegistry.gaugeCollectionSize("geolocation.lookups.parallel.pending", Tags.empty(), executor.getQueue());
+  }
+
+  /**
+   * @return the running lookup, which the caller cancels once it stops waiting for it, or a failed future when the
+   * pool is saturated
+   */
+  <T> Future<T> submit(Callable<T> lookup) {
+    try {
+      return executor.submit(lookup);
+    } catch (RejectedExecutionException e) {
+      // running it on the calling thread would ignore the lookup timeout, the message is retried later instead
+      rejectedLookups.increment();
+      return CompletableFuture.failedFuture(
+        new GeolocationProviderUnavailableException("Geolocation lookup pool is saturated"));
+    }
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fans a batch out to concurrent single lookups on the {@link GeolocationLookupExecutor}. It sits below the cache,
+ * proximity and single-flight tiers, so only coordinates those could not resolve locally take a pool slot.
+ */
+class ParallelGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final GeolocationLookupExecutor lookupExecutor;
+
+  private final Duration timeout;
+
+  private final Counter timedOutLookups;
+
+  private final boolean batchEnabled;
+
+  ParallelGeolocationInfoRetriever(GeolocationInfoRetriever delegate, GeolocationLookupExecutor lookupExecutor,
+                                   Duration timeout, Counter timedOutLookups, boolean batchEnabled) {
+    this.delegate = delegate;
+    this.lookupExecutor = lookupExecutor;
+    this.timeout = timeout;
+    this.timedOutLookups = timedOutLookups;
+    this.batchEnabled = batchEnabled;
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    return delegate.retrieve(geolocationCoordinates);
+  }
+
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    return delegate.retrieveAsync(geolocationCoordinates);
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    List<GeolocationCoordinates> distinctCoordinates = new ArrayList<>(new LinkedHashSet<>(geolocationCoordinates));
+    // one batch request beats concurrent single lookups, so the inner tiers resolve the batch themselves
+    if (batchEnabled || distinctCoordinates.size() < 2) {
+      return delegate.retrieveAll(distinctCoordinates);
+    }
+    long deadline = System.nanoTime() + timeout.toNanos();
+    Map<GeolocationCoordinates, Future<GeolocationInfo>> lookups = new LinkedHashMap<>();
+    for (GeolocationCoordinates coordinates : distinctCoordinates) {
+      lookups.put(coordinates, lookupExecutor.submit(() -> delegate.retrieve(coordinates)));
+    }
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    lookups.forEach((coordinates, lookup) -> results.put(coordinates, awaitResult(coordinates, lookup, deadline)));
+    return results;
+  }
+
+  private GeolocationInfoResult awaitResult(GeolocationCoordinates geolocationCoordinates,
+                                            Future<GeolocationInfo> lookup, long deadline) {
+    try {
+      return GeolocationInfoResult.success(lookup.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        return GeolocationInfoResult.failure((RuntimeException) e.getCause());
+      }
+      return GeolocationInfoResult.failure(new GeolocationEnrichmentException(String.format(
+        "Exception when trying to get geolocation data for coordinates: %s", geolocationCoordinates), e.getCause()));
+    } catch (TimeoutException e) {
+      // frees the pool slot of a lookup still queued and interrupts a running one
+      lookup.cancel(true);
+      timedOutLookups.increment();
+      return GeolocationInfoResult.failure(new GeolocationEnrichmentException(String.format(
+        "Timed out after %s when trying to get geolocation data for coordinates: %s", timeout, geolocationCoordinates)));
+    } catch (InterruptedException e) {
+      lookup.cancel(true);
+      Thread.currentThread().interrupt();
+      return GeolocationInfoResult.failure(new GeolocationEnrichmentException(String.format(
+        "Interrupted when trying to get geolocation data for coordinates: %s", geolocationCoordinates), e));
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.example.trips.infrastructure.geolocation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-parallel-lookup", name = "enabled", havingValue = "true")
+class ParallelLookupConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  public GeolocationLookupExecutor geolocationLookupExecutor(ParallelLookupProperties parallelLookupProperties,
+                                                             MeterRegistry meterRegistry) {
+    return new GeolocationLookupExecutor(parallelLookupProperties.getPoolSize(),
+      parallelLookupProperties.getQueueCapacity(), meterRegistry);
+  }
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.PARALLEL_LOOKUP_ORDER)
+  public GeolocationInfoRetrieverDecorator parallelGeolocationInfoRetrieverDecorator(
+    ParallelLookupProperties parallelLookupProperties, GeolocationLookupExecutor geolocationLookupExecutor,
+    MeterRegistry meterRegistry, @Value("${geolocation-api.batch-enabled:false}") boolean batchEnabled) {
+    return delegate -> new ParallelGeolocationInfoRetriever(delegate, geolocationLookupExecutor,
+      parallelLookupProperties.getTimeout(), meterRegistry.counter("geolocation.lookups.parallel.timeouts"),
+      batchEnabled);
+  }
+}
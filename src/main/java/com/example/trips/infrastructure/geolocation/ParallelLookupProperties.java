@@ -0,0 +1,35 @@
+package com.example.trips.infrastructure.geolocation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-parallel-lookup")
+@ConstructorBinding
+class ParallelLookupProperties {
+
+  private final int poolSize;
+
+  private final int queueCapacity;
+
+  private final Duration timeout;
+
+  ParallelLookupProperties(int poolSize, int queueCapacity, Duration timeout) {
+    this.poolSize = poolSize;
+    this.queueCapacity = queueCapacity;
+    this.timeout = timeout;
+  }
+
+  int getPoolSize() {
+    return poolSize;
+  }
+
+  int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  Duration getTimeout() {
+    return timeout;
+  }
+}
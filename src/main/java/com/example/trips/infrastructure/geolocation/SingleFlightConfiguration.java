@@ -0,0 +1,20 @@
+package com.example.trips.infrastructure.geolocation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-single-flight", name = "enabled", havingValue = "true")
+class SingleFlightConfiguration {
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.SINGLE_FLIGHT_ORDER)
+  public GeolocationInfoRetrieverDecorator singleFlightGeolocationInfoRetrieverDecorator(
+    SingleFlightProperties singleFlightProperties, MeterRegistry meterRegistry) {
+    return delegate -> new SingleFlightGeolocationInfoRetriever(delegate, singleFlightProperties.getCoordinatesScale(),
+      meterRegistry.counter("geolocation.lookups.coalesced"));
+  }
+}
@@ -0,0 +1,164 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+class SingleFlightGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final int coordinatesScale;
+
+  private final Counter coalescedCalls;
+
+  private final ConcurrentMap<GeolocationCoordinates, CompletableFuture<GeolocationInfo>> inFlightCalls =
+    new ConcurrentHashMap<>();
+
+  SingleFlightGeolocationInfoRetriever(GeolocationInfoRetriever delegate, int coordinatesScale, Counter coalescedCalls) {
+    this.delegate = delegate;
+    this.coordinatesScale = coordinatesScale;
+    this.coalescedCalls = coalescedCalls;
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationCoordinates key = geolocationCoordinates.rounded(coordinatesScale);
+    CompletableFuture<GeolocationInfo> call = new CompletableFuture<>();
+    CompletableFuture<GeolocationInfo> inFlightCall = inFlightCalls.putIfAbsent(key, call);
+    if (inFlightCall != null) {
+      coalescedCalls.increment();
+      return awaitResult(inFlightCall, geolocationCoordinates);
+    }
+    try {
+      GeolocationInfo geolocationInfo = delegate.retrieve(geolocationCoordinates);
+      call.complete(geolocationInfo);
+      return geolocationInfo;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightCalls.remove(key, call);
+    }
+  }
+
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationCoordinates key = geolocationCoordinates.rounded(coordinatesScale);
+    CompletableFuture<GeolocationInfo> call = new CompletableFuture<>();
+    CompletableFuture<GeolocationInfo> inFlightCall = inFlightCalls.putIfAbsent(key, call);
+    if (inFlightCall != null) {
+      coalescedCalls.increment();
+      // a copy, so a caller cancelling or completing its future cannot affect the others sharing the call
+      return inFlightCall.copy();
+    }
+    CompletableFuture<GeolocationInfo> delegateCall;
+    try {
+      delegateCall = delegate.retrieveAsync(geolocationCoordinates);
+    } catch (RuntimeException | Error e) {
+      inFlightCalls.remove(key, call);
+      call.completeExceptionally(e);
+      throw e;
+    }
+    delegateCall.whenComplete((geolocationInfo, failure) -> {
+      inFlightCalls.remove(key, call);
+      if (failure == null) {
+        call.complete(geolocationInfo);
+      } else {
+        call.completeExceptionally(GeolocationInfoRetriever.unwrapAsyncFailure(failure));
+      }
+    });
+    return call.copy();
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    Map<GeolocationCoordinates, CompletableFuture<GeolocationInfo>> claimedCalls = new HashMap<>();
+    List<GeolocationCoordinates> claimedCoordinates = new ArrayList<>();
+    Map<GeolocationCoordinates, CompletableFuture<GeolocationInfo>> awaitedCalls = new HashMap<>();
+    for (GeolocationCoordinates coordinates : new LinkedHashSet<>(geolocationCoordinates)) {
+      GeolocationCoordinates key = coordinates.rounded(coordinatesScale);
+      CompletableFuture<GeolocationInfo> call = claimedCalls.get(key);
+      if (call == null) {
+        CompletableFuture<GeolocationInfo> newCall = new CompletableFuture<>();
+        call = inFlightCalls.putIfAbsent(key, newCall);
+        if (call == null) {
+          claimedCalls.put(key, newCall);
+          claimedCoordinates.add(coordinates);
+          continue;
+        }
+      }
+      coalescedCalls.increment();
+      awaitedCalls.put(coordinates, call);
+    }
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    if (!claimedCoordinates.isEmpty()) {
+      try {
+        results.putAll(delegate.retrieveAll(claimedCoordinates));
+      } catch (RuntimeException | Error e) {
+        claimedCalls.values().forEach(call -> call.completeExceptionally(e));
+        throw e;
+      } finally {
+        completeClaimedCalls(claimedCoordinates, claimedCalls, results);
+      }
+    }
+    // our own calls are completed before waiting on others, so two overlapping batches cannot wait on each other
+    awaitedCalls.forEach((coordinates, call) -> {
+      try {
+        results.put(coordinates, GeolocationInfoResult.success(awaitResult(call, coordinates)));
+      } catch (RuntimeException e) {
+        results.put(coordinates, GeolocationInfoResult.failure(e));
+      }
+    });
+    return results;
+  }
+
+  private void completeClaimedCalls(List<GeolocationCoordinates> claimedCoordinates,
+                                    Map<GeolocationCoordinates, CompletableFuture<GeolocationInfo>> claimedCalls,
+                                    Map<GeolocationCoordinates, GeolocationInfoResult> results) {
+    for (GeolocationCoordinates coordinates : claimedCoordinates) {
+      GeolocationCoordinates key = coordinates.rounded(coordinatesScale);
+      CompletableFuture<GeolocationInfo> call = claimedCalls.get(key);
+      GeolocationInfoResult result = results.get(coordinates);
+      if (result == null) {
+        GeolocationEnrichmentException error = new GeolocationEnrichmentException(String.format(
+          "No geolocation data retrieved for coordinates: %s", coordinates));
+        results.put(coordinates, GeolocationInfoResult.failure(error));
+        call.completeExceptionally(error);
+      } else if (result.isSuccess()) {
+        call.complete(result.getGeolocationInfo());
+      } else {
+        call.completeExceptionally(result.getError());
+      }
+      inFlightCalls.remove(key, call);
+    }
+  }
+
+  private GeolocationInfo awaitResult(CompletableFuture<GeolocationInfo> inFlightCall,
+                                      GeolocationCoordinates geolocationCoordinates) {
+    try {
+      return inFlightCall.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new GeolocationEnrichmentException(String.format(
+        "Exception when trying to get geolocation data for coordinates: %s", geolocationCoordinates), e.getCause());
+    }
+  }
+}
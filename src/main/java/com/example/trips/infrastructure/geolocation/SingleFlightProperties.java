@@ -0,0 +1,19 @@
+package com.example.trips.infrastructure.geolocation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+@ConfigurationProperties(prefix = "geolocation-single-flight")
+@ConstructorBinding
+class SingleFlightProperties {
+
+  private final int coordinatesScale;
+
+  SingleFlightProperties(int coordinatesScale) {
+    this.coordinatesScale = coordinatesScale;
+  }
+
+  int getCoordinatesScale() {
+    return coordinatesScale;
+  }
+}
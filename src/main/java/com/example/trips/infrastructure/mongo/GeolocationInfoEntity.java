@@ -0,0 +1,96 @@
+package com.example.trips.infrastructure.mongo;
+
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Objects;
+
+@Document(collection = GeolocationInfoEntity.COLLECTION_NAME)
+class GeolocationInfoEntity {
+
+  static final String COLLECTION_NAME = "geolocationInfo";
+
+  static final String CREATED_AT_FIELD = "createdAt";
+
+  private final String id;
+
+  private final double latitude;
+
+  private final double longitude;
+
+  private final String country;
+
+  private final String locality;
+
+  private final Instant createdAt;
+
+  @PersistenceCreator
+  GeolocationInfoEntity(String id, double latitude, double longitude, String country, String locality,
+                        Instant createdAt) {
+    this.id = id;
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.country = country;
+    this.locality = locality;
+    this.createdAt = createdAt;
+  }
+
+  String getId() {
+    return id;
+  }
+
+  double getLatitude() {
+    return latitude;
+  }
+
+  double getLongitude() {
+    return longitude;
+  }
+
+  String getCountry() {
+    return country;
+  }
+
+  String getLocality() {
+    return locality;
+  }
+
+  Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    GeolocationInfoEntity that = (GeolocationInfoEntity) o;
+    return Double.compare(that.latitude, latitude) == 0
+      && Double.compare(that.longitude, longitude) == 0
+      && Objects.equals(id, that.id)
+      && Objects.equals(country, that.country)
+      && Objects.equals(locality, that.locality)
+      && Objects.equals(createdAt, that.createdAt);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, latitude, longitude, country, locality, createdAt);
+  }
+
+  @Override
+  public String toString() {
+    return "GeolocationInfoEntity{" +
+      "id='" + id + '\'' +
+      ", latitude=" + latitude +
+      ", longitude=" + longitude +
+      ", country='" + country + '\'' +
+      ", locality='" + locality + '\'' +
+      ", createdAt=" + createdAt +
+      '}';
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+@Component
+class GeolocationInfoEntityMapper {
+
+  String coordinatesToId(GeolocationCoordinates geolocationCoordinates) {
+    return geolocationCoordinates.getLatitude() + "," + geolocationCoordinates.getLongitude();
+  }
+
+  GeolocationInfo geolocationInfoEntityToGeolocationInfo(GeolocationInfoEntity geolocationInfoEntity) {
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry(geolocationInfoEntity.getCountry());
+    geolocationInfo.setLocality(geolocationInfoEntity.getLocality());
+    return geolocationInfo;
+  }
+
+  GeolocationInfoEntity geolocationInfoToGeolocationInfoEntity(GeolocationCoordinates geolocationCoordinates,
+                                                               GeolocationInfo geolocationInfo) {
+    return new GeolocationInfoEntity(
+      coordinatesToId(geolocationCoordinates),
+      geolocationCoordinates.getLatitude(),
+      geolocationCoordinates.getLongitude(),
+      geolocationInfo.getCountry(),
+      geolocationInfo.getLocality(),
+      Instant.now());
+  }
+}
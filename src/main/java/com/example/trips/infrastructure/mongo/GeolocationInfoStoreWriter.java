@@ -0,0 +1,56 @@
+package com.example.trips.infrastructure.mongo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+class GeolocationInfoStoreWriter {
+
+  private static final Logger log = LoggerFactory.getLogger(GeolocationInfoStoreWriter.class);
+
+  private final SpringDataMongoGeolocationInfoRepository geolocationInfoRepository;
+
+  private final ThreadPoolExecutor executor;
+
+  private final Counter droppedWrites;
+
+  GeolocationInfoStoreWriter(SpringDataMongoGeolocationInfoRepository geolocationInfoRepository,
+                             int queueCapacity, MeterRegistry meterRegistry) {
+    this.geolocationInfoRepository = geolocationInfoRepository;
+    this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("geolocation-store-"));
+    this.droppedWrites = meterRegistry.counter("geolocation.store.writes.dropped");
+    meterRegistry.gaugeCollectionSize("geolocation.store.writes.pending", Tags.empty(), executor.getQueue());
+  }
+
+  void writeAsync(GeolocationInfoEntity geolocationInfoEntity) {
+    try {
+      executor.execute(() -> write(geolocationInfoEntity));
+    } catch (RejectedExecutionException e) {
+      droppedWrites.increment();
+      log.warn("Geolocation store write queue is full, dropping write for id={}", geolocationInfoEntity.getId());
+    }
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private void write(GeolocationInfoEntity geolocationInfoEntity) {
+    try {
+      geolocationInfoRepository.save(geolocationInfoEntity);
+    } catch (DataAccessException e) {
+      log.warn("Error when storing geolocation info with id={}. Error message: {}", geolocationInfoEntity.getId(),
+        e.getMessage());
+    }
+  }
+}
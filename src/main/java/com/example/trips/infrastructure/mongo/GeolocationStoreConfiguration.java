@@ -0,0 +1,69 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.infrastructure.geolocation.GeolocationInfoRetrieverDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-store", name = "enabled", havingValue = "true")
+class GeolocationStoreConfiguration {
+
+  private static final Logger log = LoggerFactory.getLogger(GeolocationStoreConfiguration.class);
+
+  private final GeolocationStoreProperties geolocationStoreProperties;
+
+  private final MongoTemplate mongoTemplate;
+
+  GeolocationStoreConfiguration(GeolocationStoreProperties geolocationStoreProperties, MongoTemplate mongoTemplate) {
+    this.geolocationStoreProperties = geolocationStoreProperties;
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public GeolocationInfoStoreWriter geolocationInfoStoreWriter(
+    SpringDataMongoGeolocationInfoRepository geolocationInfoRepository, MeterRegistry meterRegistry) {
+    return new GeolocationInfoStoreWriter(geolocationInfoRepository,
+      geolocationStoreProperties.getWriteQueueCapacity(), meterRegistry);
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public GeolocationStoreReadExecutor geolocationStoreReadExecutor(MeterRegistry meterRegistry) {
+    return new GeolocationStoreReadExecutor(geolocationStoreProperties.getReadThreads(),
+      geolocationStoreProperties.getReadQueueCapacity(), meterRegistry);
+  }
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.PERSISTENT_STORE_ORDER)
+  public GeolocationInfoRetrieverDecorator mongoGeolocationInfoRetrieverDecorator(
+    SpringDataMongoGeolocationInfoRepository geolocationInfoRepository,
+    GeolocationInfoEntityMapper geolocationInfoEntityMapper,
+    GeolocationInfoStoreWriter geolocationInfoStoreWriter,
+    GeolocationStoreReadExecutor geolocationStoreReadExecutor) {
+    return delegate -> new MongoGeolocationInfoRetriever(delegate, geolocationInfoRepository,
+      geolocationInfoEntityMapper, geolocationInfoStoreWriter, geolocationStoreReadExecutor,
+      geolocationStoreProperties.getCoordinatesScale());
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureTimeToLiveIndex() {
+    try {
+      mongoTemplate.indexOps(GeolocationInfoEntity.class)
+        .ensureIndex(new Index()
+          .on(GeolocationInfoEntity.CREATED_AT_FIELD, Sort.Direction.ASC)
+          .expire(geolocationStoreProperties.getTimeToLive()));
+    } catch (DataAccessException e) {
+      log.warn("Error when creating TTL index for geolocation store. Error message: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.trips.infrastructure.mongo;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-store")
+@ConstructorBinding
+class GeolocationStoreProperties {
+
+  private final Duration timeToLive;
+
+  private final int coordinatesScale;
+
+  private final int writeQueueCapacity;
+
+  private final int readThreads;
+
+  private final int readQueueCapacity;
+
+  GeolocationStoreProperties(Duration timeToLive, int coordinatesScale, int writeQueueCapacity, int readThreads,
+                             int readQueueCapacity) {
+    this.timeToLive = timeToLive;
+    this.coordinatesScale = coordinatesScale;
+    this.writeQueueCapacity = writeQueueCapacity;
+    this.readThreads = readThreads;
+    this.readQueueCapacity = readQueueCapacity;
+  }
+
+  Duration getTimeToLive() {
+    return timeToLive;
+  }
+
+  int getCoordinatesScale() {
+    return coordinatesScale;
+  }
+
+  int getWriteQueueCapacity() {
+    return writeQueueCapacity;
+  }
+
+  int getReadThreads() {
+    return readThreads;
+  }
+
+  int getReadQueueCapacity() {
+    return readQueueCapacity;
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.trips.infrastructure.mongo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the blocking store lookups of {@link MongoGeolocationInfoRetriever#retrieveAsync}, so callers of the async
+ * lookup never wait for Mongo on their own thread. A full queue rejects the lookup instead of growing without bound.
+ */
+class GeolocationStoreReadExecutor implements Executor {
+
+  private final ThreadPoolExecutor executor;
+
+  GeolocationStoreReadExecutor(int threads, int queueCapacity, MeterRegistry meterRegistry) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("geolocation-store-read-"));
+    meterRegistry.gaugeCollectionSize("geolocation.store.reads.pending", Tags.empty(), executor.getQueue());
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(command);
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+}
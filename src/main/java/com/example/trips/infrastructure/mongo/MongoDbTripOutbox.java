@@ -0,0 +1,92 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.trips.infrastructure.mongo.TripEntity.PENDING_PUBLICATION_SINCE_FIELD;
+
+/**
+ * Keeps the outbox in the trip documents themselves: a pending publication is the time it was recorded at, set by
+ * every save in the same single-document write as the trip, so no transaction (and no replica set) is needed. A
+ * sparse index on that field keeps the pending trips a short index scan away however many trips there are.
+ */
+@Component
+class MongoDbTripOutbox implements TripOutbox {
+
+  private static final Logger log = LoggerFactory.getLogger(MongoDbTripOutbox.class);
+
+  private final MongoTemplate mongoTemplate;
+
+  private final TripEntityMapper tripEntityMapper;
+
+  MongoDbTripOutbox(MongoTemplate mongoTemplate, TripEntityMapper tripEntityMapper) {
+    this.mongoTemplate = mongoTemplate;
+    this.tripEntityMapper = tripEntityMapper;
+  }
+
+  @Override
+  public List<TripDto> findPendingSince(LocalDateTime before, int limit) {
+    Query query = Query.query(Criteria.where(PENDING_PUBLICATION_SINCE_FIELD).lt(before))
+      .with(Sort.by(Sort.Direction.ASC, PENDING_PUBLICATION_SINCE_FIELD))
+      .limit(limit);
+    List<TripDto> pending = new ArrayList<>();
+    for (TripEntity tripEntity : mongoTemplate.find(query, TripEntity.class)) {
+      pending.add(TripDto.fromTrip(tripEntityMapper.tripEntityToTrip(tripEntity)));
+    }
+    return pending;
+  }
+
+  @Override
+  public Optional<LocalDateTime> findOldestPendingSince() {
+    Query query = Query.query(Criteria.where(PENDING_PUBLICATION_SINCE_FIELD).exists(true))
+      .with(Sort.by(Sort.Direction.ASC, PENDING_PUBLICATION_SINCE_FIELD))
+      .limit(1);
+    query.fields().include(PENDING_PUBLICATION_SINCE_FIELD);
+    return Optional.ofNullable(mongoTemplate.findOne(query, TripEntity.class))
+      .map(TripEntity::getPendingPublicationSince);
+  }
+
+  @Override
+  public void markPublished(List<TripDto> published) {
+    if (published.isEmpty()) {
+      return;
+    }
+    BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TripEntity.class);
+    for (TripDto tripDto : published) {
+      Criteria sameVersion = Criteria.where("_id").is(tripDto.getId());
+      sameVersion = tripDto.getVersion() == null
+        ? sameVersion.and("version").exists(false)
+        : sameVersion.and("version").is(tripDto.getVersion());
+      bulkOperations.updateOne(Query.query(sameVersion), new Update().unset(PENDING_PUBLICATION_SINCE_FIELD));
+    }
+    bulkOperations.execute();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensurePendingPublicationIndex() {
+    try {
+      mongoTemplate.indexOps(TripEntity.class)
+        .ensureIndex(new Index().on(PENDING_PUBLICATION_SINCE_FIELD, Sort.Direction.ASC).sparse());
+    } catch (DataAccessException e) {
+      log.warn("Error when creating index for trip outbox. Error message: {}", e.getMessage());
+    }
+  }
+}
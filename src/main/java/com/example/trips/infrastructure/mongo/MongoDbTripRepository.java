@@ -1,26 +1,48 @@
 package com.example.trips.infrastructure.mongo;
 
+import com.example.trips.api.exception.ConflictException;
+import com.example.trips.api.exception.InternalServerErrorException;
 import com.example.trips.api.model.Trip;
 import com.example.trips.api.repository.TripRepository;
+import com.mongodb.bulk.BulkWriteError;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Component
 @Primary
 class MongoDbTripRepository implements TripRepository {
 
+  private static final String VERSION = "version";
+
   private final SpringDataMongoTripRepository tripRepository;
 
   private final TripEntityMapper tripEntityMapper;
 
+  private final MongoTemplate mongoTemplate;
+
   @Autowired
-  MongoDbTripRepository(SpringDataMongoTripRepository tripRepository, TripEntityMapper tripEntityMapper) {
+  MongoDbTripRepository(SpringDataMongoTripRepository tripRepository, TripEntityMapper tripEntityMapper,
+                        MongoTemplate mongoTemplate) {
     this.tripRepository = tripRepository;
     this.tripEntityMapper = tripEntityMapper;
+    this.mongoTemplate = mongoTemplate;
   }
 
   @Override
@@ -29,6 +51,13 @@ class MongoDbTripRepository implements TripRepository {
       .map(tripEntityMapper::tripEntityToTrip);
   }
 
+  @Override
+  public List<Trip> findAllById(Collection<String> ids) {
+    List<Trip> trips = new ArrayList<>(ids.size());
+    tripRepository.findAllById(ids).forEach(tripEntity -> trips.add(tripEntityMapper.tripEntityToTrip(tripEntity)));
+    return trips;
+  }
+
   @Override
   public List<Trip> findAllByEmail(String email) {
     return tripEntityMapper.tripEntitiesToTrips(tripRepository.findAllByEmail(email));
@@ -41,8 +70,52 @@ class MongoDbTripRepository implements TripRepository {
 
   @Override
   public Trip save(Trip trip) {
-    TripEntity entity = tripEntityMapper.tripToTripEntity(trip);
-    return tripEntityMapper.tripEntityToTrip(tripRepository.save(entity));
+    LocalDateTime now = LocalDateTime.now();
+    if (trip.getId() == null) {
+      Trip firstVersion = Trip.builderFromExisting(trip).withVersion(0L).build();
+      TripEntity entity = tripEntityMapper.tripToTripEntity(firstVersion, now);
+      return tripEntityMapper.tripEntityToTrip(tripRepository.insert(entity));
+    }
+    Trip nextVersion = Trip.builderFromExisting(trip)
+      .withVersion(trip.getVersion() == null ? 0L : trip.getVersion() + 1)
+      .build();
+    TripEntity replaced = mongoTemplate.findAndReplace(Query.query(sameVersionCriteria(trip)),
+      tripEntityMapper.tripToTripEntity(nextVersion, now));
+    if (replaced == null) {
+      throw new ConflictException(String.format(
+        "Trip with id=%s was changed or deleted since it was read", trip.getId()));
+    }
+    return nextVersion;
+  }
+
+  @Override
+  public boolean existsWithVersion(String id, long version) {
+    return mongoTemplate.exists(Query.query(Criteria.where("_id").is(id).and(VERSION).is(version)),
+      TripEntity.class);
+  }
+
+  @Override
+  public boolean updateGeolocation(Trip trip) {
+    return mongoTemplate.updateFirst(unchangedTripQuery(trip), geolocationUpdate(trip), TripEntity.class)
+      .getMatchedCount() > 0;
+  }
+
+  @Override
+  public Map<String, RuntimeException> updateGeolocationAll(List<Trip> trips) {
+    if (trips.isEmpty()) {
+      return Map.of();
+    }
+    BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TripEntity.class);
+    for (Trip trip : trips) {
+      bulkOperations.updateOne(unchangedTripQuery(trip), geolocationUpdate(trip));
+    }
+    return executeBulk(bulkOperations, trips);
+  }
+
+  @Override
+  public Stream<Trip> streamLatestEnriched(int limit) {
+    return tripRepository.streamLatestEnriched(PageRequest.of(0, limit))
+      .map(tripEntityMapper::tripEntityToTrip);
   }
 
   @Override
@@ -54,4 +127,46 @@ class MongoDbTripRepository implements TripRepository {
   public void deleteAll() {
     tripRepository.deleteAll();
   }
+
+  private Map<String, RuntimeException> executeBulk(BulkOperations bulkOperations, List<Trip> trips) {
+    try {
+      bulkOperations.execute();
+      return Map.of();
+    } catch (BulkOperationException e) {
+      Map<String, RuntimeException> failures = new HashMap<>();
+      for (BulkWriteError error : e.getErrors()) {
+        String tripId = trips.get(error.getIndex()).getId();
+        failures.put(tripId, new InternalServerErrorException(String.format(
+          "Could not save trip with id=%s: %s", tripId, error.getMessage())));
+      }
+      return failures;
+    }
+  }
+
+  private Criteria sameVersionCriteria(Trip trip) {
+    Criteria criteria = Criteria.where("_id").is(trip.getId());
+    return trip.getVersion() == null
+      ? criteria.and(VERSION).exists(false)
+      : criteria.and(VERSION).is(trip.getVersion());
+  }
+
+  private Query unchangedTripQuery(Trip trip) {
+    Criteria criteria = Criteria.where("_id").is(trip.getId())
+      .and("startDestination.latitude").is(trip.getStartDestination().getLatitude())
+      .and("startDestination.longitude").is(trip.getStartDestination().getLongitude())
+      .and("finalDestination.latitude").is(trip.getFinalDestination().getLatitude())
+      .and("finalDestination.longitude").is(trip.getFinalDestination().getLongitude());
+    if (trip.getVersion() != null) {
+      criteria.and(VERSION).is(trip.getVersion());
+    }
+    return Query.query(criteria);
+  }
+
+  private Update geolocationUpdate(Trip trip) {
+    return new Update()
+      .set("startDestination.country", trip.getStartDestination().getCountry())
+      .set("startDestination.locality", trip.getStartDestination().getLocality())
+      .set("finalDestination.country", trip.getFinalDestination().getCountry())
+      .set("finalDestination.locality", trip.getFinalDestination().getLocality());
+  }
 }
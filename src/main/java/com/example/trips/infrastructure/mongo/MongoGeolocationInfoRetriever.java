@@ -0,0 +1,151 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+class MongoGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private static final Logger log = LoggerFactory.getLogger(MongoGeolocationInfoRetriever.class);
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final SpringDataMongoGeolocationInfoRepository geolocationInfoRepository;
+
+  private final GeolocationInfoEntityMapper geolocationInfoEntityMapper;
+
+  private final GeolocationInfoStoreWriter geolocationInfoStoreWriter;
+
+  private final Executor storeReadExecutor;
+
+  private final int coordinatesScale;
+
+  MongoGeolocationInfoRetriever(GeolocationInfoRetriever delegate,
+                                SpringDataMongoGeolocationInfoRepository geolocationInfoRepository,
+                                GeolocationInfoEntityMapper geolocationInfoEntityMapper,
+                                GeolocationInfoStoreWriter geolocationInfoStoreWriter,
+                                Executor storeReadExecutor,
+                                int coordinatesScale) {
+    this.delegate = delegate;
+    this.geolocationInfoRepository = geolocationInfoRepository;
+    this.geolocationInfoEntityMapper = geolocationInfoEntityMapper;
+    this.geolocationInfoStoreWriter = geolocationInfoStoreWriter;
+    this.storeReadExecutor = storeReadExecutor;
+    this.coordinatesScale = coordinatesScale;
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationCoordinates key = geolocationCoordinates.rounded(coordinatesScale);
+    Optional<GeolocationInfo> storedGeolocationInfo = findStored(key);
+    if (storedGeolocationInfo.isPresent()) {
+      return storedGeolocationInfo.get();
+    }
+    GeolocationInfo geolocationInfo = delegate.retrieve(geolocationCoordinates);
+    geolocationInfoStoreWriter.writeAsync(
+      geolocationInfoEntityMapper.geolocationInfoToGeolocationInfoEntity(key, geolocationInfo));
+    return geolocationInfo;
+  }
+
+  /**
+   * The store lookup runs on the store read executor, so the calling thread never waits for Mongo. When that executor
+   * is saturated the store is skipped and the lookup goes straight to the delegate.
+   */
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationCoordinates key = geolocationCoordinates.rounded(coordinatesScale);
+    CompletableFuture<Optional<GeolocationInfo>> storedGeolocationInfo;
+    try {
+      storedGeolocationInfo = CompletableFuture.supplyAsync(() -> findStored(key), storeReadExecutor);
+    } catch (RejectedExecutionException e) {
+      log.warn("Geolocation store read queue is full, skipping store lookup for coordinates: {}", key);
+      storedGeolocationInfo = CompletableFuture.completedFuture(Optional.empty());
+    }
+    return storedGeolocationInfo.thenCompose(stored -> stored
+      .map(CompletableFuture::completedFuture)
+      .orElseGet(() -> retrieveAsyncAndStore(geolocationCoordinates, key)));
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    Set<String> ids = new LinkedHashSet<>();
+    for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+      ids.add(geolocationInfoEntityMapper.coordinatesToId(coordinates.rounded(coordinatesScale)));
+    }
+    Map<String, GeolocationInfo> storedGeolocationInfos = findAllStored(ids);
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    List<GeolocationCoordinates> misses = new ArrayList<>();
+    for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+      GeolocationInfo storedGeolocationInfo = storedGeolocationInfos.get(
+        geolocationInfoEntityMapper.coordinatesToId(coordinates.rounded(coordinatesScale)));
+      if (storedGeolocationInfo != null) {
+        results.put(coordinates, GeolocationInfoResult.success(storedGeolocationInfo));
+      } else {
+        misses.add(coordinates);
+      }
+    }
+    if (misses.isEmpty()) {
+      return results;
+    }
+    delegate.retrieveAll(misses).forEach((coordinates, result) -> {
+      if (result.isSuccess()) {
+        geolocationInfoStoreWriter.writeAsync(geolocationInfoEntityMapper.geolocationInfoToGeolocationInfoEntity(
+          coordinates.rounded(coordinatesScale), result.getGeolocationInfo()));
+      }
+      results.put(coordinates, result);
+    });
+    return results;
+  }
+
+  private CompletableFuture<GeolocationInfo> retrieveAsyncAndStore(GeolocationCoordinates geolocationCoordinates,
+                                                                   GeolocationCoordinates key) {
+    return delegate.retrieveAsync(geolocationCoordinates).whenComplete((geolocationInfo, failure) -> {
+      if (failure == null) {
+        geolocationInfoStoreWriter.writeAsync(
+          geolocationInfoEntityMapper.geolocationInfoToGeolocationInfoEntity(key, geolocationInfo));
+      }
+    });
+  }
+
+  private Map<String, GeolocationInfo> findAllStored(Set<String> ids) {
+    Map<String, GeolocationInfo> storedGeolocationInfos = new HashMap<>();
+    try {
+      for (GeolocationInfoEntity entity : geolocationInfoRepository.findAllById(ids)) {
+        storedGeolocationInfos.put(entity.getId(),
+          geolocationInfoEntityMapper.geolocationInfoEntityToGeolocationInfo(entity));
+      }
+    } catch (DataAccessException e) {
+      log.warn("Error when reading stored geolocation info for {} coordinates. Error message: {}", ids.size(),
+        e.getMessage());
+    }
+    return storedGeolocationInfos;
+  }
+
+  private Optional<GeolocationInfo> findStored(GeolocationCoordinates key) {
+    try {
+      return geolocationInfoRepository.findById(geolocationInfoEntityMapper.coordinatesToId(key))
+        .map(geolocationInfoEntityMapper::geolocationInfoEntityToGeolocationInfo);
+    } catch (DataAccessException e) {
+      log.warn("Error when reading stored geolocation info for coordinates: {}. Error message: {}", key,
+        e.getMessage());
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.trips.infrastructure.mongo;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+interface SpringDataMongoGeolocationInfoRepository extends MongoRepository<GeolocationInfoEntity, String> {
+
+}
@@ -1,14 +1,23 @@
 package com.example.trips.infrastructure.mongo;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 interface SpringDataMongoTripRepository extends MongoRepository<TripEntity, String> {
 
   @Query("{'ownerEmail': ?0 }")
   List<TripEntity> findAllByEmail(String email);
+
+  // sorted by the generated ObjectId, which follows creation time and is always indexed
+  @Query(value = "{ $or: [ {'startDestination.country': {$ne: null}}, {'finalDestination.country': {$ne: null}} ] }",
+    sort = "{ '_id': -1 }")
+  @Meta(cursorBatchSize = 500)
+  Stream<TripEntity> streamLatestEnriched(Pageable pageable);
 }
@@ -9,6 +9,8 @@ import org.springframework.data.annotation.PersistenceConstructor;
 
 public class TripEntity {
 
+  static final String PENDING_PUBLICATION_SINCE_FIELD = "pendingPublicationSince";
+
   private static final String EMAIL_OBFUSCATED = "[OBFUSCATED]";
 
   private final String id;
@@ -25,9 +27,14 @@ public class TripEntity {
 
   private final String ownerEmail;
 
+  private final Long version;
+
+  private final LocalDateTime pendingPublicationSince;
+
   @PersistenceConstructor
   private TripEntity(String id, LocalDateTime startTime, LocalDateTime endTime, GeolocationData startDestination,
-                     GeolocationData finalDestination, LocalDateTime dateCreated, String ownerEmail) {
+                     GeolocationData finalDestination, LocalDateTime dateCreated, String ownerEmail, Long version,
+                     LocalDateTime pendingPublicationSince) {
     this.id = id;
     this.startTime = startTime;
     this.endTime = endTime;
@@ -35,6 +42,8 @@ public class TripEntity {
     this.finalDestination = finalDestination;
     this.dateCreated = dateCreated;
     this.ownerEmail = ownerEmail;
+    this.version = version;
+    this.pendingPublicationSince = pendingPublicationSince;
   }
 
   private TripEntity(Builder builder) {
@@ -45,6 +54,8 @@ public class TripEntity {
     this.finalDestination = builder.finalDestination;
     this.dateCreated = builder.dateCreated;
     this.ownerEmail = builder.ownerEmail;
+    this.version = builder.version;
+    this.pendingPublicationSince = builder.pendingPublicationSince;
   }
 
   String getId() {
@@ -75,6 +86,14 @@ public class TripEntity {
     return ownerEmail;
   }
 
+  Long getVersion() {
+    return version;
+  }
+
+  LocalDateTime getPendingPublicationSince() {
+    return pendingPublicationSince;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -90,12 +109,15 @@ public class TripEntity {
       && Objects.equals(startDestination, trip.startDestination)
       && Objects.equals(finalDestination, trip.finalDestination)
       && Objects.equals(dateCreated, trip.dateCreated)
-      && Objects.equals(ownerEmail, trip.ownerEmail);
+      && Objects.equals(ownerEmail, trip.ownerEmail)
+      && Objects.equals(version, trip.version)
+      && Objects.equals(pendingPublicationSince, trip.pendingPublicationSince);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, startTime, endTime, startDestination, finalDestination, dateCreated, ownerEmail);
+    return Objects.hash(id, startTime, endTime, startDestination, finalDestination, dateCreated, ownerEmail,
+      version, pendingPublicationSince);
   }
 
   @Override
@@ -108,6 +130,8 @@ public class TripEntity {
       ", finalDestination='" + finalDestination + '\'' +
       ", dateCreated=" + dateCreated +
       ", ownerEmail=" + EMAIL_OBFUSCATED +
+      ", version=" + version +
+      ", pendingPublicationSince=" + pendingPublicationSince +
       '}';
   }
 
@@ -127,6 +151,10 @@ public class TripEntity {
 
     private String ownerEmail;
 
+    private Long version;
+
+    private LocalDateTime pendingPublicationSince;
+
     Builder withId(String id) {
       this.id = id;
       return this;
@@ -162,6 +190,16 @@ public class TripEntity {
       return this;
     }
 
+    Builder withVersion(Long version) {
+      this.version = version;
+      return this;
+    }
+
+    Builder withPendingPublicationSince(LocalDateTime pendingPublicationSince) {
+      this.pendingPublicationSince = pendingPublicationSince;
+      return this;
+    }
+
     TripEntity build() {
       return new TripEntity(this);
     }
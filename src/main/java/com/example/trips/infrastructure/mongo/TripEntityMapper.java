@@ -2,6 +2,8 @@ package com.example.trips.infrastructure.mongo;
 
 import com.example.trips.api.model.Trip;
 import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,10 +19,11 @@ class TripEntityMapper {
       .withFinalDestination(tripEntity.getFinalDestination())
       .withDateCreated(tripEntity.getDateCreated())
       .withOwnerEmail(tripEntity.getOwnerEmail())
+      .withVersion(tripEntity.getVersion())
       .build();
   }
 
-  TripEntity tripToTripEntity(Trip trip) {
+  TripEntity tripToTripEntity(Trip trip, LocalDateTime pendingPublicationSince) {
     return TripEntity.builder()
       .withId(trip.getId())
       .withStartTime(trip.getStartTime())
@@ -29,6 +32,8 @@ class TripEntityMapper {
       .withFinalDestination(trip.getFinalDestination())
       .withDateCreated(trip.getDateCreated())
       .withOwnerEmail(trip.getOwnerEmail())
+      .withVersion(trip.getVersion())
+      .withPendingPublicationSince(pendingPublicationSince)
       .build();
   }
 
@@ -0,0 +1,34 @@
+package com.example.trips.infrastructure.proximity;
+
+import com.example.trips.infrastructure.geolocation.GeolocationInfoRetrieverDecorator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-proximity", name = "enabled", havingValue = "true")
+class GeolocationProximityConfiguration {
+
+  static final String GEOLOCATION_PROXIMITY_CACHE_NAME = "geolocation-proximity";
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.PROXIMITY_REUSE_ORDER)
+  public GeolocationInfoRetrieverDecorator proximityGeolocationInfoRetrieverDecorator(
+    GeolocationProximityProperties geolocationProximityProperties, MeterRegistry meterRegistry) {
+    Cache<Long, ProximityIndex.Cell> cells = Caffeine.newBuilder()
+      .maximumSize(geolocationProximityProperties.getMaximumCells())
+      .expireAfterWrite(geolocationProximityProperties.getTimeToLive())
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cells, GEOLOCATION_PROXIMITY_CACHE_NAME);
+    ProximityIndex proximityIndex = new ProximityIndex(cells, geolocationProximityProperties.getRadiusMeters(),
+      geolocationProximityProperties.getMaximumEntriesPerCell(),
+      geolocationProximityProperties.getMinimumAgreeingPoints());
+    return delegate -> new ProximityGeolocationInfoRetriever(delegate, proximityIndex, meterRegistry);
+  }
+}
@@ -0,0 +1,50 @@
+package com.example.trips.infrastructure.proximity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-proximity")
+@ConstructorBinding
+class GeolocationProximityProperties {
+
+  private final double radiusMeters;
+
+  private final long maximumCells;
+
+  private final int maximumEntriesPerCell;
+
+  private final int minimumAgreeingPoints;
+
+  private final Duration timeToLive;
+
+  GeolocationProximityProperties(double radiusMeters, long maximumCells, int maximumEntriesPerCell,
+                                 int minimumAgreeingPoints, Duration timeToLive) {
+    this.radiusMeters = radiusMeters;
+    this.maximumCells = maximumCells;
+    this.maximumEntriesPerCell = maximumEntriesPerCell;
+    this.minimumAgreeingPoints = minimumAgreeingPoints;
+    this.timeToLive = timeToLive;
+  }
+
+  double getRadiusMeters() {
+    return radiusMeters;
+  }
+
+  long getMaximumCells() {
+    return maximumCells;
+  }
+
+  int getMaximumEntriesPerCell() {
+    return maximumEntriesPerCell;
+  }
+
+  int getMinimumAgreeingPoints() {
+    return minimumAgreeingPoints;
+  }
+
+  Duration getTimeToLive() {
+    return timeToLive;
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.trips.infrastructure.proximity;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+class ProximityGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final ProximityIndex proximityIndex;
+
+  private final Counter exactHits;
+
+  private final Counter approximateHits;
+
+  private final Counter misses;
+
+  ProximityGeolocationInfoRetriever(GeolocationInfoRetriever delegate, ProximityIndex proximityIndex,
+                                    MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.proximityIndex = proximityIndex;
+    this.exactHits = meterRegistry.counter("geolocation.proximity.lookups", "result", "exact");
+    this.approximateHits = meterRegistry.counter("geolocation.proximity.lookups", "result", "approximate");
+    this.misses = meterRegistry.counter("geolocation.proximity.lookups", "result", "miss");
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    Optional<GeolocationInfo> nearbyGeolocationInfo = findNearby(geolocationCoordinates);
+    if (nearbyGeolocationInfo.isPresent()) {
+      return nearbyGeolocationInfo.get();
+    }
+    GeolocationInfo geolocationInfo = delegate.retrieve(geolocationCoordinates);
+    proximityIndex.add(geolocationCoordinates, geolocationInfo);
+    return geolocationInfo;
+  }
+
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    Optional<GeolocationInfo> nearbyGeolocationInfo = findNearby(geolocationCoordinates);
+    if (nearbyGeolocationInfo.isPresent()) {
+      return CompletableFuture.completedFuture(nearbyGeolocationInfo.get());
+    }
+    return delegate.retrieveAsync(geolocationCoordinates).whenComplete((geolocationInfo, failure) -> {
+      if (failure == null) {
+        proximityIndex.add(geolocationCoordinates, geolocationInfo);
+      }
+    });
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+    List<GeolocationCoordinates> unresolved = new ArrayList<>();
+    for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+      Optional<GeolocationInfo> nearbyGeolocationInfo = findNearby(coordinates);
+      if (nearbyGeolocationInfo.isPresent()) {
+        results.put(coordinates, GeolocationInfoResult.success(nearbyGeolocationInfo.get()));
+      } else {
+        unresolved.add(coordinates);
+      }
+    }
+    if (unresolved.isEmpty()) {
+      return results;
+    }
+    delegate.retrieveAll(unresolved).forEach((coordinates, result) -> {
+      if (result.isSuccess()) {
+        proximityIndex.add(coordinates, result.getGeolocationInfo());
+      }
+      results.put(coordinates, result);
+    });
+    return results;
+  }
+
+  private Optional<GeolocationInfo> findNearby(GeolocationCoordinates geolocationCoordinates) {
+    Optional<ProximityIndex.Match> match = proximityIndex.find(geolocationCoordinates);
+    if (match.isEmpty()) {
+      misses.increment();
+      return Optional.empty();
+    }
+    (match.get().isExact() ? exactHits : approximateHits).increment();
+    return Optional.of(match.get().getGeolocationInfo());
+  }
+}
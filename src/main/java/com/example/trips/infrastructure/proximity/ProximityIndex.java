@@ -0,0 +1,241 @@
+package com.example.trips.infrastructure.proximity;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Resolved coordinates grouped by geohash cell. Cells are at least as tall as the search radius, so a lookup only
+ * has to scan the query's cell and its neighbours (more of them east and west near the poles, where cells narrow).
+ * <p>
+ * {@link GeolocationInfo} carries no bounding box, so a locality's area is approximated by the points already
+ * resolved to it: a neighbour is only reused when every indexed point within the radius agrees on country and
+ * locality, there are at least {@code minAgreeingPoints} of them and the query lies inside their bounding box. A lone
+ * neighbour, or neighbours all on one side of the query, say nothing about a border between them and the query, so
+ * such coordinates still go to the provider.
+ */
+final class ProximityIndex {
+
+  private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+  private static final int MAX_BITS_PER_AXIS = 26;
+
+  private final Cache<Long, Cell> cells;
+
+  private final double radiusMeters;
+
+  private final int maxEntriesPerCell;
+
+  private final int minAgreeingPoints;
+
+  private final int bitsPerAxis;
+
+  private final long cellsPerAxis;
+
+  ProximityIndex(Cache<Long, Cell> cells, double radiusMeters, int maxEntriesPerCell, int minAgreeingPoints) {
+    this.cells = cells;
+    this.radiusMeters = radiusMeters;
+    this.maxEntriesPerCell = maxEntriesPerCell;
+    this.minAgreeingPoints = minAgreeingPoints;
+    double cellsFittingLatitudeRange = 180 * METERS_PER_DEGREE / radiusMeters;
+    this.bitsPerAxis = (int) Math.max(1, Math.min(MAX_BITS_PER_AXIS,
+      Math.floor(Math.log(cellsFittingLatitudeRange) / Math.log(2))));
+    this.cellsPerAxis = 1L << bitsPerAxis;
+  }
+
+  void add(GeolocationCoordinates geolocationCoordinates, GeolocationInfo geolocationInfo) {
+    if (geolocationInfo.getLocality() == null) {
+      return;
+    }
+    Entry entry = new Entry(geolocationCoordinates.getLatitude(), geolocationCoordinates.getLongitude(),
+      geolocationInfo);
+    long latitudeIndex = latitudeIndex(entry.latitude);
+    long longitudeIndex = longitudeIndex(entry.longitude);
+    cells.asMap().compute(geohash(latitudeIndex, longitudeIndex),
+      (geohash, cell) -> cell == null ? new Cell(new Entry[]{entry}) : cell.with(entry, maxEntriesPerCell));
+  }
+
+  Optional<Match> find(GeolocationCoordinates geolocationCoordinates) {
+    double latitude = geolocationCoordinates.getLatitude();
+    double longitude = geolocationCoordinates.getLongitude();
+    long latitudeIndex = latitudeIndex(latitude);
+    long longitudeIndex = longitudeIndex(longitude);
+    int longitudeSpan = longitudeSpan(latitude);
+    Entry nearest = null;
+    double nearestDistance = Double.MAX_VALUE;
+    int agreeing = 0;
+    // bounding box of the agreeing points, as offsets from the query so that it also spans the antimeridian
+    double minLatitudeOffset = Double.MAX_VALUE;
+    double maxLatitudeOffset = -Double.MAX_VALUE;
+    double minLongitudeOffset = Double.MAX_VALUE;
+    double maxLongitudeOffset = -Double.MAX_VALUE;
+    for (long latitudeCell = latitudeIndex - 1; latitudeCell <= latitudeIndex + 1; latitudeCell++) {
+      if (latitudeCell < 0 || latitudeCell >= cellsPerAxis) {
+        continue;
+      }
+      for (long offset = -longitudeSpan; offset <= longitudeSpan; offset++) {
+        Cell cell = cells.getIfPresent(geohash(latitudeCell, Math.floorMod(longitudeIndex + offset, cellsPerAxis)));
+        if (cell == null) {
+          continue;
+        }
+        for (Entry entry : cell.entries) {
+          double distance = distanceMeters(latitude, longitude, entry.latitude, entry.longitude);
+          if (distance > radiusMeters) {
+            continue;
+          }
+          if (nearest != null && !nearest.sameLocality(entry)) {
+            return Optional.empty();
+          }
+          if (distance < nearestDistance) {
+            nearest = entry;
+            nearestDistance = distance;
+          }
+          agreeing++;
+          double latitudeOffset = entry.latitude - latitude;
+          double longitudeOffset = longitudeOffset(longitude, entry.longitude);
+          minLatitudeOffset = Math.min(minLatitudeOffset, latitudeOffset);
+          maxLatitudeOffset = Math.max(maxLatitudeOffset, latitudeOffset);
+          minLongitudeOffset = Math.min(minLongitudeOffset, longitudeOffset);
+          maxLongitudeOffset = Math.max(maxLongitudeOffset, longitudeOffset);
+        }
+      }
+    }
+    if (nearest == null) {
+      return Optional.empty();
+    }
+    if (nearest.latitude == latitude && nearest.longitude == longitude) {
+      return Optional.of(new Match(nearest.geolocationInfo, true));
+    }
+    boolean surrounded = minLatitudeOffset <= 0 && maxLatitudeOffset >= 0
+      && minLongitudeOffset <= 0 && maxLongitudeOffset >= 0;
+    if (agreeing < minAgreeingPoints || !surrounded) {
+      return Optional.empty();
+    }
+    return Optional.of(new Match(nearest.geolocationInfo, false));
+  }
+
+  private long latitudeIndex(double latitude) {
+    return Math.min(cellsPerAxis - 1, (long) ((latitude + 90) / 180 * cellsPerAxis));
+  }
+
+  private long longitudeIndex(double longitude) {
+    return Math.floorMod((long) Math.floor((longitude + 180) / 360 * cellsPerAxis), cellsPerAxis);
+  }
+
+  private int longitudeSpan(double latitude) {
+    double cellWidthMeters = 360.0 / cellsPerAxis * METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+    double span = Math.ceil(radiusMeters / Math.max(cellWidthMeters, 1e-9));
+    return (int) Math.min(span, (cellsPerAxis - 1) / 2);
+  }
+
+  /**
+   * Degrees east from the first longitude to the second, in [-180, 180).
+   */
+  private static double longitudeOffset(double fromLongitude, double toLongitude) {
+    double offset = (toLongitude - fromLongitude) % 360;
+    if (offset >= 180) {
+      return offset - 360;
+    }
+    return offset < -180 ? offset + 360 : offset;
+  }
+
+  /**
+   * Binary geohash: longitude and latitude bits interleaved, longitude first.
+   */
+  private static long geohash(long latitudeIndex, long longitudeIndex) {
+    return spread(longitudeIndex) << 1 | spread(latitudeIndex);
+  }
+
+  private static long spread(long value) {
+    long bits = value & 0xFFFFFFFFL;
+    bits = (bits | bits << 16) & 0x0000FFFF0000FFFFL;
+    bits = (bits | bits << 8) & 0x00FF00FF00FF00FFL;
+    bits = (bits | bits << 4) & 0x0F0F0F0F0F0F0F0FL;
+    bits = (bits | bits << 2) & 0x3333333333333333L;
+    bits = (bits | bits << 1) & 0x5555555555555555L;
+    return bits;
+  }
+
+  private static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+    double latitudeDelta = Math.toRadians(latitude2 - latitude1);
+    double longitudeDelta = Math.toRadians(longitude2 - longitude1);
+    double a = Math.sin(latitudeDelta / 2) * Math.sin(latitudeDelta / 2)
+      + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+      * Math.sin(longitudeDelta / 2) * Math.sin(longitudeDelta / 2);
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  static final class Match {
+
+    private final GeolocationInfo geolocationInfo;
+
+    private final boolean exact;
+
+    private Match(GeolocationInfo geolocationInfo, boolean exact) {
+      this.geolocationInfo = geolocationInfo;
+      this.exact = exact;
+    }
+
+    GeolocationInfo getGeolocationInfo() {
+      return geolocationInfo;
+    }
+
+    boolean isExact() {
+      return exact;
+    }
+  }
+
+  /**
+   * Immutable, so lookups can scan it without locking; writers replace it through {@code compute}.
+   */
+  static final class Cell {
+
+    private final Entry[] entries;
+
+    private Cell(Entry[] entries) {
+      this.entries = entries;
+    }
+
+    private Cell with(Entry entry, int maxEntries) {
+      for (int i = 0; i < entries.length; i++) {
+        if (entries[i].latitude == entry.latitude && entries[i].longitude == entry.longitude) {
+          Entry[] replaced = entries.clone();
+          replaced[i] = entry;
+          return new Cell(replaced);
+        }
+      }
+      // the oldest point makes room once the cell is full
+      Entry[] extended = entries.length < maxEntries
+        ? Arrays.copyOf(entries, entries.length + 1)
+        : Arrays.copyOfRange(entries, 1, entries.length + 1);
+      extended[extended.length - 1] = entry;
+      return new Cell(extended);
+    }
+  }
+
+  private static final class Entry {
+
+    private final double latitude;
+
+    private final double longitude;
+
+    private final GeolocationInfo geolocationInfo;
+
+    private Entry(double latitude, double longitude, GeolocationInfo geolocationInfo) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.geolocationInfo = geolocationInfo;
+    }
+
+    private boolean sameLocality(Entry other) {
+      return Objects.equals(geolocationInfo.getCountry(), other.geolocationInfo.getCountry())
+        && Objects.equals(geolocationInfo.getLocality(), other.geolocationInfo.getLocality());
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "enrichment-async-consumer", name = "enabled", havingValue = "true")
+class AsyncEnrichmentConsumerConfiguration {
+
+  /**
+   * Listener methods returning a future are acknowledged when the future completes, which needs manual acks. The
+   * prefetch is what bounds the messages in flight per consumer, so it is set much higher than for blocking listeners.
+   * No retry advice: it would only wrap the call that returns the future.
+   */
+  @Bean
+  public SimpleRabbitListenerContainerFactory asyncEnrichmentListenerContainerFactory(
+    ConnectionFactory connectionFactory, AsyncEnrichmentConsumerProperties asyncEnrichmentConsumerProperties) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    factory.setConnectionFactory(connectionFactory);
+    factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+    factory.setConcurrentConsumers(asyncEnrichmentConsumerProperties.getConsumers());
+    factory.setPrefetchCount(asyncEnrichmentConsumerProperties.getPrefetch());
+    factory.setDefaultRequeueRejected(false);
+    return factory;
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public EnrichmentStoreExecutor enrichmentStoreExecutor(
+    AsyncEnrichmentConsumerProperties asyncEnrichmentConsumerProperties, MeterRegistry meterRegistry) {
+    return new EnrichmentStoreExecutor(asyncEnrichmentConsumerProperties.getStoreThreads(),
+      asyncEnrichmentConsumerProperties.getConsumers() * asyncEnrichmentConsumerProperties.getPrefetch(),
+      meterRegistry);
+  }
+}
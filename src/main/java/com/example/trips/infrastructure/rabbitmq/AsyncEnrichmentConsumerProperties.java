@@ -0,0 +1,42 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "enrichment-async-consumer")
+@ConstructorBinding
+class AsyncEnrichmentConsumerProperties {
+
+  private final int consumers;
+
+  private final int prefetch;
+
+  private final Duration timeout;
+
+  private final int storeThreads;
+
+  AsyncEnrichmentConsumerProperties(int consumers, int prefetch, Duration timeout, int storeThreads) {
+    this.consumers = consumers;
+    this.prefetch = prefetch;
+    this.timeout = timeout;
+    this.storeThreads = storeThreads;
+  }
+
+  int getConsumers() {
+    return consumers;
+  }
+
+  int getPrefetch() {
+    return prefetch;
+  }
+
+  Duration getTimeout() {
+    return timeout;
+  }
+
+  int getStoreThreads() {
+    return storeThreads;
+  }
+}
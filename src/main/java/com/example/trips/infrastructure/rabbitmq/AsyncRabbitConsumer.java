@@ -0,0 +1,180 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import static com.example.trips.infrastructure.rabbitmq.RabbitConfiguration.TRIPS_ENRICHMENT_QUEUE;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripRepository;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import com.example.trips.api.service.TripEnricher;
+import com.example.trips.api.service.TripService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.CompletableToListenableFutureAdapter;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Enriches trips with {@link TripEnricher#enrichAsync}, so a few listener threads keep up to the prefetch count of
+ * messages in flight; trip reads and writes run on {@link EnrichmentStoreExecutor}. A message is acknowledged once its
+ * trip is saved. When the geolocation provider is unavailable or too slow it is moved to the deferral queue of
+ * {@link EnrichmentRetryQueues}, on any other failure to the next retry tier, and it is dead-lettered once it went
+ * through every tier. It is only put back to the queue at once when the broker did not confirm the moved copy.
+ * Redundant messages are collapsed by {@link EnrichmentDeduplicator}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "enrichment-async-consumer", name = "enabled", havingValue = "true")
+class AsyncRabbitConsumer {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncRabbitConsumer.class);
+
+  private final TripService tripService;
+
+  private final TripRepository tripRepository;
+
+  private final TripEnricher tripEnricher;
+
+  private final EnrichmentDeduplicator enrichmentDeduplicator;
+
+  private final TripDtoMapper tripDtoMapper;
+
+  private final EnrichmentRetryQueues enrichmentRetryQueues;
+
+  private final EnrichmentStoreExecutor storeExecutor;
+
+  private final Duration timeout;
+
+  AsyncRabbitConsumer(TripService tripService, TripRepository tripRepository, TripEnricher tripEnricher,
+                      EnrichmentDeduplicator enrichmentDeduplicator, TripDtoMapper tripDtoMapper,
+                      EnrichmentRetryQueues enrichmentRetryQueues, EnrichmentStoreExecutor storeExecutor,
+                      AsyncEnrichmentConsumerProperties asyncEnrichmentConsumerProperties) {
+    this.tripService = tripService;
+    this.tripRepository = tripRepository;
+    this.tripEnricher = tripEnricher;
+    this.enrichmentDeduplicator = enrichmentDeduplicator;
+    this.tripDtoMapper = tripDtoMapper;
+    this.enrichmentRetryQueues = enrichmentRetryQueues;
+    this.storeExecutor = storeExecutor;
+    this.timeout = asyncEnrichmentConsumerProperties.getTimeout();
+  }
+
+  @RabbitListener(queues = {TRIPS_ENRICHMENT_QUEUE}, containerFactory = "asyncEnrichmentListenerContainerFactory")
+  ListenableFuture<Void> consume(TripDto tripDto, Message message) {
+    String tripId = tripDto.getId();
+    if (!enrichmentDeduplicator.tryAcquire(tripDto)) {
+      return new CompletableToListenableFutureAdapter<>(CompletableFuture.completedFuture(null));
+    }
+    // completed explicitly rather than from a dependent stage, so the container sees the exception deciding the
+    // requeue itself and not a CompletionException around it
+    CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+    AtomicReference<TripDto> current = new AtomicReference<>(tripDto);
+    enrichUntilCurrent(tripDto, current).whenComplete((ignored, failure) -> {
+      if (failure == null) {
+        acknowledgement.complete(null);
+        return;
+      }
+      Throwable cause = causeOf(tripDto, GeolocationInfoRetriever.unwrapAsyncFailure(failure));
+      TripDto latest = enrichmentDeduplicator.release(tripId).orElse(current.get());
+      if (latest == tripDto) {
+        completeFailed(acknowledgement, tripDto, message, cause);
+      } else {
+        completeSuperseded(acknowledgement, latest, message, cause);
+      }
+    });
+    return new CompletableToListenableFutureAdapter<>(acknowledgement);
+  }
+
+  private CompletableFuture<Void> enrichUntilCurrent(TripDto tripDto, AtomicReference<TripDto> current) {
+    current.set(tripDto);
+    return enrich(tripDto).thenCompose(ignored -> enrichmentDeduplicator.releaseOrRerun(tripDto.getId())
+      .map(next -> enrichUntilCurrent(next, current))
+      .orElseGet(() -> CompletableFuture.completedFuture(null)));
+  }
+
+  private CompletableFuture<Void> enrich(TripDto tripDto) {
+    return CompletableFuture.supplyAsync(() -> tripToEnrich(tripDto), storeExecutor)
+      .thenCompose(tripToEnrich -> tripToEnrich
+        .map(trip -> tripEnricher.enrichAsync(trip)
+          .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+          // off the thread completing the lookup, which is shared by every lookup in flight
+          .thenAcceptAsync(this::updateGeolocation, storeExecutor))
+        .orElseGet(() -> CompletableFuture.completedFuture(null)));
+  }
+
+  private Optional<Trip> tripToEnrich(TripDto tripDto) {
+    Optional<Trip> tripFromMessage = tripDtoMapper.tripDtoToTrip(tripDto);
+    if (tripFromMessage.isPresent()) {
+      return enrichmentDeduplicator.isOutdated(tripDto) ? Optional.empty() : tripFromMessage;
+    }
+    Trip trip = tripService.findById(tripDto.getId());
+    return enrichmentDeduplicator.isAlreadyEnriched(trip) ? Optional.empty() : Optional.of(trip);
+  }
+
+  private void updateGeolocation(Trip enrichedTrip) {
+    if (!tripRepository.updateGeolocation(enrichedTrip)) {
+      log.info("Trip with id={} was changed or deleted before its enrichment was saved",
+        enrichedTrip.getId());
+    }
+  }
+
+  private Throwable causeOf(TripDto tripDto, Throwable failure) {
+    if (failure instanceof TimeoutException) {
+      return new GeolocationProviderUnavailableException(String.format(
+        "Enrichment of trip %s did not complete within %d ms", tripDto.getId(), timeout.toMillis()));
+    }
+    return failure;
+  }
+
+  /**
+   * Retries the newer message of the trip, acknowledged when it was skipped or rerun, in place of the consumed one.
+   */
+  private void completeSuperseded(CompletableFuture<Void> acknowledgement, TripDto latest, Message message,
+                                  Throwable failure) {
+    try {
+      if (enrichmentRetryQueues.retryOrDeferLater(latest, failure)) {
+        log.warn("Enrichment of trip with id={} failed, retrying its latest message later: {}", latest.getId(),
+          failure.getMessage());
+        acknowledgement.complete(null);
+        return;
+      }
+    } catch (ImmediateRequeueAmqpException e) {
+      acknowledgement.completeExceptionally(e);
+      return;
+    }
+    completeFailed(acknowledgement, latest, message, failure);
+  }
+
+  private void completeFailed(CompletableFuture<Void> acknowledgement, TripDto tripDto, Message message,
+                              Throwable failure) {
+    try {
+      if (DeferringMessageRecoverer.isDeferrable(failure) && enrichmentRetryQueues.deferLater(message)) {
+        log.debug("Geolocation provider is unavailable, deferring message: {}", failure.getMessage());
+        acknowledgement.complete(null);
+        return;
+      }
+      if (enrichmentRetryQueues.retryLater(message)) {
+        log.warn("Enrichment of trip with id={} failed, retrying later: {}", tripDto.getId(), failure.getMessage());
+        acknowledgement.complete(null);
+        return;
+      }
+    } catch (ImmediateRequeueAmqpException e) {
+      acknowledgement.completeExceptionally(e);
+      return;
+    }
+    acknowledgement.completeExceptionally(new AmqpRejectAndDontRequeueException(
+      String.format("Enrichment of trip %s failed", tripDto.getId()), failure));
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "enrichment-batch-consumer", name = "enabled", havingValue = "true")
+class BatchEnrichmentConsumerConfiguration {
+
+  /**
+   * Delivers up to the batch size of messages at once, or fewer once no message arrived for the receive timeout.
+   * Manual acks, so every message of a batch is acknowledged on its own.
+   */
+  @Bean
+  public SimpleRabbitListenerContainerFactory batchEnrichmentListenerContainerFactory(
+    ConnectionFactory connectionFactory, BatchEnrichmentConsumerProperties batchEnrichmentConsumerProperties) {
+    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+    factory.setConnectionFactory(connectionFactory);
+    factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+    factory.setBatchListener(true);
+    factory.setConsumerBatchEnabled(true);
+    factory.setBatchSize(batchEnrichmentConsumerProperties.getBatchSize());
+    factory.setPrefetchCount(batchEnrichmentConsumerProperties.getBatchSize());
+    factory.setReceiveTimeout(batchEnrichmentConsumerProperties.getReceiveTimeout().toMillis());
+    factory.setConcurrentConsumers(batchEnrichmentConsumerProperties.getConsumers());
+    factory.setDefaultRequeueRejected(false);
+    return factory;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "enrichment-batch-consumer")
+@ConstructorBinding
+class BatchEnrichmentConsumerProperties {
+
+  private final int consumers;
+
+  private final int batchSize;
+
+  private final Duration receiveTimeout;
+
+  BatchEnrichmentConsumerProperties(int consumers, int batchSize, Duration receiveTimeout) {
+    this.consumers = consumers;
+    this.batchSize = batchSize;
+    this.receiveTimeout = receiveTimeout;
+  }
+
+  int getConsumers() {
+    return consumers;
+  }
+
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  Duration getReceiveTimeout() {
+    return receiveTimeout;
+  }
+}
@@ -0,0 +1,147 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import static com.example.trips.infrastructure.rabbitmq.RabbitConfiguration.TRIPS_ENRICHMENT_QUEUE;
+
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.model.TripEnrichmentResult;
+import com.example.trips.api.repository.TripRepository;
+import com.example.trips.api.service.TripEnricher;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Enriches a batch of messages with one trip query, one enrichment and one bulk update, then acknowledges every
+ * message on its own: acked when its trip was saved, moved to the deferral queue of {@link EnrichmentRetryQueues}
+ * when the geolocation provider is unavailable, to the next retry tier on any other failure and dead-lettered once it
+ * went through every tier. It is only requeued at once when the broker did not confirm the moved copy. Messages
+ * for the same trip share one enrichment, and trips that are already enriched are acknowledged without one.
+ */
+@Component
+@ConditionalOnProperty(prefix = "enrichment-batch-consumer", name = "enabled", havingValue = "true")
+class BatchRabbitConsumer {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchRabbitConsumer.class);
+
+  private final TripRepository tripRepository;
+
+  private final TripEnricher tripEnricher;
+
+  private final EnrichmentDeduplicator enrichmentDeduplicator;
+
+  private final EnrichmentRetryQueues enrichmentRetryQueues;
+
+  private final DistributionSummary batchSizes;
+
+  BatchRabbitConsumer(TripRepository tripRepository, TripEnricher tripEnricher,
+                      EnrichmentDeduplicator enrichmentDeduplicator, EnrichmentRetryQueues enrichmentRetryQueues,
+                      MeterRegistry meterRegistry) {
+    this.tripRepository = tripRepository;
+    this.tripEnricher = tripEnricher;
+    this.enrichmentDeduplicator = enrichmentDeduplicator;
+    this.enrichmentRetryQueues = enrichmentRetryQueues;
+    this.batchSizes = DistributionSummary.builder("enrichment.batch.size")
+      .description("Messages handled in one enrichment batch")
+      .register(meterRegistry);
+  }
+
+  @RabbitListener(queues = {TRIPS_ENRICHMENT_QUEUE}, containerFactory = "batchEnrichmentListenerContainerFactory")
+  void consume(List<Message<TripDto>> messages, Channel channel) throws IOException {
+    batchSizes.record(messages.size());
+    Map<String, List<Message<TripDto>>> messagesByTripId = new LinkedHashMap<>();
+    for (Message<TripDto> message : messages) {
+      messagesByTripId.computeIfAbsent(message.getPayload().getId(), tripId -> new ArrayList<>()).add(message);
+    }
+    Map<String, RuntimeException> failures;
+    try {
+      failures = enrichAll(messagesByTripId.keySet());
+    } catch (RuntimeException e) {
+      log.error("Enrichment of a batch of {} messages failed", messages.size(), e);
+      for (Message<TripDto> message : messages) {
+        settleFailed(message, e, channel);
+      }
+      return;
+    }
+    for (Map.Entry<String, List<Message<TripDto>>> entry : messagesByTripId.entrySet()) {
+      RuntimeException failure = failures.get(entry.getKey());
+      if (failure != null) {
+        log.warn("Enrichment of trip with id={} failed: {}", entry.getKey(), failure.getMessage());
+      }
+      for (Message<TripDto> message : entry.getValue()) {
+        if (failure == null) {
+          channel.basicAck(deliveryTagOf(message), false);
+        } else {
+          settleFailed(message, failure, channel);
+        }
+      }
+    }
+  }
+
+  private void settleFailed(Message<TripDto> message, RuntimeException failure, Channel channel) throws IOException {
+    long deliveryTag = deliveryTagOf(message);
+    Object attempt = message.getHeaders().get(EnrichmentRetryQueues.ATTEMPT_HEADER);
+    Object deferrals = message.getHeaders().get(EnrichmentRetryQueues.DEFERRAL_HEADER);
+    try {
+      if (DeferringMessageRecoverer.isDeferrable(failure)
+        && enrichmentRetryQueues.deferLater(message.getPayload(), attempt, deferrals)) {
+        channel.basicAck(deliveryTag, false);
+      } else if (enrichmentRetryQueues.retryLater(message.getPayload(), attempt, deferrals)) {
+        channel.basicAck(deliveryTag, false);
+      } else {
+        channel.basicNack(deliveryTag, false, false);
+      }
+    } catch (ImmediateRequeueAmqpException e) {
+      log.warn("Could not retry message later, requeueing it: {}", e.getMessage());
+      channel.basicNack(deliveryTag, false, true);
+    }
+  }
+
+  private static long deliveryTagOf(Message<TripDto> message) {
+    return message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+  }
+
+  private Map<String, RuntimeException> enrichAll(Set<String> tripIds) {
+    List<Trip> trips = tripRepository.findAllById(tripIds);
+    Map<String, RuntimeException> failures = new HashMap<>();
+    Set<String> missingTripIds = new HashSet<>(tripIds);
+    List<Trip> tripsToEnrich = new ArrayList<>(trips.size());
+    for (Trip trip : trips) {
+      missingTripIds.remove(trip.getId());
+      if (!enrichmentDeduplicator.isAlreadyEnriched(trip)) {
+        tripsToEnrich.add(trip);
+      }
+    }
+    for (String tripId : missingTripIds) {
+      failures.put(tripId, new NotFoundException(String.format("Trip with id=%s not found", tripId)));
+    }
+    List<Trip> enrichedTrips = new ArrayList<>(tripsToEnrich.size());
+    for (TripEnrichmentResult result : tripEnricher.enrichAll(tripsToEnrich)) {
+      if (result.isSuccess()) {
+        enrichedTrips.add(result.getTrip());
+      } else {
+        failures.put(result.getTrip().getId(), result.getError());
+      }
+    }
+    failures.putAll(tripRepository.updateGeolocationAll(enrichedTrips));
+    return failures;
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.TripDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends a batch of trip messages, each with its own correlation data, and then waits for the publisher confirms of the
+ * whole batch at once, so one round trip to the broker is awaited per batch instead of per message. A message that is
+ * nacked, not confirmed in time or not sent at all is logged and counted.
+ */
+class ConfirmingTripSender {
+
+  private static final Logger log = LoggerFactory.getLogger(ConfirmingTripSender.class);
+
+  private static final String FAILURES = "trip.publishing.failures";
+
+  private final RabbitTemplate rabbitTemplate;
+
+  private final long confirmTimeoutNanos;
+
+  private final Timer confirmLatency;
+
+  private final Counter nacks;
+
+  private final Counter confirmTimeouts;
+
+  private final Counter sendErrors;
+
+  ConfirmingTripSender(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry, Duration confirmTimeout) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.confirmTimeoutNanos = confirmTimeout.toNanos();
+    this.confirmLatency = Timer.builder("trip.publishing.confirm.latency")
+      .description("Time from sending a trip message to its publisher confirm")
+      .register(meterRegistry);
+    this.nacks = meterRegistry.counter(FAILURES, "reason", "nack");
+    this.confirmTimeouts = meterRegistry.counter(FAILURES, "reason", "confirm_timeout");
+    this.sendErrors = meterRegistry.counter(FAILURES, "reason", "send_error");
+  }
+
+  /**
+   * @return the messages the broker confirmed, in the order they were given
+   */
+  List<TripDto> send(List<TripDto> batch) {
+    List<TripDto> sent = new ArrayList<>(batch.size());
+    List<CorrelationData> correlations = new ArrayList<>(batch.size());
+    for (TripDto tripDto : batch) {
+      CorrelationData correlationData = new CorrelationData(tripDto.getId() + ":" + tripDto.getVersion());
+      long sentAt = System.nanoTime();
+      try {
+        rabbitTemplate.correlationConvertAndSend(tripDto, correlationData);
+      } catch (AmqpException e) {
+        sendErrors.increment();
+        log.error("Error when publishing trip with id={}. Error message: {}", tripDto.getId(), e.getMessage());
+        continue;
+      }
+      correlationData.getFuture().addCallback(
+        confirm -> confirmLatency.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS),
+        failure -> { });
+      sent.add(tripDto);
+      correlations.add(correlationData);
+    }
+    return awaitConfirms(sent, correlations);
+  }
+
+  private List<TripDto> awaitConfirms(List<TripDto> sent, List<CorrelationData> correlations) {
+    List<TripDto> confirmed = new ArrayList<>(sent.size());
+    long deadline = System.nanoTime() + confirmTimeoutNanos;
+    for (int i = 0; i < sent.size(); i++) {
+      CorrelationData correlationData = correlations.get(i);
+      try {
+        CorrelationData.Confirm confirm = correlationData.getFuture()
+          .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if (confirm.isAck()) {
+          confirmed.add(sent.get(i));
+        } else {
+          nacks.increment();
+          log.error("Broker did not accept message {}: {}", correlationData.getId(), confirm.getReason());
+        }
+      } catch (TimeoutException e) {
+        confirmTimeouts.increment();
+        log.error("Message {} was not confirmed within {} ms", correlationData.getId(),
+          TimeUnit.NANOSECONDS.toMillis(confirmTimeoutNanos));
+      } catch (ExecutionException e) {
+        nacks.increment();
+        log.error("Error when awaiting confirm of message {}", correlationData.getId(), e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    return confirmed;
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+/**
+ * Moves messages that failed only because the geolocation provider is unavailable to the deferral queue of
+ * {@link EnrichmentRetryQueues}, so they come back after a delay without using up a retry tier; every other failure,
+ * and a message deferred too often already, is handed to the delegate recoverer.
+ */
+class DeferringMessageRecoverer implements MessageRecoverer {
+
+  private static final Logger log = LoggerFactory.getLogger(DeferringMessageRecoverer.class);
+
+  private final EnrichmentRetryQueues enrichmentRetryQueues;
+
+  private final MessageRecoverer delegate;
+
+  DeferringMessageRecoverer(EnrichmentRetryQueues enrichmentRetryQueues, MessageRecoverer delegate) {
+    this.enrichmentRetryQueues = enrichmentRetryQueues;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void recover(Message message, Throwable cause) {
+    if (isDeferrable(cause) && enrichmentRetryQueues.deferLater(message)) {
+      log.debug("Geolocation provider is unavailable, deferring message: {}", cause.getMessage());
+      return;
+    }
+    delegate.recover(message, cause);
+  }
+
+  static boolean isDeferrable(Throwable cause) {
+    for (Throwable throwable = cause; throwable != null; throwable = throwable.getCause()) {
+      if (throwable instanceof GeolocationProviderUnavailableException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collapses enrichment messages for the same trip. A message for a trip that is being enriched on another listener
+ * thread is skipped, and that thread enriches the trip once more with the latest skipped message after it is done,
+ * or hands that message over to be retried when it failed, so the latest saved version is enriched however many
+ * messages came in meanwhile. A trip read for enrichment whose
+ * destinations already carry geolocation data is skipped as well: updating the coordinates clears that data, so it
+ * can only belong to the current coordinates. A message published for an older version of the trip than the stored
+ * one is skipped before any lookup, since a newer message follows it.
+ * <p>
+ * Only listeners of this instance are seen; duplicates consumed on other instances are caught by the second check.
+ */
+@Component
+class EnrichmentDeduplicator {
+
+  private static final String SKIPPED_MESSAGES = "enrichment.messages.skipped";
+
+  private final ConcurrentMap<String, Optional<TripDto>> pendingMessageByTripId = new ConcurrentHashMap<>();
+
+  private final Counter inFlightSkips;
+
+  private final Counter alreadyEnrichedSkips;
+
+  private final Counter outdatedSkips;
+
+  private final TripRepository tripRepository;
+
+  EnrichmentDeduplicator(TripRepository tripRepository, MeterRegistry meterRegistry) {
+    this.tripRepository = tripRepository;
+    this.inFlightSkips = Counter.builder(SKIPPED_MESSAGES)
+      .description("Enrichment messages skipped as redundant")
+      .tag("reason", "in_flight")
+      .register(meterRegistry);
+    this.alreadyEnrichedSkips = Counter.builder(SKIPPED_MESSAGES)
+      .description("Enrichment messages skipped as redundant")
+      .tag("reason", "already_enriched")
+      .register(meterRegistry);
+    this.outdatedSkips = Counter.builder(SKIPPED_MESSAGES)
+      .description("Enrichment messages skipped as redundant")
+      .tag("reason", "outdated")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Claims the trip of the message for the calling thread. Returns false when another thread holds it; the message
+   * is then left for that thread to run next and the caller should skip it.
+   */
+  boolean tryAcquire(TripDto tripDto) {
+    boolean[] acquired = {false};
+    pendingMessageByTripId.compute(tripDto.getId(), (id, pendingMessage) -> {
+      if (pendingMessage == null) {
+        acquired[0] = true;
+        return Optional.empty();
+      }
+      return Optional.of(tripDto);
+    });
+    if (!acquired[0]) {
+      inFlightSkips.increment();
+    }
+    return acquired[0];
+  }
+
+  /**
+   * Releases the trip after a successful run, unless a skipped message is waiting. Returns that message when there
+   * is one; the caller still holds the trip then and has to enrich it again.
+   */
+  Optional<TripDto> releaseOrRerun(String tripId) {
+    AtomicReference<TripDto> rerun = new AtomicReference<>();
+    pendingMessageByTripId.computeIfPresent(tripId, (id, pendingMessage) -> {
+      if (pendingMessage.isPresent()) {
+        rerun.set(pendingMessage.get());
+        return Optional.empty();
+      }
+      return null;
+    });
+    return Optional.ofNullable(rerun.get());
+  }
+
+  /**
+   * Releases the trip after a failed run and returns the skipped message waiting for it, if any. That message was
+   * acknowledged when it was skipped and is newer than the failed one, so the caller has to retry it rather than the
+   * failed one, which would be skipped as outdated or find nothing to update.
+   */
+  Optional<TripDto> release(String tripId) {
+    Optional<TripDto> pendingMessage = pendingMessageByTripId.remove(tripId);
+    return pendingMessage == null ? Optional.empty() : pendingMessage;
+  }
+
+  /**
+   * Checks whether the trip was changed or deleted since the message was published. Messages without a version are
+   * never outdated; their write is guarded by the coordinates instead. This costs a query by id for every versioned
+   * message, which only pays off while lookups are slower than that query: the write is guarded by the version
+   * either way.
+   */
+  boolean isOutdated(TripDto tripDto) {
+    if (tripDto.getVersion() == null || tripRepository.existsWithVersion(tripDto.getId(), tripDto.getVersion())) {
+      return false;
+    }
+    outdatedSkips.increment();
+    return true;
+  }
+
+  boolean isAlreadyEnriched(Trip trip) {
+    if (isEnriched(trip.getStartDestination()) && isEnriched(trip.getFinalDestination())) {
+      alreadyEnrichedSkips.increment();
+      return true;
+    }
+    return false;
+  }
+
+  private boolean isEnriched(GeolocationData geolocationData) {
+    return geolocationData != null && geolocationData.getCountry() != null;
+  }
+}
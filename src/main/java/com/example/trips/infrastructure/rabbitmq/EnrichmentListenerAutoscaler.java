@@ -0,0 +1,158 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scales the consumers of the enrichment queue listener containers between min and max. Every interval the wanted
+ * count is the backlog divided by the backlog one consumer should hold. Scaling up is immediate; scaling down goes
+ * one consumer per interval, so a short dip in the backlog does not stop consumers that are needed again right after.
+ * <p>
+ * While the mean processing time is above the max latency the downstream side (usually the geolocation provider) is
+ * the bottleneck, and more consumers would only add load to it, so consumers are not added then.
+ */
+class EnrichmentListenerAutoscaler {
+
+  private static final Logger log = LoggerFactory.getLogger(EnrichmentListenerAutoscaler.class);
+
+  private static final String LISTENER_TIMER = "spring.rabbitmq.listener";
+
+  private final RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
+
+  private final AmqpAdmin amqpAdmin;
+
+  private final MeterRegistry meterRegistry;
+
+  private final String queueName;
+
+  private final int minConsumers;
+
+  private final int maxConsumers;
+
+  private final int backlogPerConsumer;
+
+  private final long maxLatencyNanos;
+
+  private final ScheduledExecutorService executor =
+    Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("enrichment-listener-autoscaler-"));
+
+  private final AtomicLong backlog = new AtomicLong();
+
+  private final AtomicInteger consumers = new AtomicInteger();
+
+  private long lastProcessedCount;
+
+  private double lastProcessingNanos;
+
+  EnrichmentListenerAutoscaler(RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry, AmqpAdmin amqpAdmin,
+                               MeterRegistry meterRegistry, String queueName, int minConsumers, int maxConsumers,
+                               int backlogPerConsumer, Duration maxLatency) {
+    this.rabbitListenerEndpointRegistry = rabbitListenerEndpointRegistry;
+    this.amqpAdmin = amqpAdmin;
+    this.meterRegistry = meterRegistry;
+    this.queueName = queueName;
+    this.minConsumers = minConsumers;
+    this.maxConsumers = maxConsumers;
+    this.backlogPerConsumer = backlogPerConsumer;
+    this.maxLatencyNanos = maxLatency.toNanos();
+    meterRegistry.gauge("enrichment.queue.backlog", Tags.empty(), backlog);
+    meterRegistry.gauge("enrichment.listener.consumers", Tags.empty(), consumers);
+  }
+
+  void start(Duration interval) {
+    executor.scheduleWithFixedDelay(this::scaleSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  void scale() {
+    List<SimpleMessageListenerContainer> containers = enrichmentContainers();
+    consumers.set(containers.stream().mapToInt(SimpleMessageListenerContainer::getActiveConsumerCount).sum());
+    QueueInformation queueInformation = amqpAdmin.getQueueInfo(queueName);
+    if (queueInformation == null) {
+      return;
+    }
+    backlog.set(queueInformation.getMessageCount());
+    double meanLatencyNanos = meanLatencyNanosSinceLastScale();
+    for (SimpleMessageListenerContainer container : containers) {
+      int current = container.getActiveConsumerCount();
+      int wanted = wantedConsumers(current, queueInformation.getMessageCount(), meanLatencyNanos);
+      if (wanted != current) {
+        log.info("Scaling enrichment listener from {} to {} consumers, backlog {}, mean latency {} ms", current,
+          wanted, queueInformation.getMessageCount(), Math.round(meanLatencyNanos / 1_000_000));
+        container.setConcurrentConsumers(wanted);
+      }
+    }
+  }
+
+  int wantedConsumers(int current, long backlog, double meanLatencyNanos) {
+    int forBacklog = (int) Math.min(maxConsumers, (backlog + backlogPerConsumer - 1) / backlogPerConsumer);
+    int wanted;
+    if (forBacklog > current) {
+      wanted = meanLatencyNanos > maxLatencyNanos ? current : forBacklog;
+    } else if (forBacklog < current) {
+      wanted = current - 1;
+    } else {
+      wanted = current;
+    }
+    return Math.max(minConsumers, Math.min(maxConsumers, wanted));
+  }
+
+  private void scaleSafely() {
+    try {
+      scale();
+    } catch (RuntimeException e) {
+      log.warn("Could not scale enrichment listener: {}", e.getMessage());
+    }
+  }
+
+  private List<SimpleMessageListenerContainer> enrichmentContainers() {
+    List<SimpleMessageListenerContainer> containers = new ArrayList<>();
+    for (MessageListenerContainer container : rabbitListenerEndpointRegistry.getListenerContainers()) {
+      if (container instanceof SimpleMessageListenerContainer
+        && Arrays.asList(((SimpleMessageListenerContainer) container).getQueueNames()).contains(queueName)) {
+        containers.add((SimpleMessageListenerContainer) container);
+      }
+    }
+    return containers;
+  }
+
+  /**
+   * Mean time the listener containers spent per delivery since the previous run, from the timer the containers
+   * record; zero when nothing was processed.
+   */
+  private double meanLatencyNanosSinceLastScale() {
+    long processedCount = 0;
+    double processingNanos = 0;
+    for (Timer timer : meterRegistry.find(LISTENER_TIMER).tag("queue", queueName).timers()) {
+      processedCount += timer.count();
+      processingNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+    }
+    long processedSinceLast = processedCount - lastProcessedCount;
+    double nanosSinceLast = processingNanos - lastProcessingNanos;
+    lastProcessedCount = processedCount;
+    lastProcessingNanos = processingNanos;
+    return processedSinceLast > 0 ? nanosSinceLast / processedSinceLast : 0;
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "enrichment-listener-autoscaling", name = "enabled", havingValue = "true")
+class EnrichmentListenerAutoscalingConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  public EnrichmentListenerAutoscaler enrichmentListenerAutoscaler(
+    RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry, AmqpAdmin amqpAdmin, MeterRegistry meterRegistry,
+    RabbitProperties rabbitProperties, EnrichmentListenerAutoscalingProperties autoscalingProperties) {
+    EnrichmentListenerAutoscaler autoscaler = new EnrichmentListenerAutoscaler(rabbitListenerEndpointRegistry,
+      amqpAdmin, meterRegistry, rabbitProperties.getEnrichmentQueueName(), autoscalingProperties.getMinConsumers(),
+      autoscalingProperties.getMaxConsumers(), autoscalingProperties.getBacklogPerConsumer(),
+      autoscalingProperties.getMaxLatency());
+    autoscaler.start(autoscalingProperties.getInterval());
+    return autoscaler;
+  }
+}
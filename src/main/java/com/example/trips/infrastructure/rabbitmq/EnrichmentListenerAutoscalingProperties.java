@@ -0,0 +1,50 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "enrichment-listener-autoscaling")
+@ConstructorBinding
+class EnrichmentListenerAutoscalingProperties {
+
+  private final int minConsumers;
+
+  private final int maxConsumers;
+
+  private final int backlogPerConsumer;
+
+  private final Duration maxLatency;
+
+  private final Duration interval;
+
+  EnrichmentListenerAutoscalingProperties(int minConsumers, int maxConsumers, int backlogPerConsumer,
+                                          Duration maxLatency, Duration interval) {
+    this.minConsumers = minConsumers;
+    this.maxConsumers = maxConsumers;
+    this.backlogPerConsumer = backlogPerConsumer;
+    this.maxLatency = maxLatency;
+    this.interval = interval;
+  }
+
+  int getMinConsumers() {
+    return minConsumers;
+  }
+
+  int getMaxConsumers() {
+    return maxConsumers;
+  }
+
+  int getBacklogPerConsumer() {
+    return backlogPerConsumer;
+  }
+
+  Duration getMaxLatency() {
+    return maxLatency;
+  }
+
+  Duration getInterval() {
+    return interval;
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stops the enrichment queue listener containers while the geolocation provider circuit breaker is open, so that
+ * messages stay in the queue instead of being taken by listener threads that can only fail them. Only the containers
+ * this class stopped are started again; listeners of other queues are left alone.
+ */
+class EnrichmentListenerPauser {
+
+  private static final Logger log = LoggerFactory.getLogger(EnrichmentListenerPauser.class);
+
+  private final RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
+
+  private final String queueName;
+
+  // stopping a container waits for in-flight messages, so it must not run on the listener thread that tripped the
+  // breaker; a single thread also keeps stop and start in the order the breaker changed state
+  private final ExecutorService executor =
+    Executors.newSingleThreadExecutor(new CustomizableThreadFactory("enrichment-listener-pauser-"));
+
+  // only touched on the executor thread
+  private final List<MessageListenerContainer> stopped = new ArrayList<>();
+
+  private final AtomicInteger paused = new AtomicInteger();
+
+  EnrichmentListenerPauser(RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry, MeterRegistry meterRegistry,
+                           String queueName) {
+    this.rabbitListenerEndpointRegistry = rabbitListenerEndpointRegistry;
+    this.queueName = queueName;
+    meterRegistry.gauge("geolocation.enrichment.listeners.paused", Tags.empty(), paused);
+  }
+
+  void onStateTransition(CircuitBreaker.StateTransition stateTransition) {
+    switch (stateTransition.getToState()) {
+      case OPEN:
+      case FORCED_OPEN:
+        pause();
+        break;
+      case HALF_OPEN:
+      case CLOSED:
+        resume();
+        break;
+      default:
+        break;
+    }
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private void pause() {
+    if (paused.compareAndSet(0, 1)) {
+      log.warn("Geolocation provider is unavailable, pausing enrichment listeners");
+      executor.execute(this::stopEnrichmentContainers);
+    }
+  }
+
+  private void resume() {
+    if (paused.compareAndSet(1, 0)) {
+      log.info("Probing geolocation provider again, resuming enrichment listeners");
+      executor.execute(this::startStoppedContainers);
+    }
+  }
+
+  private void stopEnrichmentContainers() {
+    for (MessageListenerContainer container : enrichmentContainers()) {
+      if (container.isRunning()) {
+        container.stop();
+        stopped.add(container);
+      }
+    }
+  }
+
+  private void startStoppedContainers() {
+    for (MessageListenerContainer container : stopped) {
+      container.start();
+    }
+    stopped.clear();
+  }
+
+  private List<MessageListenerContainer> enrichmentContainers() {
+    List<MessageListenerContainer> containers = new ArrayList<>();
+    for (MessageListenerContainer container : rabbitListenerEndpointRegistry.getListenerContainers()) {
+      if (container instanceof AbstractMessageListenerContainer
+        && Arrays.asList(((AbstractMessageListenerContainer) container).getQueueNames()).contains(queueName)) {
+        containers.add(container);
+      }
+    }
+    return containers;
+  }
+}
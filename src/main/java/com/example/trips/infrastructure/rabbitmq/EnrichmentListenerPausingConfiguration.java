@@ -0,0 +1,26 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnExpression(
+  "${geolocation-resilience.enabled:false} and ${geolocation-resilience.pause-listeners-when-open:false}")
+class EnrichmentListenerPausingConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  public EnrichmentListenerPauser enrichmentListenerPauser(CircuitBreaker geolocationCircuitBreaker,
+                                                           RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry,
+                                                           MeterRegistry meterRegistry,
+                                                           RabbitProperties rabbitProperties) {
+    EnrichmentListenerPauser enrichmentListenerPauser = new EnrichmentListenerPauser(rabbitListenerEndpointRegistry,
+      meterRegistry, rabbitProperties.getEnrichmentQueueName());
+    geolocationCircuitBreaker.getEventPublisher()
+      .onStateTransition(event -> enrichmentListenerPauser.onStateTransition(event.getStateTransition()));
+    return enrichmentListenerPauser;
+  }
+}
@@ -0,0 +1,171 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.TripDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Moves failed enrichment messages to delay queues instead of retrying them on the listener thread. Every retry tier
+ * is a queue whose messages expire after the tier delay and are dead-lettered back to the enrichment queue; the
+ * {@value #ATTEMPT_HEADER} header counts the tiers a message went through. Messages deferred while the geolocation
+ * provider is unavailable wait in a separate deferral queue, which does not count as an attempt; the
+ * {@value #DEFERRAL_HEADER} header counts deferrals instead, and a message deferred {@code maxDeferrals} times goes
+ * through the retry tiers like any other failure, so a provider that never comes back ends in the dead-letter queue.
+ * A message is only moved once the broker confirmed the copy, so the caller may acknowledge the original right after.
+ */
+class EnrichmentRetryQueues {
+
+  static final String ATTEMPT_HEADER = "x-enrichment-attempt";
+
+  static final String DEFERRAL_HEADER = "x-enrichment-deferral";
+
+  private static final Logger log = LoggerFactory.getLogger(EnrichmentRetryQueues.class);
+
+  private final RabbitTemplate rabbitTemplate;
+
+  private final List<String> queueNames;
+
+  private final String deferralQueueName;
+
+  private final int maxDeferrals;
+
+  private final Duration confirmTimeout;
+
+  EnrichmentRetryQueues(RabbitTemplate rabbitTemplate, List<String> queueNames, String deferralQueueName,
+                        int maxDeferrals, Duration confirmTimeout) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.queueNames = List.copyOf(queueNames);
+    this.deferralQueueName = deferralQueueName;
+    this.maxDeferrals = maxDeferrals;
+    this.confirmTimeout = confirmTimeout;
+  }
+
+  static String queueName(String enrichmentQueueName, int tier) {
+    return enrichmentQueueName + ".retry-" + (tier + 1);
+  }
+
+  static String deferralQueueName(String enrichmentQueueName) {
+    return enrichmentQueueName + ".deferred";
+  }
+
+  /**
+   * @return false when the message went through every tier already and should be dead-lettered
+   * @throws ImmediateRequeueAmqpException when the broker did not confirm the moved message
+   */
+  boolean retryLater(Message message) {
+    MessageProperties messageProperties = message.getMessageProperties();
+    int attempt = countOf(messageProperties.getHeader(ATTEMPT_HEADER));
+    if (attempt >= queueNames.size()) {
+      return false;
+    }
+    send(copyOf(message), queueNames.get(attempt), attempt + 1, countOf(messageProperties.getHeader(DEFERRAL_HEADER)));
+    return true;
+  }
+
+  /**
+   * @param attempt   the {@value #ATTEMPT_HEADER} header of the failed message, if any
+   * @param deferrals the {@value #DEFERRAL_HEADER} header of the failed message, if any
+   * @return false when the message went through every tier already and should be dead-lettered
+   * @throws ImmediateRequeueAmqpException when the broker did not confirm the moved message
+   */
+  boolean retryLater(TripDto tripDto, Object attempt, Object deferrals) {
+    int currentAttempt = countOf(attempt);
+    if (currentAttempt >= queueNames.size()) {
+      return false;
+    }
+    send(toMessage(tripDto), queueNames.get(currentAttempt), currentAttempt + 1, countOf(deferrals));
+    return true;
+  }
+
+  /**
+   * Moves a message that did not fail itself, such as one left waiting by {@link EnrichmentDeduplicator} for a failed
+   * run, to the deferral queue when the failure is deferrable and to the first retry tier otherwise.
+   *
+   * @return false when there is no retry tier to move the message to
+   * @throws ImmediateRequeueAmqpException when the broker did not confirm the moved message
+   */
+  boolean retryOrDeferLater(TripDto tripDto, Throwable failure) {
+    if (DeferringMessageRecoverer.isDeferrable(failure) && deferLater(tripDto, null, null)) {
+      return true;
+    }
+    return retryLater(tripDto, null, null);
+  }
+
+  /**
+   * @return false when the message was deferred {@code maxDeferrals} times already and should be retried instead
+   * @throws ImmediateRequeueAmqpException when the broker did not confirm the moved message
+   */
+  boolean deferLater(Message message) {
+    MessageProperties messageProperties = message.getMessageProperties();
+    int deferrals = countOf(messageProperties.getHeader(DEFERRAL_HEADER));
+    if (deferrals >= maxDeferrals) {
+      return false;
+    }
+    send(copyOf(message), deferralQueueName, countOf(messageProperties.getHeader(ATTEMPT_HEADER)), deferrals + 1);
+    return true;
+  }
+
+  /**
+   * @param attempt   the {@value #ATTEMPT_HEADER} header of the deferred message, if any
+   * @param deferrals the {@value #DEFERRAL_HEADER} header of the deferred message, if any
+   * @return false when the message was deferred {@code maxDeferrals} times already and should be retried instead
+   * @throws ImmediateRequeueAmqpException when the broker did not confirm the moved message
+   */
+  boolean deferLater(TripDto tripDto, Object attempt, Object deferrals) {
+    int currentDeferrals = countOf(deferrals);
+    if (currentDeferrals >= maxDeferrals) {
+      return false;
+    }
+    send(toMessage(tripDto), deferralQueueName, countOf(attempt), currentDeferrals + 1);
+    return true;
+  }
+
+  private static Message copyOf(Message message) {
+    MessageProperties messageProperties = message.getMessageProperties();
+    MessageProperties copiedProperties = new MessageProperties();
+    copiedProperties.setContentType(messageProperties.getContentType());
+    copiedProperties.setContentEncoding(messageProperties.getContentEncoding());
+    copiedProperties.getHeaders().putAll(messageProperties.getHeaders());
+    return new Message(message.getBody(), copiedProperties);
+  }
+
+  private Message toMessage(TripDto tripDto) {
+    return rabbitTemplate.getMessageConverter().toMessage(tripDto, new MessageProperties());
+  }
+
+  private void send(Message message, String queueName, int attempt, int deferrals) {
+    message.getMessageProperties().setHeader(ATTEMPT_HEADER, attempt);
+    message.getMessageProperties().setHeader(DEFERRAL_HEADER, deferrals);
+    CorrelationData correlationData = new CorrelationData();
+    rabbitTemplate.send("", queueName, message, correlationData);
+    CorrelationData.Confirm confirm;
+    try {
+      confirm = correlationData.getFuture().get(confirmTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ImmediateRequeueAmqpException("Interrupted when moving message to " + queueName, e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new ImmediateRequeueAmqpException("Message was not confirmed by " + queueName, e);
+    }
+    if (!confirm.isAck()) {
+      throw new ImmediateRequeueAmqpException("Broker did not accept message to " + queueName + ": "
+        + confirm.getReason());
+    }
+    log.debug("Message will be retried from {}", queueName);
+  }
+
+  private static int countOf(Object header) {
+    return header instanceof Number ? ((Number) header).intValue() : 0;
+  }
+}
@@ -0,0 +1,35 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the blocking trip reads and writes of {@link AsyncRabbitConsumer}, so neither the listener threads nor the
+ * threads completing geolocation lookups wait for Mongo. Every message in flight has at most one task here, so a queue
+ * as large as the prefetch of all consumers never rejects one.
+ */
+class EnrichmentStoreExecutor implements Executor {
+
+  private final ThreadPoolExecutor executor;
+
+  EnrichmentStoreExecutor(int threads, int queueCapacity, MeterRegistry meterRegistry) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("enrichment-store-"));
+    meterRegistry.gaugeCollectionSize("enrichment.store.pending", Tags.empty(), executor.getQueue());
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(command);
+  }
+
+  void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -2,6 +2,7 @@ package com.example.trips.infrastructure.rabbitmq;
 
 import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
 import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
@@ -11,6 +12,8 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +21,10 @@ import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
 import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 class RabbitConfiguration implements RabbitListenerConfigurer {
 
@@ -41,9 +48,25 @@ class RabbitConfiguration implements RabbitListenerConfigurer {
       .durable(rabbitProperties.getDeadLetterEnrichmentQueueName())
       .build();
 
-    return new Declarables(enrichmentQueue, tripsEnrichmentExchange, deadLetterQueue,
+    List<Declarable> declarables = new ArrayList<>(List.of(enrichmentQueue, tripsEnrichmentExchange, deadLetterQueue,
       BindingBuilder.bind(enrichmentQueue).to(tripsEnrichmentExchange)
-    );
+    ));
+    List<Duration> retryDelays = rabbitProperties.getRetryDelays();
+    for (int tier = 0; tier < retryDelays.size(); tier++) {
+      declarables.add(QueueBuilder
+        .durable(EnrichmentRetryQueues.queueName(rabbitProperties.getEnrichmentQueueName(), tier))
+        .ttl(Math.toIntExact(retryDelays.get(tier).toMillis()))
+        .withArgument("x-dead-letter-exchange", "")
+        .withArgument("x-dead-letter-routing-key", rabbitProperties.getEnrichmentQueueName())
+        .build());
+    }
+    declarables.add(QueueBuilder
+      .durable(EnrichmentRetryQueues.deferralQueueName(rabbitProperties.getEnrichmentQueueName()))
+      .ttl(Math.toIntExact(rabbitProperties.getDeferDelay().toMillis()))
+      .withArgument("x-dead-letter-exchange", "")
+      .withArgument("x-dead-letter-routing-key", rabbitProperties.getEnrichmentQueueName())
+      .build());
+    return new Declarables(declarables);
   }
 
   @Override
@@ -75,4 +98,22 @@ class RabbitConfiguration implements RabbitListenerConfigurer {
   public Jackson2JsonMessageConverter producerJackson2MessageConverter() {
     return new Jackson2JsonMessageConverter();
   }
+
+  @Bean
+  public EnrichmentRetryQueues enrichmentRetryQueues(RabbitTemplate rabbitTemplate, RabbitProperties rabbitProperties,
+                                                     TripPublishingProperties tripPublishingProperties) {
+    List<String> queueNames = new ArrayList<>();
+    for (int tier = 0; tier < rabbitProperties.getRetryDelays().size(); tier++) {
+      queueNames.add(EnrichmentRetryQueues.queueName(rabbitProperties.getEnrichmentQueueName(), tier));
+    }
+    return new EnrichmentRetryQueues(rabbitTemplate, queueNames,
+      EnrichmentRetryQueues.deferralQueueName(rabbitProperties.getEnrichmentQueueName()),
+      rabbitProperties.getMaxDeferrals(), tripPublishingProperties.getConfirmTimeout());
+  }
+
+  @Bean
+  public MessageRecoverer messageRecoverer(EnrichmentRetryQueues enrichmentRetryQueues) {
+    return new DeferringMessageRecoverer(enrichmentRetryQueues,
+      new RetryQueueMessageRecoverer(enrichmentRetryQueues, new RejectAndDontRequeueRecoverer()));
+  }
 }
@@ -7,28 +7,91 @@ import com.example.trips.api.model.TripDto;
 import com.example.trips.api.repository.TripRepository;
 import com.example.trips.api.service.TripEnricher;
 import com.example.trips.api.service.TripService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+
 @Component
+@ConditionalOnExpression("!${enrichment-async-consumer.enabled:false} and !${enrichment-batch-consumer.enabled:false}")
 class RabbitConsumer {
 
+  private static final Logger log = LoggerFactory.getLogger(RabbitConsumer.class);
+
   private final TripService tripService;
 
   private final TripRepository tripRepository;
 
   private final TripEnricher tripEnricher;
 
-  RabbitConsumer(TripService tripService, TripRepository tripRepository, TripEnricher tripEnricher) {
+  private final EnrichmentDeduplicator enrichmentDeduplicator;
+
+  private final TripDtoMapper tripDtoMapper;
+
+  private final EnrichmentRetryQueues enrichmentRetryQueues;
+
+  RabbitConsumer(TripService tripService, TripRepository tripRepository, TripEnricher tripEnricher,
+                 EnrichmentDeduplicator enrichmentDeduplicator, TripDtoMapper tripDtoMapper,
+                 EnrichmentRetryQueues enrichmentRetryQueues) {
     this.tripService = tripService;
     this.tripRepository = tripRepository;
     this.tripEnricher = tripEnricher;
+    this.enrichmentDeduplicator = enrichmentDeduplicator;
+    this.tripDtoMapper = tripDtoMapper;
+    this.enrichmentRetryQueues = enrichmentRetryQueues;
   }
 
   @RabbitListener(queues = {TRIPS_ENRICHMENT_QUEUE})
   void consume(TripDto tripDto) {
-    Trip trip = tripService.findById(tripDto.getId());
-    Trip enrichedTrip = tripEnricher.enrich(trip);
-    tripRepository.save(enrichedTrip);
+    String tripId = tripDto.getId();
+    if (!enrichmentDeduplicator.tryAcquire(tripDto)) {
+      return;
+    }
+    TripDto current = tripDto;
+    try {
+      Optional<TripDto> next = Optional.of(tripDto);
+      while (next.isPresent()) {
+        current = next.get();
+        enrich(current);
+        next = enrichmentDeduplicator.releaseOrRerun(tripId);
+      }
+    } catch (RuntimeException e) {
+      TripDto latest = enrichmentDeduplicator.release(tripId).orElse(current);
+      // a newer message was acknowledged already, retrying the consumed one would not enrich the trip it is waiting for
+      if (latest == tripDto || !enrichmentRetryQueues.retryOrDeferLater(latest, e)) {
+        throw e;
+      }
+      log.warn("Enrichment of trip with id={} failed, retrying its latest message later: {}", tripId, e.getMessage());
+    }
+  }
+
+  private void enrich(TripDto tripDto) {
+    Optional<Trip> tripFromMessage = tripDtoMapper.tripDtoToTrip(tripDto);
+    if (tripFromMessage.isEmpty()) {
+      enrichStored(tripDto.getId());
+      return;
+    }
+    if (enrichmentDeduplicator.isOutdated(tripDto)) {
+      return;
+    }
+    updateGeolocation(tripEnricher.enrich(tripFromMessage.get()));
+  }
+
+  private void enrichStored(String tripId) {
+    Trip trip = tripService.findById(tripId);
+    if (enrichmentDeduplicator.isAlreadyEnriched(trip)) {
+      return;
+    }
+    updateGeolocation(tripEnricher.enrich(trip));
+  }
+
+  private void updateGeolocation(Trip enrichedTrip) {
+    if (!tripRepository.updateGeolocation(enrichedTrip)) {
+      log.info("Trip with id={} was changed or deleted before its enrichment was saved",
+        enrichedTrip.getId());
+    }
   }
 }
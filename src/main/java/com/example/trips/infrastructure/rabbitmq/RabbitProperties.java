@@ -3,6 +3,9 @@ package com.example.trips.infrastructure.rabbitmq;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 
+import java.time.Duration;
+import java.util.List;
+
 @ConfigurationProperties(prefix = "rabbit")
 @ConstructorBinding
 class RabbitProperties {
@@ -13,10 +16,20 @@ class RabbitProperties {
 
   private final String deadLetterEnrichmentQueueName;
 
-  RabbitProperties(String exchange, String enrichmentQueueName, String deadLetterEnrichmentQueueName) {
+  private final List<Duration> retryDelays;
+
+  private final Duration deferDelay;
+
+  private final int maxDeferrals;
+
+  RabbitProperties(String exchange, String enrichmentQueueName, String deadLetterEnrichmentQueueName,
+                   List<Duration> retryDelays, Duration deferDelay, int maxDeferrals) {
     this.exchange = exchange;
     this.enrichmentQueueName = enrichmentQueueName;
     this.deadLetterEnrichmentQueueName = deadLetterEnrichmentQueueName;
+    this.retryDelays = retryDelays;
+    this.deferDelay = deferDelay;
+    this.maxDeferrals = maxDeferrals;
   }
 
   String getExchange() {
@@ -30,4 +43,16 @@ class RabbitProperties {
   String getDeadLetterEnrichmentQueueName() {
     return deadLetterEnrichmentQueueName;
   }
+
+  List<Duration> getRetryDelays() {
+    return retryDelays;
+  }
+
+  Duration getDeferDelay() {
+    return deferDelay;
+  }
+
+  int getMaxDeferrals() {
+    return maxDeferrals;
+  }
 }
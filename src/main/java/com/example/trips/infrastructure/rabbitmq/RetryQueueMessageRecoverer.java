@@ -0,0 +1,27 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+/**
+ * Moves a failed message to the next tier of {@link EnrichmentRetryQueues}, after which the container acknowledges
+ * the original; a message that went through every tier is handed to the delegate recoverer.
+ */
+class RetryQueueMessageRecoverer implements MessageRecoverer {
+
+  private final EnrichmentRetryQueues enrichmentRetryQueues;
+
+  private final MessageRecoverer delegate;
+
+  RetryQueueMessageRecoverer(EnrichmentRetryQueues enrichmentRetryQueues, MessageRecoverer delegate) {
+    this.enrichmentRetryQueues = enrichmentRetryQueues;
+    this.delegate = delegate;
+  }
+
+  @Override
+  public void recover(Message message, Throwable cause) {
+    if (!enrichmentRetryQueues.retryLater(message)) {
+      delegate.recover(message, cause);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+class TripDtoMapper {
+
+  /**
+   * Builds the part of the trip that enrichment needs from the message, or nothing for a message carrying the id
+   * only.
+   */
+  Optional<Trip> tripDtoToTrip(TripDto tripDto) {
+    if (tripDto.getStartDestination() == null || tripDto.getFinalDestination() == null) {
+      return Optional.empty();
+    }
+    return Optional.of(Trip.builder()
+      .withId(tripDto.getId())
+      .withVersion(tripDto.getVersion())
+      .withStartDestination(coordinatesToGeolocationData(tripDto.getStartDestination()))
+      .withFinalDestination(coordinatesToGeolocationData(tripDto.getFinalDestination()))
+      .build());
+  }
+
+  private GeolocationData coordinatesToGeolocationData(GeolocationCoordinates geolocationCoordinates) {
+    GeolocationData geolocationData = new GeolocationData();
+    geolocationData.setLatitude(geolocationCoordinates.getLatitude());
+    geolocationData.setLongitude(geolocationCoordinates.getLongitude());
+    return geolocationData;
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripOutbox;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the trips left in the {@link TripOutbox}: those whose message was lost between saving and the publisher
+ * confirm, by a crash, a broker outage or a full publishing queue. Only trips pending for longer than the grace period
+ * are relayed, so trips still on their way through {@link TripPublisherImpl} are not published twice. Every interval
+ * the outbox is drained in batches, each published with {@link ConfirmingTripSender} and taken out of the outbox once
+ * confirmed, until a batch comes back short or not fully confirmed.
+ */
+class TripOutboxRelay {
+
+  private static final Logger log = LoggerFactory.getLogger(TripOutboxRelay.class);
+
+  private final TripOutbox tripOutbox;
+
+  private final ConfirmingTripSender confirmingTripSender;
+
+  private final Clock clock;
+
+  private final Duration gracePeriod;
+
+  private final int batchSize;
+
+  private final ScheduledExecutorService executor =
+    Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("trip-outbox-relay-"));
+
+  private final AtomicLong lagMillis = new AtomicLong();
+
+  private final DistributionSummary batchSizes;
+
+  private final Counter relayedMessages;
+
+  TripOutboxRelay(TripOutbox tripOutbox, ConfirmingTripSender confirmingTripSender, MeterRegistry meterRegistry,
+                  Clock clock, Duration gracePeriod, int batchSize) {
+    this.tripOutbox = tripOutbox;
+    this.confirmingTripSender = confirmingTripSender;
+    this.clock = clock;
+    this.gracePeriod = gracePeriod;
+    this.batchSize = batchSize;
+    this.batchSizes = DistributionSummary.builder("trip.outbox.relay.batch.size")
+      .description("Trips read from the outbox per relayed batch")
+      .register(meterRegistry);
+    this.relayedMessages = meterRegistry.counter("trip.outbox.relayed");
+    TimeGauge.builder("trip.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+      .description("Age of the oldest trip waiting in the outbox")
+      .register(meterRegistry);
+  }
+
+  void start(Duration interval) {
+    executor.scheduleWithFixedDelay(this::relay, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  void relay() {
+    try {
+      LocalDateTime now = LocalDateTime.now(clock);
+      lagMillis.set(tripOutbox.findOldestPendingSince()
+        .map(oldest -> Math.max(0, Duration.between(oldest, now).toMillis()))
+        .orElse(0L));
+      relayPendingBefore(now.minus(gracePeriod));
+    } catch (RuntimeException e) {
+      log.warn("Error when relaying trips from the outbox. Error message: {}", e.getMessage());
+    }
+  }
+
+  private void relayPendingBefore(LocalDateTime pendingBefore) {
+    List<TripDto> batch;
+    do {
+      batch = tripOutbox.findPendingSince(pendingBefore, batchSize);
+      if (batch.isEmpty()) {
+        return;
+      }
+      batchSizes.record(batch.size());
+      List<TripDto> confirmed = confirmingTripSender.send(batch);
+      tripOutbox.markPublished(confirmed);
+      relayedMessages.increment(confirmed.size());
+      if (confirmed.size() < batch.size()) {
+        // the broker is in trouble, the rest waits for the next run
+        return;
+      }
+    } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+  }
+}
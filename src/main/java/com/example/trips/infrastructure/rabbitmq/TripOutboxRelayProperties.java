@@ -0,0 +1,35 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "trip-outbox-relay")
+@ConstructorBinding
+class TripOutboxRelayProperties {
+
+  private final Duration interval;
+
+  private final Duration gracePeriod;
+
+  private final int batchSize;
+
+  TripOutboxRelayProperties(Duration interval, Duration gracePeriod, int batchSize) {
+    this.interval = interval;
+    this.gracePeriod = gracePeriod;
+    this.batchSize = batchSize;
+  }
+
+  Duration getInterval() {
+    return interval;
+  }
+
+  Duration getGracePeriod() {
+    return gracePeriod;
+  }
+
+  int getBatchSize() {
+    return batchSize;
+  }
+}
@@ -1,34 +1,153 @@
 package com.example.trips.infrastructure.rabbitmq;
 
-import com.example.trips.api.exception.InternalServerErrorException;
+import com.example.trips.api.exception.ServiceUnavailableException;
 import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripOutbox;
 import com.example.trips.api.service.TripPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.stereotype.Component;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
-@Component
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes trips from a bounded queue on a single thread, a batch of queued messages at a time with
+ * {@link ConfirmingTripSender}. Trips whose message the broker confirmed are taken out of the {@link TripOutbox};
+ * a message that is lost here (nacked, unconfirmed, dropped or never queued) is published later by
+ * {@link TripOutboxRelay}.
+ * <p>
+ * When the queue is full the {@link TripPublishingProperties.OverflowPolicy overflow policy} decides, so a broker
+ * outage cannot grow the heap.
+ */
 class TripPublisherImpl implements TripPublisher {
 
   private static final Logger log = LoggerFactory.getLogger(TripPublisherImpl.class);
 
-  private final RabbitTemplate rabbitTemplate;
+  private static final long POLL_TIMEOUT_MILLIS = 100;
+
+  private final ConfirmingTripSender confirmingTripSender;
+
+  private final TripOutbox tripOutbox;
+
+  private final BlockingQueue<TripDto> pendingMessages;
+
+  private final TripPublishingProperties.OverflowPolicy overflowPolicy;
+
+  private final int batchSize;
+
+  private final long shutdownTimeoutNanos;
+
+  private final ExecutorService executor =
+    Executors.newSingleThreadExecutor(new CustomizableThreadFactory("trip-publisher-"));
+
+  private final Counter overflows;
+
+  private volatile boolean running = true;
+
+  TripPublisherImpl(ConfirmingTripSender confirmingTripSender, TripOutbox tripOutbox, MeterRegistry meterRegistry,
+                    int queueCapacity, TripPublishingProperties.OverflowPolicy overflowPolicy, int batchSize,
+                    Duration shutdownTimeout) {
+    this.confirmingTripSender = confirmingTripSender;
+    this.tripOutbox = tripOutbox;
+    this.pendingMessages = new ArrayBlockingQueue<>(queueCapacity);
+    this.overflowPolicy = overflowPolicy;
+    this.batchSize = batchSize;
+    this.shutdownTimeoutNanos = shutdownTimeout.toNanos();
+    this.overflows = meterRegistry.counter("trip.publishing.overflows",
+      "policy", overflowPolicy.name().toLowerCase(Locale.ROOT));
+    meterRegistry.gaugeCollectionSize("trip.publishing.queue.depth", Tags.empty(), pendingMessages);
+  }
+
+  void start() {
+    executor.execute(this::publishQueued);
+  }
+
+  void shutdown() {
+    running = false;
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(shutdownTimeoutNanos, TimeUnit.NANOSECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    if (!pendingMessages.isEmpty()) {
+      log.warn("Trip publisher stopped with {} messages left to the outbox relay", pendingMessages.size());
+    }
+  }
 
-  TripPublisherImpl(RabbitTemplate rabbitTemplate) {
-    this.rabbitTemplate = rabbitTemplate;
+  /**
+   * Rejects the trip before it is saved under the {@code reject} policy; a 503 after the save would make the client
+   * retry and create the trip twice.
+   */
+  @Override
+  public void checkCapacity() {
+    if (overflowPolicy == TripPublishingProperties.OverflowPolicy.REJECT && pendingMessages.remainingCapacity() == 0) {
+      overflows.increment();
+      throw new ServiceUnavailableException("Trip publishing queue is full, try again later");
+    }
   }
 
-  @Async
+  /**
+   * Under the {@code reject} policy a queue filled up since {@link #checkCapacity()} publishes on the calling thread,
+   * since the trip is saved by then.
+   */
   @Override
   public void publish(TripDto tripDto) {
+    if (pendingMessages.offer(tripDto)) {
+      return;
+    }
+    overflows.increment();
+    if (overflowPolicy == TripPublishingProperties.OverflowPolicy.DROP) {
+      log.warn("Trip publishing queue is full, leaving trip with id={} to the outbox relay", tripDto.getId());
+      return;
+    }
+    publishBatch(List.of(tripDto));
+  }
+
+  private void publishQueued() {
+    List<TripDto> batch = new ArrayList<>(batchSize);
+    while (running || !pendingMessages.isEmpty()) {
+      try {
+        TripDto first = pendingMessages.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        pendingMessages.drainTo(batch, batchSize - 1);
+        publishBatch(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.error("Error when publishing a batch of {} trips", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void publishBatch(List<TripDto> batch) {
+    List<TripDto> confirmed = confirmingTripSender.send(batch);
     try {
-      rabbitTemplate.convertAndSend(tripDto);
-    } catch (AmqpException e) {
-      log.error("Error when publishing trip with id={}. Error message: {}", tripDto.getId(), e.getMessage());
-      throw new InternalServerErrorException(String.format("Error when publishing trip with id=%s", tripDto.getId()));
+      tripOutbox.markPublished(confirmed);
+    } catch (DataAccessException e) {
+      log.warn("Error when marking {} trips as published, they will be published again. Error message: {}",
+        confirmed.size(), e.getMessage());
     }
   }
 }
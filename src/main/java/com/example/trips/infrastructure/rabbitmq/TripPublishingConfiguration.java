@@ -0,0 +1,42 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.repository.TripOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+class TripPublishingConfiguration {
+
+  @Bean
+  public ConfirmingTripSender confirmingTripSender(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+                                                   TripPublishingProperties tripPublishingProperties) {
+    return new ConfirmingTripSender(rabbitTemplate, meterRegistry, tripPublishingProperties.getConfirmTimeout());
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public TripPublisherImpl tripPublisher(ConfirmingTripSender confirmingTripSender, TripOutbox tripOutbox,
+                                         MeterRegistry meterRegistry,
+                                         TripPublishingProperties tripPublishingProperties) {
+    TripPublisherImpl tripPublisher = new TripPublisherImpl(confirmingTripSender, tripOutbox, meterRegistry,
+      tripPublishingProperties.getQueueCapacity(), tripPublishingProperties.getOverflowPolicy(),
+      tripPublishingProperties.getBatchSize(), tripPublishingProperties.getConfirmTimeout());
+    tripPublisher.start();
+    return tripPublisher;
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  @ConditionalOnProperty(prefix = "trip-outbox-relay", name = "enabled", havingValue = "true")
+  public TripOutboxRelay tripOutboxRelay(TripOutbox tripOutbox, ConfirmingTripSender confirmingTripSender,
+                                         MeterRegistry meterRegistry,
+                                         TripOutboxRelayProperties tripOutboxRelayProperties) {
+    TripOutboxRelay tripOutboxRelay = new TripOutboxRelay(tripOutbox, confirmingTripSender, meterRegistry,
+      Clock.systemDefaultZone(), tripOutboxRelayProperties.getGracePeriod(), tripOutboxRelayProperties.getBatchSize());
+    tripOutboxRelay.start(tripOutboxRelayProperties.getInterval());
+    return tripOutboxRelay;
+  }
+}
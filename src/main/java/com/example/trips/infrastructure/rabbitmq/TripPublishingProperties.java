@@ -0,0 +1,60 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "trip-publishing")
+@ConstructorBinding
+class TripPublishingProperties {
+
+  private final int queueCapacity;
+
+  private final OverflowPolicy overflowPolicy;
+
+  private final int batchSize;
+
+  private final Duration confirmTimeout;
+
+  TripPublishingProperties(int queueCapacity, OverflowPolicy overflowPolicy, int batchSize, Duration confirmTimeout) {
+    this.queueCapacity = queueCapacity;
+    this.overflowPolicy = overflowPolicy;
+    this.batchSize = batchSize;
+    this.confirmTimeout = confirmTimeout;
+  }
+
+  int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  int getBatchSize() {
+    return batchSize;
+  }
+
+  Duration getConfirmTimeout() {
+    return confirmTimeout;
+  }
+
+  /**
+   * What happens to a message published while the queue is full.
+   */
+  enum OverflowPolicy {
+    /**
+     * The request fails with 503 before the trip is saved, so the client backs off and retries.
+     */
+    REJECT,
+    /**
+     * The calling thread publishes the message itself and waits for its confirm, slowing the caller down.
+     */
+    CALLER_RUNS,
+    /**
+     * The message is dropped; the trip is relayed from the outbox after the grace period.
+     */
+    DROP
+  }
+}
@@ -0,0 +1,99 @@
+package com.example.trips.infrastructure.resilience;
+
+import com.example.trips.api.exception.GeolocationProviderThrottledException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.infrastructure.geolocation.GeolocationInfoRetrieverDecorator;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+@Configuration
+@ConditionalOnProperty(prefix = "geolocation-resilience", name = "enabled", havingValue = "true")
+class GeolocationResilienceConfiguration {
+
+  private static final String GEOLOCATION_PROVIDER = "geolocationProvider";
+
+  private final GeolocationResilienceProperties geolocationResilienceProperties;
+
+  GeolocationResilienceConfiguration(GeolocationResilienceProperties geolocationResilienceProperties) {
+    this.geolocationResilienceProperties = geolocationResilienceProperties;
+  }
+
+  @Bean
+  public CircuitBreakerRegistry geolocationCircuitBreakerRegistry() {
+    return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+      .failureRateThreshold(geolocationResilienceProperties.getFailureRateThreshold())
+      .slowCallRateThreshold(geolocationResilienceProperties.getSlowCallRateThreshold())
+      .slowCallDurationThreshold(geolocationResilienceProperties.getSlowCallDurationThreshold())
+      .slidingWindowSize(geolocationResilienceProperties.getSlidingWindowSize())
+      .minimumNumberOfCalls(geolocationResilienceProperties.getMinimumNumberOfCalls())
+      .waitDurationInOpenState(geolocationResilienceProperties.getWaitDurationInOpenState())
+      .permittedNumberOfCallsInHalfOpenState(geolocationResilienceProperties.getPermittedCallsInHalfOpenState())
+      // listeners are paused while the breaker is open, so no call would ever move it to half-open
+      .automaticTransitionFromOpenToHalfOpenEnabled(true)
+      // a throttled call is slowed down by the rate limiter; the provider itself answered
+      .ignoreExceptions(NotFoundException.class, GeolocationProviderThrottledException.class)
+      .build());
+  }
+
+  @Bean
+  public BulkheadRegistry geolocationBulkheadRegistry() {
+    return BulkheadRegistry.of(BulkheadConfig.custom()
+      .maxConcurrentCalls(geolocationResilienceProperties.getMaxConcurrentCalls())
+      .maxWaitDuration(geolocationResilienceProperties.getMaxWaitDuration())
+      .build());
+  }
+
+  @Bean
+  public CircuitBreaker geolocationCircuitBreaker(CircuitBreakerRegistry geolocationCircuitBreakerRegistry) {
+    return geolocationCircuitBreakerRegistry.circuitBreaker(GEOLOCATION_PROVIDER);
+  }
+
+  @Bean
+  public Bulkhead geolocationBulkhead(BulkheadRegistry geolocationBulkheadRegistry) {
+    return geolocationBulkheadRegistry.bulkhead(GEOLOCATION_PROVIDER);
+  }
+
+  @Bean
+  public MeterBinder geolocationCircuitBreakerMetrics(CircuitBreakerRegistry geolocationCircuitBreakerRegistry) {
+    return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(geolocationCircuitBreakerRegistry);
+  }
+
+  @Bean
+  public MeterBinder geolocationBulkheadMetrics(BulkheadRegistry geolocationBulkheadRegistry) {
+    return TaggedBulkheadMetrics.ofBulkheadRegistry(geolocationBulkheadRegistry);
+  }
+
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.PROVIDER_RESILIENCE_ORDER)
+  @ConditionalOnProperty(prefix = "geolocation-async", name = "enabled", havingValue = "false", matchIfMissing = true)
+  public GeolocationInfoRetrieverDecorator resilientGeolocationInfoRetrieverDecorator(
+    CircuitBreaker geolocationCircuitBreaker, Bulkhead geolocationBulkhead, MeterRegistry meterRegistry) {
+    return delegate -> new ResilientGeolocationInfoRetriever(delegate, geolocationCircuitBreaker,
+      geolocationBulkhead, true, meterRegistry);
+  }
+
+  /**
+   * The asynchronous tier queues its calls behind its own in-flight limit, so asynchronous calls are bounded there and
+   * only synchronous calls take bulkhead permits; holding a permit while queued would starve synchronous callers.
+   */
+  @Bean
+  @Order(GeolocationInfoRetrieverDecorator.PROVIDER_RESILIENCE_ORDER)
+  @ConditionalOnProperty(prefix = "geolocation-async", name = "enabled", havingValue = "true")
+  public GeolocationInfoRetrieverDecorator asyncResilientGeolocationInfoRetrieverDecorator(
+    CircuitBreaker geolocationCircuitBreaker, Bulkhead geolocationBulkhead, MeterRegistry meterRegistry) {
+    return delegate -> new ResilientGeolocationInfoRetriever(delegate, geolocationCircuitBreaker,
+      geolocationBulkhead, false, meterRegistry);
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.trips.infrastructure.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "geolocation-resilience")
+@ConstructorBinding
+class GeolocationResilienceProperties {
+
+  private final float failureRateThreshold;
+
+  private final float slowCallRateThreshold;
+
+  private final Duration slowCallDurationThreshold;
+
+  private final int slidingWindowSize;
+
+  private final int minimumNumberOfCalls;
+
+  private final Duration waitDurationInOpenState;
+
+  private final int permittedCallsInHalfOpenState;
+
+  private final int maxConcurrentCalls;
+
+  private final Duration maxWaitDuration;
+
+  GeolocationResilienceProperties(float failureRateThreshold, float slowCallRateThreshold,
+                                  Duration slowCallDurationThreshold, int slidingWindowSize, int minimumNumberOfCalls,
+                                  Duration waitDurationInOpenState, int permittedCallsInHalfOpenState,
+                                  int maxConcurrentCalls, Duration maxWaitDuration) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.slowCallDurationThreshold = slowCallDurationThreshold;
+    this.slidingWindowSize = slidingWindowSize;
+    this.minimumNumberOfCalls = minimumNumberOfCalls;
+    this.waitDurationInOpenState = waitDurationInOpenState;
+    this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.maxWaitDuration = maxWaitDuration;
+  }
+
+  float getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  float getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  Duration getSlowCallDurationThreshold() {
+    return slowCallDurationThreshold;
+  }
+
+  int getSlidingWindowSize() {
+    return slidingWindowSize;
+  }
+
+  int getMinimumNumberOfCalls() {
+    return minimumNumberOfCalls;
+  }
+
+  Duration getWaitDurationInOpenState() {
+    return waitDurationInOpenState;
+  }
+
+  int getPermittedCallsInHalfOpenState() {
+    return permittedCallsInHalfOpenState;
+  }
+
+  int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  Duration getMaxWaitDuration() {
+    return maxWaitDuration;
+  }
+}
@@ -0,0 +1,172 @@
+package com.example.trips.infrastructure.resilience;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+class ResilientGeolocationInfoRetriever implements GeolocationInfoRetriever {
+
+  private static final String REJECTIONS_METRIC = "geolocation.provider.rejections";
+
+  private final GeolocationInfoRetriever delegate;
+
+  private final CircuitBreaker circuitBreaker;
+
+  private final Bulkhead bulkhead;
+
+  private final boolean bulkheadAsyncCalls;
+
+  private final Counter circuitOpenRejections;
+
+  private final Counter bulkheadFullRejections;
+
+  ResilientGeolocationInfoRetriever(GeolocationInfoRetriever delegate, CircuitBreaker circuitBreaker,
+                                    Bulkhead bulkhead, boolean bulkheadAsyncCalls, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+    this.bulkheadAsyncCalls = bulkheadAsyncCalls;
+    this.circuitOpenRejections = meterRegistry.counter(REJECTIONS_METRIC, "reason", "circuit-open");
+    this.bulkheadFullRejections = meterRegistry.counter(REJECTIONS_METRIC, "reason", "bulkhead-full");
+  }
+
+  @Override
+  public GeolocationInfo retrieve(GeolocationCoordinates geolocationCoordinates) {
+    return execute(() -> delegate.retrieve(geolocationCoordinates), geolocationInfo -> null);
+  }
+
+  /**
+   * Holds the bulkhead permit and times the circuit breaker call until the returned future completes, not until
+   * this method returns. Without {@code bulkheadAsyncCalls} the call takes no bulkhead permit, because the tier
+   * below bounds asynchronous calls itself.
+   */
+  @Override
+  public CompletableFuture<GeolocationInfo> retrieveAsync(GeolocationCoordinates geolocationCoordinates) {
+    try {
+      if (bulkheadAsyncCalls) {
+        acquirePermissions();
+      } else {
+        acquireCircuitBreakerPermission();
+      }
+    } catch (GeolocationProviderUnavailableException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    long start = System.nanoTime();
+    CompletableFuture<GeolocationInfo> call;
+    try {
+      call = delegate.retrieveAsync(geolocationCoordinates);
+    } catch (RuntimeException | Error e) {
+      circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+      releaseAsyncBulkheadPermission();
+      throw e;
+    }
+    return call.whenComplete((geolocationInfo, failure) -> {
+      try {
+        if (failure == null) {
+          circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+          circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS,
+            GeolocationInfoRetriever.unwrapAsyncFailure(failure));
+        }
+      } finally {
+        releaseAsyncBulkheadPermission();
+      }
+    });
+  }
+
+  @Override
+  public Map<GeolocationCoordinates, GeolocationInfoResult> retrieveAll(
+    Collection<GeolocationCoordinates> geolocationCoordinates) {
+    try {
+      return execute(() -> delegate.retrieveAll(geolocationCoordinates), this::providerFailure);
+    } catch (GeolocationProviderUnavailableException e) {
+      Map<GeolocationCoordinates, GeolocationInfoResult> results = new HashMap<>();
+      for (GeolocationCoordinates coordinates : geolocationCoordinates) {
+        results.put(coordinates, GeolocationInfoResult.failure(e));
+      }
+      return results;
+    }
+  }
+
+  private <T> T execute(Supplier<T> call, Function<T, Throwable> failureOf) {
+    acquirePermissions();
+    try {
+      long start = System.nanoTime();
+      T result;
+      try {
+        result = call.get();
+      } catch (RuntimeException | Error e) {
+        circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+        throw e;
+      }
+      Throwable failure = failureOf.apply(result);
+      if (failure != null) {
+        circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, failure);
+      } else {
+        circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+      return result;
+    } finally {
+      bulkhead.onComplete();
+    }
+  }
+
+  /**
+   * Releases the bulkhead permit again when the circuit breaker rejects the call.
+   */
+  private void acquirePermissions() {
+    if (!bulkhead.tryAcquirePermission()) {
+      bulkheadFullRejections.increment();
+      throw new GeolocationProviderUnavailableException("Too many concurrent calls to geolocation provider");
+    }
+    try {
+      acquireCircuitBreakerPermission();
+    } catch (GeolocationProviderUnavailableException e) {
+      bulkhead.onComplete();
+      throw e;
+    }
+  }
+
+  private void acquireCircuitBreakerPermission() {
+    if (!circuitBreaker.tryAcquirePermission()) {
+      circuitOpenRejections.increment();
+      throw new GeolocationProviderUnavailableException(String.format(
+        "Geolocation provider circuit breaker is %s", circuitBreaker.getState()));
+    }
+  }
+
+  private void releaseAsyncBulkheadPermission() {
+    if (bulkheadAsyncCalls) {
+      bulkhead.onComplete();
+    }
+  }
+
+  /**
+   * A batch counts as a provider failure only when no coordinate in it got an answer from the provider.
+   */
+  private Throwable providerFailure(Map<GeolocationCoordinates, GeolocationInfoResult> results) {
+    Throwable failure = null;
+    for (GeolocationInfoResult result : results.values()) {
+      if (result.isSuccess() || result.getError() instanceof NotFoundException) {
+        return null;
+      }
+      failure = result.getError();
+    }
+    return failure;
+  }
+}
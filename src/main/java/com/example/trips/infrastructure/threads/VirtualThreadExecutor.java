@@ -0,0 +1,62 @@
+package com.example.trips.infrastructure.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Starts a new virtual thread per task. The sources still target Java 11, so the Java 21 API is looked up
+ * reflectively; on an older runtime the executor cannot be created and startup fails instead of silently falling
+ * back to platform threads.
+ */
+class VirtualThreadExecutor {
+
+  private final ExecutorService executorService;
+
+  VirtualThreadExecutor(String threadNamePrefix) {
+    this.executorService = threadPerTaskExecutor(virtualThreadFactory(threadNamePrefix));
+  }
+
+  ExecutorService executor() {
+    return executorService;
+  }
+
+  void shutdown() {
+    executorService.shutdown();
+  }
+
+  static boolean isSupported() {
+    try {
+      virtualThreadFactory("probe-");
+      return true;
+    } catch (IllegalStateException e) {
+      return false;
+    }
+  }
+
+  private static ExecutorService threadPerTaskExecutor(ThreadFactory threadFactory) {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+        .invoke(null, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(String.format(
+        "Could not create a virtual thread executor on Java %s", Runtime.version()), e);
+    }
+  }
+
+  private static ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      throw new IllegalStateException(String.format(
+        "Virtual threads need Java 21 or newer, running on Java %s", Runtime.version()), e);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new IllegalStateException(String.format(
+        "Could not create virtual threads on Java %s", Runtime.version()), e);
+    }
+  }
+}
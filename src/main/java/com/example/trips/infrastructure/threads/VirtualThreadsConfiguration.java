@@ -0,0 +1,45 @@
+package com.example.trips.infrastructure.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs Tomcat request handling and the consumers of the default listener container factory on virtual threads, one per
+ * task. Needs a Java 21 runtime.
+ * <p>
+ * The pools sized for blocking calls further down (parallel lookups, async geolocation client, store writes) keep
+ * their platform threads: their size is what bounds the load on the provider and on Mongo. So does the single trip
+ * publishing thread, which only waits for batches of confirms. There is no {@code @Async} publisher pool to move to
+ * virtual threads any more: the publishing queue replaced it.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "virtual-threads", name = "enabled", havingValue = "true")
+class VirtualThreadsConfiguration {
+
+  @Bean(destroyMethod = "shutdown")
+  public VirtualThreadExecutor requestVirtualThreadExecutor() {
+    return new VirtualThreadExecutor("http-virtual-");
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public VirtualThreadExecutor listenerVirtualThreadExecutor() {
+    return new VirtualThreadExecutor("listener-virtual-");
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+    VirtualThreadExecutor requestVirtualThreadExecutor) {
+    return protocolHandler -> protocolHandler.setExecutor(requestVirtualThreadExecutor.executor());
+  }
+
+  @Bean
+  public ContainerCustomizer<SimpleMessageListenerContainer> virtualThreadsListenerContainerCustomizer(
+    VirtualThreadExecutor listenerVirtualThreadExecutor) {
+    return container -> container.setTaskExecutor(listenerVirtualThreadExecutor.executor());
+  }
+}
@@ -2,8 +2,11 @@ package com.example.trips;
 
 import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.exception.NotFoundException;
 import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
 import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripEnrichmentResult;
 import com.example.trips.api.repository.TripRepository;
 import com.example.trips.api.service.GeolocationInfoRetriever;
 import org.junit.jupiter.api.Test;
@@ -13,8 +16,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +40,10 @@ class TripLocationEnricherUnitTest {
 
   private static final double FINAL_LOCATION_LONGITUDE = 33.333333;
 
+  private static final double UNKNOWN_LOCATION_LATITUDE = 6.411443;
+
+  private static final double UNKNOWN_LOCATION_LONGITUDE = 64.293438;
+
   private static final LocalDateTime CREATION_TIME = LocalDateTime.of(2022, 1, 1, 0, 1, 1);
 
   private static final LocalDateTime START_TIME = LocalDateTime.of(2022, 1, 1, 1, 1, 1);
@@ -57,10 +71,13 @@ class TripLocationEnricherUnitTest {
   void shouldReturnEnrichedTrip() {
     //given
     Trip trip = buildTrip();
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
     GeolocationInfo startGeolocationInfo = buildGeolocationInfo(START_LOCATION_COUNTRY, START_LOCATION_LOCALITY);
-    when(geolocationInfoRetriever.retrieve(new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE))).thenReturn(startGeolocationInfo);
     GeolocationInfo finalGeolocationInfo = buildGeolocationInfo(FINAL_LOCATION_COUNTRY, FINAL_LOCATION_LOCALITY);
-    when(geolocationInfoRetriever.retrieve(new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE))).thenReturn(finalGeolocationInfo);
+    when(geolocationInfoRetriever.retrieveAll(Set.of(startCoordinates, finalCoordinates))).thenReturn(Map.of(
+      startCoordinates, GeolocationInfoResult.success(startGeolocationInfo),
+      finalCoordinates, GeolocationInfoResult.success(finalGeolocationInfo)));
 
     //when
     var enrichedTrip = tripLocationEnricher.enrich(trip);
@@ -98,6 +115,76 @@ class TripLocationEnricherUnitTest {
       );
   }
 
+  @Test
+  void shouldResolveAllTripsInOneLookup_AndReportFailuresPerTrip() {
+    //given
+    Trip trip = buildTrip();
+    Trip unknownTrip = Trip.builderFromExisting(buildTrip())
+      .withId("unknown")
+      .withFinalDestination(buildGeolocationData(UNKNOWN_LOCATION_LATITUDE, UNKNOWN_LOCATION_LONGITUDE))
+      .build();
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    GeolocationCoordinates unknownCoordinates = new GeolocationCoordinates(UNKNOWN_LOCATION_LATITUDE, UNKNOWN_LOCATION_LONGITUDE);
+    NotFoundException notFoundException = new NotFoundException("Geolocation info not found");
+    when(geolocationInfoRetriever.retrieveAll(Set.of(startCoordinates, finalCoordinates, unknownCoordinates))).thenReturn(Map.of(
+      startCoordinates, GeolocationInfoResult.success(buildGeolocationInfo(START_LOCATION_COUNTRY, START_LOCATION_LOCALITY)),
+      finalCoordinates, GeolocationInfoResult.success(buildGeolocationInfo(FINAL_LOCATION_COUNTRY, FINAL_LOCATION_LOCALITY)),
+      unknownCoordinates, GeolocationInfoResult.failure(notFoundException)));
+
+    //when
+    List<TripEnrichmentResult> results = tripLocationEnricher.enrichAll(List.of(trip, unknownTrip));
+
+    //then
+    verify(geolocationInfoRetriever, times(1)).retrieveAll(Set.of(startCoordinates, finalCoordinates, unknownCoordinates));
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).isSuccess()).isTrue();
+    assertThat(results.get(0).getTrip().getFinalDestination().getLocality()).isEqualTo(FINAL_LOCATION_LOCALITY);
+    assertThat(results.get(1))
+      .extracting(result -> result.getTrip().getId(), TripEnrichmentResult::getError)
+      .containsExactly("unknown", notFoundException);
+  }
+
+  @Test
+  void shouldEnrichTripAsynchronously_OnceBothLookupsComplete() throws Exception {
+    //given
+    Trip trip = buildTrip();
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    CompletableFuture<GeolocationInfo> finalLookup = new CompletableFuture<>();
+    when(geolocationInfoRetriever.retrieveAsync(startCoordinates)).thenReturn(CompletableFuture.completedFuture(
+      buildGeolocationInfo(START_LOCATION_COUNTRY, START_LOCATION_LOCALITY)));
+    when(geolocationInfoRetriever.retrieveAsync(finalCoordinates)).thenReturn(finalLookup);
+
+    //when
+    CompletableFuture<Trip> enrichedTrip = tripLocationEnricher.enrichAsync(trip);
+    boolean completedBeforeFinalLookup = enrichedTrip.isDone();
+    finalLookup.complete(buildGeolocationInfo(FINAL_LOCATION_COUNTRY, FINAL_LOCATION_LOCALITY));
+
+    //then
+    assertThat(completedBeforeFinalLookup).isFalse();
+    assertThat(enrichedTrip.get().getStartDestination().getLocality()).isEqualTo(START_LOCATION_LOCALITY);
+    assertThat(enrichedTrip.get().getFinalDestination().getLocality()).isEqualTo(FINAL_LOCATION_LOCALITY);
+  }
+
+  @Test
+  void shouldFailAsyncEnrichment_WhenAnyLookupFails() {
+    //given
+    Trip trip = buildTrip();
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    NotFoundException notFoundException = new NotFoundException("Geolocation info not found");
+    when(geolocationInfoRetriever.retrieveAsync(startCoordinates)).thenReturn(CompletableFuture.completedFuture(
+      buildGeolocationInfo(START_LOCATION_COUNTRY, START_LOCATION_LOCALITY)));
+    when(geolocationInfoRetriever.retrieveAsync(finalCoordinates)).thenReturn(CompletableFuture.failedFuture(notFoundException));
+
+    //when
+    CompletableFuture<Trip> enrichedTrip = tripLocationEnricher.enrichAsync(trip);
+
+    //then
+    assertThatThrownBy(enrichedTrip::join).hasCause(notFoundException);
+  }
+
   private GeolocationInfo buildGeolocationInfo(String startLocationCountry, String startLocationLocality) {
     GeolocationInfo startGeolocationInfo = new GeolocationInfo();
     startGeolocationInfo.setCountry(startLocationCountry);
@@ -114,6 +201,7 @@ class TripLocationEnricherUnitTest {
       .withStartTime(START_TIME)
       .withEndTime(END_TIME)
       .withDateCreated(CREATION_TIME)
+      .withVersion(0L)
       .build();
   }
 
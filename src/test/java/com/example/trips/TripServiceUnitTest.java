@@ -1,6 +1,7 @@
 package com.example.trips;
 
 import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.exception.ServiceUnavailableException;
 import com.example.trips.api.exception.ValidationException;
 import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationData;
@@ -27,6 +28,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -189,6 +191,20 @@ class TripServiceUnitTest {
     verify(tripRepository).save(any(Trip.class));
   }
 
+  @Test
+  void shouldNotSaveTrip_WhenPublisherHasNoCapacity() {
+    //given
+    final TripCreateDto tripCreateDto = buildTripCreateDto(OWNER_EMAIL, START_TIME, END_TIME);
+    doThrow(new ServiceUnavailableException("Trip publishing queue is full")).when(tripPublisher).checkCapacity();
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> tripService.create(tripCreateDto);
+
+    //then
+    assertThatThrownBy(executable).isInstanceOf(ServiceUnavailableException.class);
+    verifyNoInteractions(tripRepository);
+  }
+
   @Test
   void shouldThrowValidationException_AndNotUpdateTrip_WhenTripId_IsNull() {
     //when
@@ -0,0 +1,172 @@
+package com.example.trips.infrastructure.cache;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingGeolocationInfoRetrieverUnitTest {
+
+  private static final int COORDINATES_SCALE = 4;
+
+  private static final double LATITUDE = 55.755793;
+
+  private static final double LONGITUDE = 37.617134;
+
+  private static final double NEARBY_LATITUDE = 55.755812;
+
+  private static final double NEARBY_LONGITUDE = 37.617149;
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private Cache<GeolocationCoordinates, GeolocationInfo> cache;
+
+  private Cache<GeolocationCoordinates, Boolean> notFoundCache;
+
+  private CachingGeolocationInfoRetriever cachingGeolocationInfoRetriever;
+
+  @BeforeEach
+  void setUp() {
+    cache = Caffeine.newBuilder().maximumSize(10).build();
+    notFoundCache = Caffeine.newBuilder().maximumSize(10).build();
+    cachingGeolocationInfoRetriever = new CachingGeolocationInfoRetriever(delegate, cache, notFoundCache,
+      COORDINATES_SCALE);
+  }
+
+  @Test
+  void shouldCallDelegateOnce_WhenSameCoordinatesRetrievedTwice() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationInfo geolocationInfo = buildGeolocationInfo();
+    when(delegate.retrieve(geolocationCoordinates)).thenReturn(geolocationInfo);
+
+    //when
+    GeolocationInfo first = cachingGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+    GeolocationInfo second = cachingGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    assertThat(first).isEqualTo(geolocationInfo);
+    assertThat(second).isEqualTo(geolocationInfo);
+    verify(delegate, times(1)).retrieve(any());
+  }
+
+  @Test
+  void shouldServeFromCache_WhenCoordinatesRoundToSameKey() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationCoordinates nearbyCoordinates = new GeolocationCoordinates(NEARBY_LATITUDE, NEARBY_LONGITUDE);
+    GeolocationInfo geolocationInfo = buildGeolocationInfo();
+    when(delegate.retrieve(geolocationCoordinates)).thenReturn(geolocationInfo);
+
+    //when
+    cachingGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+    GeolocationInfo nearbyGeolocationInfo = cachingGeolocationInfoRetriever.retrieve(nearbyCoordinates);
+
+    //then
+    assertThat(nearbyGeolocationInfo).isEqualTo(geolocationInfo);
+    verify(delegate, times(1)).retrieve(any());
+  }
+
+  @Test
+  void shouldNotCacheFailures() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    when(delegate.retrieve(geolocationCoordinates)).thenThrow(GeolocationEnrichmentException.class);
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> cachingGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    assertThatThrownBy(executable).isInstanceOf(GeolocationEnrichmentException.class);
+    assertThatThrownBy(executable).isInstanceOf(GeolocationEnrichmentException.class);
+    assertThat(cache.asMap()).isEmpty();
+    assertThat(notFoundCache.asMap()).isEmpty();
+    verify(delegate, times(2)).retrieve(geolocationCoordinates);
+  }
+
+  @Test
+  void shouldServeNotFound_FromNotFoundCache_WithoutCallingDelegateAgain() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationCoordinates nearbyCoordinates = new GeolocationCoordinates(NEARBY_LATITUDE, NEARBY_LONGITUDE);
+    when(delegate.retrieve(geolocationCoordinates)).thenThrow(new NotFoundException("Geolocation info not found"));
+
+    //when
+    ThrowableAssert.ThrowingCallable first = () -> cachingGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+    ThrowableAssert.ThrowingCallable second = () -> cachingGeolocationInfoRetriever.retrieve(nearbyCoordinates);
+
+    //then
+    assertThatThrownBy(first).isInstanceOf(NotFoundException.class);
+    assertThatThrownBy(second).isInstanceOf(NotFoundException.class);
+    assertThat(cache.asMap()).isEmpty();
+    verify(delegate, times(1)).retrieve(any());
+  }
+
+  @Test
+  void shouldCacheNotFoundResults_WhenRetrievingAll() {
+    //given
+    GeolocationCoordinates notFoundCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    when(delegate.retrieveAll(List.of(notFoundCoordinates))).thenReturn(Map.of(notFoundCoordinates,
+      GeolocationInfoResult.failure(new NotFoundException("Geolocation info not found"))));
+
+    //when
+    cachingGeolocationInfoRetriever.retrieveAll(List.of(notFoundCoordinates));
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      cachingGeolocationInfoRetriever.retrieveAll(List.of(notFoundCoordinates));
+
+    //then
+    assertThat(results.get(notFoundCoordinates).getError()).isInstanceOf(NotFoundException.class);
+    verify(delegate, times(1)).retrieveAll(any());
+  }
+
+  @Test
+  void shouldPassOnlyMissesToDelegate_WhenRetrievingAll() {
+    //given
+    GeolocationCoordinates cachedCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationCoordinates missedCoordinates = new GeolocationCoordinates(38.899827, -77.037454);
+    GeolocationInfo cachedGeolocationInfo = buildGeolocationInfo();
+    GeolocationInfo missedGeolocationInfo = new GeolocationInfo();
+    cache.put(cachedCoordinates.rounded(COORDINATES_SCALE), cachedGeolocationInfo);
+    when(delegate.retrieveAll(List.of(missedCoordinates)))
+      .thenReturn(Map.of(missedCoordinates, GeolocationInfoResult.success(missedGeolocationInfo)));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      cachingGeolocationInfoRetriever.retrieveAll(List.of(cachedCoordinates, missedCoordinates));
+
+    //then
+    assertThat(results).containsOnly(
+      Map.entry(cachedCoordinates, GeolocationInfoResult.success(cachedGeolocationInfo)),
+      Map.entry(missedCoordinates, GeolocationInfoResult.success(missedGeolocationInfo)));
+    assertThat(cache.getIfPresent(missedCoordinates.rounded(COORDINATES_SCALE))).isSameAs(missedGeolocationInfo);
+  }
+
+  private GeolocationInfo buildGeolocationInfo() {
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry("Russia");
+    geolocationInfo.setLocality("Moscow");
+    return geolocationInfo;
+  }
+}
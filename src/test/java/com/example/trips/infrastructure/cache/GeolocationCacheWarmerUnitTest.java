@@ -0,0 +1,143 @@
+package com.example.trips.infrastructure.cache;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.repository.TripRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GeolocationCacheWarmerUnitTest {
+
+  private static final int COORDINATES_SCALE = 4;
+
+  private static final int MAX_TRIPS = 100;
+
+  @Mock
+  private TripRepository tripRepository;
+
+  private Cache<GeolocationCoordinates, GeolocationInfo> cache;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    cache = Caffeine.newBuilder().build();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void shouldPreloadEnrichedDestinations_WithRoundedCoordinates() {
+    //given
+    Trip trip = buildTrip(buildGeolocationData(55.7558261, 37.6173003, "Russia", "Moscow"),
+      buildGeolocationData(36.1699412, -115.1398296, null, null));
+    when(tripRepository.streamLatestEnriched(MAX_TRIPS)).thenReturn(Stream.of(trip));
+
+    //when
+    buildWarmer(Duration.ofSeconds(5)).start();
+
+    //then
+    assertThat(cache.asMap()).containsOnlyKeys(new GeolocationCoordinates(55.7558, 37.6173));
+    assertThat(cache.getIfPresent(new GeolocationCoordinates(55.7558, 37.6173)).getLocality()).isEqualTo("Moscow");
+    assertThat(meterRegistry.get("geolocation.cache.warm.up.entries").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("geolocation.cache.warm.up").tag("outcome", "completed").timer().count())
+      .isEqualTo(1);
+  }
+
+  @Test
+  void shouldKeepEntryAlreadyInCache() {
+    //given
+    GeolocationInfo cachedGeolocationInfo = new GeolocationInfo();
+    cachedGeolocationInfo.setCountry("Russia");
+    cachedGeolocationInfo.setLocality("Moskva");
+    cache.put(new GeolocationCoordinates(55.7558, 37.6173), cachedGeolocationInfo);
+    Trip trip = buildTrip(buildGeolocationData(55.7558261, 37.6173003, "Russia", "Moscow"),
+      buildGeolocationData(55.7558261, 37.6173003, "Russia", "Moscow"));
+    when(tripRepository.streamLatestEnriched(MAX_TRIPS)).thenReturn(Stream.of(trip));
+
+    //when
+    buildWarmer(Duration.ofSeconds(5)).start();
+
+    //then
+    assertThat(cache.getIfPresent(new GeolocationCoordinates(55.7558, 37.6173))).isSameAs(cachedGeolocationInfo);
+    assertThat(meterRegistry.get("geolocation.cache.warm.up.entries").counter().count()).isZero();
+  }
+
+  @Test
+  void shouldStopWaiting_WhenTimeBudgetIsExceeded() throws Exception {
+    //given
+    CountDownLatch release = new CountDownLatch(1);
+    Trip trip = buildTrip(buildGeolocationData(55.7558261, 37.6173003, "Russia", "Moscow"),
+      buildGeolocationData(55.7558261, 37.6173003, "Russia", "Moscow"));
+    when(tripRepository.streamLatestEnriched(MAX_TRIPS)).thenReturn(Stream.generate(() -> {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return trip;
+    }));
+
+    //when
+    long start = System.nanoTime();
+    buildWarmer(Duration.ofMillis(100)).start();
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    release.countDown();
+
+    //then
+    assertThat(elapsedMillis).isLessThan(2000);
+    assertThat(meterRegistry.get("geolocation.cache.warm.up").tag("outcome", "budget_exceeded").timer().count())
+      .isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotFailStartup_WhenTripsCannotBeRead() {
+    //given
+    when(tripRepository.streamLatestEnriched(MAX_TRIPS)).thenThrow(new IllegalStateException("Mongo is down"));
+
+    //when
+    buildWarmer(Duration.ofSeconds(5)).start();
+
+    //then
+    assertThat(cache.asMap()).isEmpty();
+    assertThat(meterRegistry.get("geolocation.cache.warm.up").tag("outcome", "failed").timer().count())
+      .isEqualTo(1);
+  }
+
+  private GeolocationCacheWarmer buildWarmer(Duration timeBudget) {
+    return new GeolocationCacheWarmer(tripRepository, cache, COORDINATES_SCALE, MAX_TRIPS, timeBudget, meterRegistry);
+  }
+
+  private Trip buildTrip(GeolocationData startDestination, GeolocationData finalDestination) {
+    return Trip.builder()
+      .withId("test")
+      .withStartDestination(startDestination)
+      .withFinalDestination(finalDestination)
+      .build();
+  }
+
+  private GeolocationData buildGeolocationData(double latitude, double longitude, String country, String locality) {
+    GeolocationData geolocationData = new GeolocationData();
+    geolocationData.setLatitude(latitude);
+    geolocationData.setLongitude(longitude);
+    geolocationData.setCountry(country);
+    geolocationData.setLocality(locality);
+    return geolocationData;
+  }
+}
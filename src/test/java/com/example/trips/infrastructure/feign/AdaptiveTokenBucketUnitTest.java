@@ -0,0 +1,105 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveTokenBucketUnitTest {
+
+  private static final double REQUESTS_PER_SECOND = 10;
+
+  private static final int BURST = 2;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  private AdaptiveTokenBucket tokenBucket;
+
+  @BeforeEach
+  void setUp() {
+    GeolocationRateLimitProperties properties = new GeolocationRateLimitProperties(REQUESTS_PER_SECOND, 1, BURST,
+      0.5, 1, Duration.ofSeconds(5), Duration.ofSeconds(1));
+    tokenBucket = new AdaptiveTokenBucket(properties, nanoTime::get);
+  }
+
+  @Test
+  void shouldNotWait_WhileBurstIsAvailable() {
+    //when
+    long firstWait = tokenBucket.reserve();
+    long secondWait = tokenBucket.reserve();
+
+    //then
+    assertThat(firstWait).isZero();
+    assertThat(secondWait).isZero();
+    assertThat(tokenBucket.availableTokens()).isZero();
+  }
+
+  @Test
+  void shouldSpaceCalls_WhenBurstIsExhausted() {
+    //given
+    tokenBucket.reserve();
+    tokenBucket.reserve();
+
+    //when
+    long thirdWait = tokenBucket.reserve();
+    long fourthWait = tokenBucket.reserve();
+
+    //then
+    assertThat(thirdWait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(fourthWait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+  }
+
+  @Test
+  void shouldHalveRate_AndWaitForRetryAfter_WhenThrottled() {
+    //when
+    tokenBucket.onThrottled(Duration.ofSeconds(2));
+    long wait = tokenBucket.reserve();
+
+    //then
+    assertThat(tokenBucket.currentRate()).isEqualTo(REQUESTS_PER_SECOND / 2);
+    assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(2200));
+  }
+
+  @Test
+  void shouldRecoverRate_WhenCallsAreAccepted() {
+    //given
+    tokenBucket.onThrottled(Duration.ZERO);
+
+    //when
+    for (int i = 0; i < 10; i++) {
+      tokenBucket.onAccepted();
+    }
+
+    //then
+    assertThat(tokenBucket.currentRate()).isEqualTo(REQUESTS_PER_SECOND);
+  }
+
+  @Test
+  void shouldRefillTokens_AfterRetryAfterPassed() {
+    //given
+    tokenBucket.onThrottled(Duration.ofSeconds(1));
+
+    //when
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1200));
+
+    //then
+    assertThat(tokenBucket.availableTokens()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldThrowGeolocationProviderUnavailableException_WhenWaitExceedsMaxWait() {
+    //given
+    tokenBucket.onThrottled(Duration.ofSeconds(10));
+
+    //then
+    assertThatThrownBy(tokenBucket::reserve)
+      .isInstanceOf(GeolocationProviderUnavailableException.class)
+      .hasMessageContaining("rate limit");
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderThrottledException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncGeolocationInfoRetrieverUnitTest {
+
+  private static final String API_KEY = "test-api-key";
+
+  private static final double LATITUDE = 55.755793;
+
+  private static final double LONGITUDE = 37.617134;
+
+  private static final String FOUND_BODY = "{\"data\":[{\"country\":\"Russia\",\"locality\":\"Moscow\"}]}";
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private HttpServer server;
+
+  private AsyncGeolocationHttpClient httpClient;
+
+  private final Queue<String> receivedQueries = new ConcurrentLinkedQueue<>();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    httpClient = new AsyncGeolocationHttpClient(2, Duration.ofSeconds(2));
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    httpClient.shutdown();
+  }
+
+  @Test
+  void shouldRetrieveFirstResultOfResponse() {
+    //given
+    respondWith(200, FOUND_BODY, null);
+    AsyncGeolocationInfoRetriever retriever = buildRetriever(new AsyncPermits(10, 10, Duration.ofSeconds(5)));
+
+    //when
+    GeolocationInfo geolocationInfo = retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE, LONGITUDE)).join();
+
+    //then
+    assertThat(geolocationInfo.getCountry()).isEqualTo("Russia");
+    assertThat(geolocationInfo.getLocality()).isEqualTo("Moscow");
+    assertThat(receivedQueries).containsExactly(
+      "limit=1&access_key=" + API_KEY + "&query=" + LATITUDE + "," + LONGITUDE);
+  }
+
+  @Test
+  void shouldFailWithNotFoundException_WhenDataIsEmpty() {
+    //given
+    respondWith(200, "{\"data\":[]}", null);
+    AsyncGeolocationInfoRetriever retriever = buildRetriever(new AsyncPermits(10, 10, Duration.ofSeconds(5)));
+
+    //when
+    CompletableFuture<GeolocationInfo> result = retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE, LONGITUDE));
+
+    //then
+    assertThatThrownBy(result::join).hasCauseInstanceOf(NotFoundException.class);
+  }
+
+  @Test
+  void shouldFailWithGeolocationEnrichmentException_WhenProviderAnswersWithError() {
+    //given
+    respondWith(500, "{}", null);
+    AsyncGeolocationInfoRetriever retriever = buildRetriever(new AsyncPermits(10, 10, Duration.ofSeconds(5)));
+
+    //when
+    CompletableFuture<GeolocationInfo> result = retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE, LONGITUDE));
+
+    //then
+    assertThatThrownBy(result::join).hasCauseInstanceOf(GeolocationEnrichmentException.class);
+  }
+
+  @Test
+  void shouldFailWithGeolocationProviderThrottledException_WhenProviderAnswersTooManyRequests() {
+    //given
+    respondWith(429, "{}", null);
+    AsyncGeolocationInfoRetriever retriever = buildRetriever(new AsyncPermits(10, 10, Duration.ofSeconds(5)));
+
+    //when
+    CompletableFuture<GeolocationInfo> result = retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE, LONGITUDE));
+
+    //then
+    assertThatThrownBy(result::join).hasCauseInstanceOf(GeolocationProviderThrottledException.class);
+  }
+
+  @Test
+  void shouldKeepCallsInFlightWithinPermits_AndQueueTheRest() throws Exception {
+    //given
+    CountDownLatch release = new CountDownLatch(1);
+    respondWith(200, FOUND_BODY, release);
+    AsyncPermits permits = new AsyncPermits(2, 10, Duration.ofSeconds(5));
+    AsyncGeolocationInfoRetriever retriever = buildRetriever(permits);
+
+    //when
+    List<CompletableFuture<GeolocationInfo>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE + i, LONGITUDE)));
+    }
+    int inFlight = permits.inFlight();
+    int queued = permits.queued();
+    release.countDown();
+
+    //then
+    assertThat(inFlight).isEqualTo(2);
+    assertThat(queued).isEqualTo(3);
+    CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+    assertThat(receivedQueries).hasSize(5);
+    assertThat(permits.inFlight()).isZero();
+  }
+
+  @Test
+  void shouldFailWithGeolocationProviderUnavailableException_WhenTooManyCallsAreQueued() {
+    //given
+    CountDownLatch release = new CountDownLatch(1);
+    respondWith(200, FOUND_BODY, release);
+    AsyncGeolocationInfoRetriever retriever = buildRetriever(new AsyncPermits(1, 1, Duration.ofSeconds(5)));
+    retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE, LONGITUDE));
+    retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE + 1, LONGITUDE));
+
+    //when
+    CompletableFuture<GeolocationInfo> result =
+      retriever.retrieveAsync(new GeolocationCoordinates(LATITUDE + 2, LONGITUDE));
+    release.countDown();
+
+    //then
+    assertThatThrownBy(result::join).hasCauseInstanceOf(GeolocationProviderUnavailableException.class);
+  }
+
+  private AsyncGeolocationInfoRetriever buildRetriever(AsyncPermits permits) {
+    return new AsyncGeolocationInfoRetriever(delegate, httpClient, permits,
+      new GeolocationInfoResponseReader(new ObjectMapper()),
+      "http://localhost:" + server.getAddress().getPort(), API_KEY, Duration.ofSeconds(5), null,
+      Duration.ofSeconds(1), new SimpleMeterRegistry().counter("geolocation.rate.limit.throttled"));
+  }
+
+  private void respondWith(int status, String body, CountDownLatch release) {
+    server.createContext("/reverse", exchange -> {
+      receivedQueries.add(exchange.getRequestURI().getRawQuery());
+      try {
+        if (release != null) {
+          release.await(5, TimeUnit.SECONDS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(status, bytes.length);
+      try (OutputStream responseBody = exchange.getResponseBody()) {
+        responseBody.write(bytes);
+      }
+    });
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncPermitsUnitTest {
+
+  private static final Duration QUEUE_TIMEOUT = Duration.ofSeconds(5);
+
+  @Test
+  void shouldGrantPermitImmediately_WhenPermitIsFree() {
+    //given
+    AsyncPermits permits = new AsyncPermits(2, 1, QUEUE_TIMEOUT);
+
+    //when
+    CompletableFuture<Void> permit = permits.acquire();
+
+    //then
+    assertThat(permit).isCompleted();
+    assertThat(permits.inFlight()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldHandPermitOverToOldestWaiter_WhenReleased() {
+    //given
+    AsyncPermits permits = new AsyncPermits(1, 2, QUEUE_TIMEOUT);
+    permits.acquire();
+    CompletableFuture<Void> firstWaiter = permits.acquire();
+    CompletableFuture<Void> secondWaiter = permits.acquire();
+
+    //when
+    permits.release();
+
+    //then
+    assertThat(firstWaiter).isCompleted();
+    assertThat(secondWaiter).isNotDone();
+    assertThat(permits.inFlight()).isEqualTo(1);
+    assertThat(permits.queued()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRejectCaller_WhenQueueIsFull() {
+    //given
+    AsyncPermits permits = new AsyncPermits(1, 1, QUEUE_TIMEOUT);
+    permits.acquire();
+    permits.acquire();
+
+    //when
+    CompletableFuture<Void> rejected = permits.acquire();
+
+    //then
+    assertThatThrownBy(rejected::join).hasCauseInstanceOf(GeolocationProviderUnavailableException.class);
+  }
+
+  @Test
+  void shouldFailWaiter_AndSkipItOnRelease_WhenQueueTimeoutElapsed() {
+    //given
+    AsyncPermits permits = new AsyncPermits(1, 1, Duration.ofMillis(50));
+    permits.acquire();
+    CompletableFuture<Void> waiter = permits.acquire();
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(waiter::isDone);
+
+    //when
+    permits.release();
+
+    //then
+    assertThatThrownBy(waiter::join).hasCauseInstanceOf(GeolocationProviderUnavailableException.class);
+    assertThat(permits.inFlight()).isZero();
+    assertThat(permits.acquire()).isCompleted();
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.model.GeolocationInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bytes allocated per decoded lookup response by the converter based decoder chain and by
+ * {@link GeolocationInfoFeignDecoder}. Both share message converters built once, so only the decoding itself is
+ * measured. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class GeolocationInfoFeignDecoderBenchmark {
+
+  private static final int WARM_UP_ITERATIONS = 10_000;
+
+  private static final int MEASURED_ITERATIONS = 20_000;
+
+  private static final String RESPONSE_FIXTURE = "/mappings/200-reverse_russia_moscow.json";
+
+  private final com.sun.management.ThreadMXBean threadMXBean =
+    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private ObjectMapper objectMapper;
+
+  private Type lookupResponseType;
+
+  private Decoder converterDecoder;
+
+  private Decoder streamingDecoder;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    objectMapper = new ObjectMapper();
+    objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    HttpMessageConverters messageConverters =
+      new HttpMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper));
+    ObjectFactory<HttpMessageConverters> objectFactory = () -> messageConverters;
+    Decoder springDecoder = new SpringDecoder(objectFactory);
+    converterDecoder = new ResponseEntityDecoder(springDecoder);
+    streamingDecoder = new ResponseEntityDecoder(new GeolocationInfoFeignDecoder(objectMapper, springDecoder));
+    lookupResponseType = GeolocationFeignClient.class
+      .getDeclaredMethod("getLocation", int.class, String.class, List.class)
+      .getGenericReturnType();
+  }
+
+  @Test
+  void compareAllocationsPerSingleResultResponse() throws Exception {
+    compare("single result", buildResponse(readFixture(1)));
+  }
+
+  @Test
+  void compareAllocationsPerResponseWithIgnoredResults() throws Exception {
+    compare("10 results", buildResponse(readFixture(10)));
+  }
+
+  private void compare(String payload, Response response) throws Exception {
+    assertThat(firstResult(streamingDecoder, response)).isEqualTo(firstResult(converterDecoder, response));
+
+    long converterBytes = allocatedBytesPerDecode(converterDecoder, response);
+    long streamingBytes = allocatedBytesPerDecode(streamingDecoder, response);
+
+    System.out.printf("%s: converter decoder %d B/op, streaming decoder %d B/op (%.1f%% less)%n", payload,
+      converterBytes, streamingBytes, 100.0 * (converterBytes - streamingBytes) / converterBytes);
+    assertThat(streamingBytes).isLessThan(converterBytes);
+  }
+
+  @SuppressWarnings("unchecked")
+  private GeolocationInfo firstResult(Decoder decoder, Response response) throws Exception {
+    ResponseEntity<GeolocationInfoFeignResponse> decoded =
+      (ResponseEntity<GeolocationInfoFeignResponse>) decoder.decode(response, lookupResponseType);
+    return decoded.getBody().getData().get(0);
+  }
+
+  private long allocatedBytesPerDecode(Decoder decoder, Response response) throws Exception {
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      decoder.decode(response, lookupResponseType);
+    }
+    long threadId = Thread.currentThread().getId();
+    long before = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      decoder.decode(response, lookupResponseType);
+    }
+    return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+  }
+
+  private byte[] readFixture(int results) throws Exception {
+    try (InputStream fixture = getClass().getResourceAsStream(RESPONSE_FIXTURE)) {
+      JsonNode body = objectMapper.readTree(fixture).path("response").path("jsonBody");
+      ArrayNode data = (ArrayNode) body.path("data");
+      JsonNode first = data.get(0);
+      for (int i = 1; i < results; i++) {
+        data.add(first.deepCopy());
+      }
+      return objectMapper.writeValueAsBytes(body);
+    }
+  }
+
+  private Response buildResponse(byte[] body) {
+    Request request = Request.create(Request.HttpMethod.GET, "http://localhost/reverse", Map.of(), null,
+      StandardCharsets.UTF_8, new RequestTemplate());
+    Map<String, Collection<String>> headers = Map.of("Content-Type", List.of("application/json"));
+    return Response.builder()
+      .request(request)
+      .status(200)
+      .headers(headers)
+      .body(body)
+      .build();
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.model.GeolocationInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class GeolocationInfoFeignDecoderUnitTest {
+
+  private static final String MOSCOW_RESPONSE = "{\"data\":["
+    + "{\"latitude\":55.75583,\"longitude\":37.6173,\"name\":\"Konobeevo\",\"number\":null,"
+    + "\"region\":{\"name\":\"Moscow City\",\"codes\":[\"MS\",\"MOW\"]},\"locality\":\"Moscow\",\"country\":\"Russia\"},"
+    + "{\"latitude\":55.7,\"longitude\":37.6,\"locality\":\"Zyuzino\",\"country\":\"Russia\"}"
+    + "],\"pagination\":{\"limit\":1,\"offset\":0}}";
+
+  @Mock
+  private Decoder delegate;
+
+  private GeolocationInfoFeignDecoder geolocationInfoFeignDecoder;
+
+  @BeforeEach
+  void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper();
+    objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    geolocationInfoFeignDecoder = new GeolocationInfoFeignDecoder(objectMapper, delegate);
+  }
+
+  @Test
+  void shouldBindOnlyFirstElementOfData() throws Exception {
+    //when
+    Object decoded = geolocationInfoFeignDecoder.decode(buildResponse(MOSCOW_RESPONSE),
+      GeolocationInfoFeignResponse.class);
+
+    //then
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry("Russia");
+    geolocationInfo.setLocality("Moscow");
+    assertThat(decoded).isInstanceOf(GeolocationInfoFeignResponse.class);
+    assertThat(((GeolocationInfoFeignResponse) decoded).getData()).containsExactly(geolocationInfo);
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldReturnEmptyData_WhenNothingFound() throws Exception {
+    //when
+    Object decoded = geolocationInfoFeignDecoder.decode(buildResponse("{\"data\":[]}"),
+      GeolocationInfoFeignResponse.class);
+
+    //then
+    assertThat(((GeolocationInfoFeignResponse) decoded).getData()).isEmpty();
+  }
+
+  @Test
+  void shouldReturnNull_WhenBodyIsEmpty() throws Exception {
+    //when
+    Object decoded = geolocationInfoFeignDecoder.decode(buildResponse(""), GeolocationInfoFeignResponse.class);
+
+    //then
+    assertThat(decoded).isNull();
+  }
+
+  @Test
+  void shouldThrowDecodeException_WhenBodyIsNotObject() {
+    //then
+    assertThatThrownBy(() -> geolocationInfoFeignDecoder.decode(buildResponse("[]"), GeolocationInfoFeignResponse.class))
+      .isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  void shouldDelegateOtherTypes() throws Exception {
+    //given
+    Response response = buildResponse("{\"data\":[[]]}");
+
+    //when
+    geolocationInfoFeignDecoder.decode(response, GeolocationInfoFeignBatchResponse.class);
+
+    //then
+    verify(delegate).decode(response, GeolocationInfoFeignBatchResponse.class);
+  }
+
+  private Response buildResponse(String body) {
+    Request request = Request.create(Request.HttpMethod.GET, "http://localhost/reverse", Collections.emptyMap(), null,
+      StandardCharsets.UTF_8, new RequestTemplate());
+    return Response.builder()
+      .request(request)
+      .status(200)
+      .headers(Collections.emptyMap())
+      .body(body, StandardCharsets.UTF_8)
+      .build();
+  }
+}
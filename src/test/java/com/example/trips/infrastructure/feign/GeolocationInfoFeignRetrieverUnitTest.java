@@ -1,8 +1,15 @@
 package com.example.trips.infrastructure.feign;
 
 import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderThrottledException;
+import com.example.trips.api.exception.NotFoundException;
 import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
 import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ThrowableAssert;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,11 +17,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +42,14 @@ class GeolocationInfoFeignRetrieverUnitTest {
 
   private static final double START_LOCATION_LONGITUDE = 44.444444;
 
+  private static final double FINAL_LOCATION_LATITUDE = 66.666666;
+
+  private static final double FINAL_LOCATION_LONGITUDE = 33.333333;
+
+  private static final double UNKNOWN_LOCATION_LATITUDE = 6.411443;
+
+  private static final double UNKNOWN_LOCATION_LONGITUDE = 64.293438;
+
   private static final int GEOLOCATION_RESULTS_LIMIT = 1;
 
   @Mock
@@ -34,6 +58,9 @@ class GeolocationInfoFeignRetrieverUnitTest {
   @Mock
   private GeolocationFeignClient geolocationFeignClient;
 
+  @Spy
+  private GeolocationRequestInvoker geolocationRequestInvoker = new DirectGeolocationRequestInvoker();
+
   @InjectMocks
   private GeolocationInfoFeignRetriever geolocationInfoRetriever;
 
@@ -56,6 +83,24 @@ class GeolocationInfoFeignRetrieverUnitTest {
       .hasMessageContaining("Exception when trying to get geolocation data");
   }
 
+  @Test
+  void shouldThrowGeolocationProviderThrottledException_WhenProviderAnswersTooManyRequests() {
+    //given
+    List<Double> startLocationQuery = List.of(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    FeignException tooManyRequests = FeignException.errorStatus("getLocation", Response.builder()
+      .request(Request.create(Request.HttpMethod.GET, "http://localhost/reverse", Collections.emptyMap(), null,
+        StandardCharsets.UTF_8, new RequestTemplate()))
+      .status(RateLimitingClient.TOO_MANY_REQUESTS)
+      .headers(Collections.emptyMap())
+      .build());
+    when(geolocationFeignClient.getLocation(GEOLOCATION_RESULTS_LIMIT, GEOLOCATION_API_KEY, startLocationQuery)).thenThrow(tooManyRequests);
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> geolocationInfoRetriever.retrieve(geolocationCoordinates);
+    //then
+    Assertions.assertThatThrownBy(executable).isInstanceOf(GeolocationProviderThrottledException.class);
+  }
+
   @Test
   void shouldThrowNullPointerException_WhenResponseBodyFromFeignClientIsNull() {
     //given
@@ -70,4 +115,120 @@ class GeolocationInfoFeignRetrieverUnitTest {
       .isInstanceOf(NullPointerException.class)
       .hasMessage("Body is null");
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldSplitCoordinatesIntoBatches_AndReturnPerItemResults() {
+    //given
+    when(geolocationProperties.isBatchEnabled()).thenReturn(true);
+    when(geolocationProperties.getBatchSize()).thenReturn(2);
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    GeolocationCoordinates unknownCoordinates = new GeolocationCoordinates(UNKNOWN_LOCATION_LATITUDE, UNKNOWN_LOCATION_LONGITUDE);
+    GeolocationInfo startGeolocationInfo = buildGeolocationInfo("Russia");
+    GeolocationInfo finalGeolocationInfo = buildGeolocationInfo("Finland");
+    when(geolocationFeignClient.getLocations(eq(GEOLOCATION_API_KEY), any()))
+      .thenReturn(ResponseEntity.ok(buildBatchResponse(List.of(List.of(startGeolocationInfo), List.of(finalGeolocationInfo)))))
+      .thenReturn(ResponseEntity.ok(buildBatchResponse(List.of(List.of()))));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = geolocationInfoRetriever.retrieveAll(
+      List.of(startCoordinates, finalCoordinates, startCoordinates, unknownCoordinates));
+
+    //then
+    verify(geolocationFeignClient, times(2)).getLocations(eq(GEOLOCATION_API_KEY), any());
+    Assertions.assertThat(results).hasSize(3);
+    Assertions.assertThat(results.get(startCoordinates).getGeolocationInfo()).isEqualTo(startGeolocationInfo);
+    Assertions.assertThat(results.get(finalCoordinates).getGeolocationInfo()).isEqualTo(finalGeolocationInfo);
+    Assertions.assertThat(results.get(unknownCoordinates).getError()).isInstanceOf(NotFoundException.class);
+  }
+
+  @Test
+  void shouldFailEveryItemOfBatch_WhenFeignExceptionOccurs() {
+    //given
+    when(geolocationProperties.isBatchEnabled()).thenReturn(true);
+    when(geolocationProperties.getBatchSize()).thenReturn(10);
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    when(geolocationFeignClient.getLocations(eq(GEOLOCATION_API_KEY), any())).thenThrow(FeignException.class);
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      geolocationInfoRetriever.retrieveAll(List.of(startCoordinates, finalCoordinates));
+
+    //then
+    Assertions.assertThat(results.values())
+      .hasSize(2)
+      .allSatisfy(result -> Assertions.assertThat(result.getError()).isInstanceOf(GeolocationEnrichmentException.class));
+  }
+
+  @Test
+  void shouldFailItemsMissingFromBatchResponse_WithoutReportingThemNotFound() {
+    //given
+    when(geolocationProperties.isBatchEnabled()).thenReturn(true);
+    when(geolocationProperties.getBatchSize()).thenReturn(10);
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    GeolocationCoordinates unknownCoordinates = new GeolocationCoordinates(UNKNOWN_LOCATION_LATITUDE, UNKNOWN_LOCATION_LONGITUDE);
+    GeolocationInfo startGeolocationInfo = buildGeolocationInfo("Russia");
+    when(geolocationFeignClient.getLocations(eq(GEOLOCATION_API_KEY), any()))
+      .thenReturn(ResponseEntity.ok(buildBatchResponse(Arrays.asList(List.of(startGeolocationInfo), null))));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      geolocationInfoRetriever.retrieveAll(List.of(startCoordinates, finalCoordinates, unknownCoordinates));
+
+    //then
+    Assertions.assertThat(results.get(startCoordinates).getGeolocationInfo()).isEqualTo(startGeolocationInfo);
+    Assertions.assertThat(results.get(finalCoordinates).getError()).isInstanceOf(GeolocationEnrichmentException.class);
+    Assertions.assertThat(results.get(unknownCoordinates).getError()).isInstanceOf(GeolocationEnrichmentException.class);
+  }
+
+  @Test
+  void shouldFailEveryItemOfBatch_WhenResponseHoldsNoData() {
+    //given
+    when(geolocationProperties.isBatchEnabled()).thenReturn(true);
+    when(geolocationProperties.getBatchSize()).thenReturn(10);
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationCoordinates finalCoordinates = new GeolocationCoordinates(FINAL_LOCATION_LATITUDE, FINAL_LOCATION_LONGITUDE);
+    when(geolocationFeignClient.getLocations(eq(GEOLOCATION_API_KEY), any()))
+      .thenReturn(ResponseEntity.ok(buildBatchResponse(null)));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      geolocationInfoRetriever.retrieveAll(List.of(startCoordinates, finalCoordinates));
+
+    //then
+    Assertions.assertThat(results.values())
+      .hasSize(2)
+      .allSatisfy(result -> Assertions.assertThat(result.getError()).isInstanceOf(GeolocationEnrichmentException.class));
+  }
+
+  @Test
+  void shouldRetrieveOneByOne_WhenBatchIsDisabled() {
+    //given
+    GeolocationCoordinates startCoordinates = new GeolocationCoordinates(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE);
+    GeolocationInfo startGeolocationInfo = buildGeolocationInfo("Russia");
+    GeolocationInfoFeignResponse response = new GeolocationInfoFeignResponse();
+    response.setData(List.of(startGeolocationInfo));
+    when(geolocationFeignClient.getLocation(GEOLOCATION_RESULTS_LIMIT, GEOLOCATION_API_KEY,
+      List.of(START_LOCATION_LATITUDE, START_LOCATION_LONGITUDE))).thenReturn(ResponseEntity.ok(response));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results = geolocationInfoRetriever.retrieveAll(List.of(startCoordinates));
+
+    //then
+    Assertions.assertThat(results).containsExactly(Map.entry(startCoordinates, GeolocationInfoResult.success(startGeolocationInfo)));
+  }
+
+  private GeolocationInfo buildGeolocationInfo(String country) {
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry(country);
+    return geolocationInfo;
+  }
+
+  private GeolocationInfoFeignBatchResponse buildBatchResponse(List<List<GeolocationInfo>> data) {
+    GeolocationInfoFeignBatchResponse response = new GeolocationInfoFeignBatchResponse();
+    response.setData(data);
+    return response;
+  }
+}
@@ -0,0 +1,161 @@
+package com.example.trips.infrastructure.feign;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingGeolocationRequestInvokerUnitTest {
+
+  private static final Duration HEDGE_DELAY = Duration.ofMillis(50);
+
+  private MeterRegistry meterRegistry;
+
+  private CountDownLatch releasePrimary;
+
+  private HedgingGeolocationRequestInvoker hedgingGeolocationRequestInvoker;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    releasePrimary = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    releasePrimary.countDown();
+    hedgingGeolocationRequestInvoker.shutdown();
+  }
+
+  @Test
+  void shouldReturnPrimaryAnswer_WithoutHedging_WhenPrimaryIsFast() {
+    //given
+    hedgingGeolocationRequestInvoker = buildInvoker(1);
+
+    //when
+    String answer = hedgingGeolocationRequestInvoker.invoke(() -> "primary");
+
+    //then
+    assertThat(answer).isEqualTo("primary");
+    assertThat(meterRegistry.counter("geolocation.hedging.calls").count()).isEqualTo(1);
+    assertThat(meterRegistry.counter("geolocation.hedging.hedges", "outcome", "sent").count()).isZero();
+  }
+
+  @Test
+  void shouldReturnHedgeAnswer_WhenPrimaryIsSlow() {
+    //given
+    hedgingGeolocationRequestInvoker = buildInvoker(1);
+    AtomicInteger attempts = new AtomicInteger();
+
+    //when
+    String answer = hedgingGeolocationRequestInvoker.invoke(slowPrimary(attempts, () -> "primary", () -> "hedge"));
+
+    //then
+    assertThat(answer).isEqualTo("hedge");
+    assertThat(attempts.get()).isEqualTo(2);
+    assertThat(meterRegistry.counter("geolocation.hedging.hedges", "outcome", "sent").count()).isEqualTo(1);
+    // the winning attempt counts itself after handing over its answer
+    Awaitility.await().atMost(Duration.ofSeconds(5))
+      .untilAsserted(() -> assertThat(meterRegistry.counter("geolocation.hedging.wins").count()).isEqualTo(1));
+  }
+
+  @Test
+  void shouldWaitForPrimary_WhenHedgeBudgetIsExhausted() throws Exception {
+    //given
+    hedgingGeolocationRequestInvoker = buildInvoker(0.5);
+    AtomicInteger attempts = new AtomicInteger();
+    Thread releaser = new Thread(() -> {
+      sleep(HEDGE_DELAY.multipliedBy(3));
+      releasePrimary.countDown();
+    });
+    releaser.start();
+
+    //when
+    String answer = hedgingGeolocationRequestInvoker.invoke(slowPrimary(attempts, () -> "primary", () -> "hedge"));
+
+    //then
+    releaser.join();
+    assertThat(answer).isEqualTo("primary");
+    assertThat(attempts.get()).isEqualTo(1);
+    assertThat(meterRegistry.counter("geolocation.hedging.hedges", "outcome", "budget_exhausted").count())
+      .isEqualTo(1);
+  }
+
+  @Test
+  void shouldRethrowFailure_WithoutHedging_WhenPrimaryFailsFast() {
+    //given
+    hedgingGeolocationRequestInvoker = buildInvoker(1);
+
+    //when
+    Supplier<String> call = () -> {
+      throw new GeolocationEnrichmentException("Provider is unavailable");
+    };
+
+    //then
+    assertThatThrownBy(() -> hedgingGeolocationRequestInvoker.invoke(call))
+      .isInstanceOf(GeolocationEnrichmentException.class)
+      .hasMessage("Provider is unavailable");
+    assertThat(meterRegistry.counter("geolocation.hedging.hedges", "outcome", "sent").count()).isZero();
+  }
+
+  @Test
+  void shouldRethrowFirstFailure_WhenEveryAttemptFails() {
+    //given
+    hedgingGeolocationRequestInvoker = buildInvoker(1);
+    AtomicInteger attempts = new AtomicInteger();
+    Supplier<String> call = slowPrimary(attempts,
+      () -> {
+        throw new GeolocationEnrichmentException("Primary failed");
+      },
+      () -> {
+        releasePrimary.countDown();
+        sleep(HEDGE_DELAY);
+        throw new GeolocationEnrichmentException("Hedge failed");
+      });
+
+    //then
+    assertThatThrownBy(() -> hedgingGeolocationRequestInvoker.invoke(call))
+      .isInstanceOf(GeolocationEnrichmentException.class)
+      .hasMessage("Primary failed");
+    assertThat(attempts.get()).isEqualTo(2);
+  }
+
+  private HedgingGeolocationRequestInvoker buildInvoker(double budgetRatio) {
+    return new HedgingGeolocationRequestInvoker(0.95, HEDGE_DELAY, Duration.ofMillis(10), budgetRatio, 2, 2,
+      meterRegistry);
+  }
+
+  private Supplier<String> slowPrimary(AtomicInteger attempts, Supplier<String> primary, Supplier<String> hedge) {
+    return () -> {
+      if (attempts.incrementAndGet() == 1) {
+        try {
+          releasePrimary.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e);
+        }
+        return primary.get();
+      }
+      return hedge.get();
+    };
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
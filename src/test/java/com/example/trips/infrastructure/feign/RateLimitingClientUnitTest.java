@@ -0,0 +1,106 @@
+package com.example.trips.infrastructure.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitingClientUnitTest {
+
+  private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+  @Mock
+  private Client delegate;
+
+  @Mock
+  private AdaptiveTokenBucket tokenBucket;
+
+  private Counter throttledResponses;
+
+  private RateLimitingClient rateLimitingClient;
+
+  @BeforeEach
+  void setUp() {
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    throttledResponses = meterRegistry.counter("geolocation.rate.limit.throttled");
+    rateLimitingClient = new RateLimitingClient(delegate, tokenBucket, DEFAULT_RETRY_AFTER,
+      meterRegistry.timer("geolocation.rate.limit.wait"), throttledResponses);
+  }
+
+  @Test
+  void shouldReportAcceptedCall_WhenResponseIsNotThrottled() throws Exception {
+    //given
+    Request request = buildRequest();
+    when(delegate.execute(any(), any())).thenReturn(buildResponse(request, 200, Collections.emptyMap()));
+
+    //when
+    Response response = rateLimitingClient.execute(request, new Request.Options());
+
+    //then
+    assertThat(response.status()).isEqualTo(200);
+    verify(tokenBucket).reserve();
+    verify(tokenBucket).onAccepted();
+    assertThat(throttledResponses.count()).isZero();
+  }
+
+  @Test
+  void shouldSlowDownForRetryAfter_WhenResponseIsThrottled() throws Exception {
+    //given
+    Request request = buildRequest();
+    when(delegate.execute(any(), any())).thenReturn(buildResponse(request, 429, Map.of("Retry-After", List.of("7"))));
+
+    //when
+    rateLimitingClient.execute(request, new Request.Options());
+
+    //then
+    verify(tokenBucket).onThrottled(Duration.ofSeconds(7));
+    assertThat(throttledResponses.count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldUseDefaultRetryAfter_WhenHeaderIsMissing() throws Exception {
+    //given
+    Request request = buildRequest();
+    when(delegate.execute(any(), any())).thenReturn(buildResponse(request, 429, Collections.emptyMap()));
+
+    //when
+    rateLimitingClient.execute(request, new Request.Options());
+
+    //then
+    verify(tokenBucket).onThrottled(DEFAULT_RETRY_AFTER);
+  }
+
+  private Request buildRequest() {
+    return Request.create(Request.HttpMethod.GET, "http://localhost/reverse", Collections.emptyMap(), null,
+      StandardCharsets.UTF_8, new RequestTemplate());
+  }
+
+  private Response buildResponse(Request request, int status, Map<String, Collection<String>> headers) {
+    return Response.builder()
+      .request(request)
+      .status(status)
+      .headers(headers)
+      .build();
+  }
+}
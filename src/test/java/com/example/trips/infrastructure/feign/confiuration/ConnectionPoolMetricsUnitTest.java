@@ -0,0 +1,43 @@
+package com.example.trips.infrastructure.feign.confiuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConnectionPoolMetricsUnitTest {
+
+  private static final int MAX_CONNECTIONS = 20;
+
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    connectionManager = PoolingHttpClientConnectionManagerBuilder.create().setMaxConnTotal(MAX_CONNECTIONS).build();
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionManager.close();
+  }
+
+  @Test
+  void shouldReportPoolStatistics() {
+    //when
+    new ConnectionPoolMetrics(connectionManager).bindTo(meterRegistry);
+
+    //then
+    assertThat(meterRegistry.get("feign.http.pool.connections.max").gauge().value()).isEqualTo(MAX_CONNECTIONS);
+    assertThat(meterRegistry.get("feign.http.pool.connections").gauges())
+      .extracting(gauge -> gauge.getId().getTag("state"))
+      .containsExactlyInAnyOrder("leased", "pending", "idle");
+    assertThat(meterRegistry.get("feign.http.pool.connections").tag("state", "leased").gauge().value()).isZero();
+  }
+}
@@ -0,0 +1,103 @@
+package com.example.trips.infrastructure.gazetteer;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GazetteerGeolocationInfoRetrieverUnitTest {
+
+  private static final double MAX_DISTANCE_KILOMETERS = 10;
+
+  private static final List<String> GAZETTEER_LINES = List.of(
+    "524901\tMoscow\tMoscow\t\t55.75222\t37.61556\tP\tPPLC\tRU\t\t48\t\t\t\t10381222\t\t144\tEurope/Moscow\t2022-01-01",
+    "4140963\tWashington\tWashington\t\t38.89511\t-77.03637\tP\tPPLC\tUS\t\t\t\t\t\t689545\t\t\tAmerica/New_York\t2022-01-01",
+    "2643743\tLondon\tLondon\t\t51.50853\t-0.12574\tP\tPPLC\tGB\t\t\t\t\t\t8961989\t\t\tEurope/London\t2022-01-01",
+    "2186280\tNuku'alofa\tNuku'alofa\t\t-21.13938\t-175.2018\tP\tPPLC\tTO\t\t\t\t\t\t22400\t\t\tPacific/Tongatapu\t2022-01-01",
+    "2205218\tLabasa\tLabasa\t\t-16.41667\t179.38333\tP\tPPL\tFJ\t\t\t\t\t\t27949\t\t\tPacific/Fiji\t2022-01-01",
+    "2653941\tThames\tThames\t\t51.5\t0.05\tH\tSTM\tGB\t\t\t\t\t\t0\t\t\tEurope/London\t2022-01-01");
+
+  @TempDir
+  Path tempDir;
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private GazetteerIndex gazetteerIndex;
+
+  private GazetteerGeolocationInfoRetriever gazetteerGeolocationInfoRetriever;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path file = Files.write(tempDir.resolve("cities.txt"), GAZETTEER_LINES, StandardCharsets.UTF_8);
+    gazetteerIndex = GazetteerIndex.load(file);
+    gazetteerGeolocationInfoRetriever = new GazetteerGeolocationInfoRetriever(delegate, gazetteerIndex,
+      MAX_DISTANCE_KILOMETERS, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void shouldLoadOnlyPopulatedPlaces() {
+    assertThat(gazetteerIndex.size()).isEqualTo(5);
+  }
+
+  @Test
+  void shouldReturnNearestPlace_WithoutCallingDelegate() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(55.755793, 37.617134);
+
+    //when
+    GeolocationInfo geolocationInfo = gazetteerGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    assertThat(geolocationInfo)
+      .extracting(GeolocationInfo::getCountry, GeolocationInfo::getLocality)
+      .containsExactly("Russia", "Moscow");
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldFindNearestPlace_AcrossAntimeridian() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(-16.42, -179.99);
+
+    //when
+    GeolocationInfo geolocationInfo = new GazetteerGeolocationInfoRetriever(delegate, gazetteerIndex, 200,
+      new SimpleMeterRegistry()).retrieve(geolocationCoordinates);
+
+    //then
+    assertThat(geolocationInfo)
+      .extracting(GeolocationInfo::getCountry, GeolocationInfo::getLocality)
+      .containsExactly("Fiji", "Labasa");
+  }
+
+  @Test
+  void shouldFallBackToDelegate_WhenNoPlaceWithinMaxDistance() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(6.411443, 64.293438);
+    GeolocationInfo delegateGeolocationInfo = new GeolocationInfo();
+    when(delegate.retrieve(geolocationCoordinates)).thenReturn(delegateGeolocationInfo);
+
+    //when
+    GeolocationInfo geolocationInfo = gazetteerGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    assertThat(geolocationInfo).isSameAs(delegateGeolocationInfo);
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelGeolocationInfoRetrieverUnitTest {
+
+  private static final GeolocationCoordinates START_COORDINATES = new GeolocationCoordinates(55.755793, 37.617134);
+
+  private static final GeolocationCoordinates FINAL_COORDINATES = new GeolocationCoordinates(38.899827, -77.037454);
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private GeolocationLookupExecutor lookupExecutor;
+
+  private Counter timedOutLookups;
+
+  private ParallelGeolocationInfoRetriever parallelGeolocationInfoRetriever;
+
+  @BeforeEach
+  void setUp() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    lookupExecutor = new GeolocationLookupExecutor(2, 10, meterRegistry);
+    timedOutLookups = meterRegistry.counter("geolocation.lookups.parallel.timeouts");
+    parallelGeolocationInfoRetriever = new ParallelGeolocationInfoRetriever(delegate, lookupExecutor,
+      Duration.ofMillis(500), timedOutLookups, false);
+  }
+
+  @AfterEach
+  void tearDown() {
+    lookupExecutor.shutdown();
+  }
+
+  @Test
+  void shouldRunLookupsConcurrently() {
+    //given
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    GeolocationInfo startGeolocationInfo = new GeolocationInfo();
+    GeolocationInfo finalGeolocationInfo = new GeolocationInfo();
+    when(delegate.retrieve(START_COORDINATES)).thenAnswer(invocation -> awaitOther(bothStarted, startGeolocationInfo));
+    when(delegate.retrieve(FINAL_COORDINATES)).thenAnswer(invocation -> awaitOther(bothStarted, finalGeolocationInfo));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      parallelGeolocationInfoRetriever.retrieveAll(List.of(START_COORDINATES, FINAL_COORDINATES));
+
+    //then
+    assertThat(results).containsOnly(
+      Map.entry(START_COORDINATES, GeolocationInfoResult.success(startGeolocationInfo)),
+      Map.entry(FINAL_COORDINATES, GeolocationInfoResult.success(finalGeolocationInfo)));
+  }
+
+  @Test
+  void shouldKeepOtherResult_AndCancelLookup_WhenOneLookupTimesOut() {
+    //given
+    CountDownLatch interrupted = new CountDownLatch(1);
+    GeolocationInfo startGeolocationInfo = new GeolocationInfo();
+    when(delegate.retrieve(START_COORDINATES)).thenReturn(startGeolocationInfo);
+    when(delegate.retrieve(FINAL_COORDINATES)).thenAnswer(invocation -> {
+      try {
+        Thread.sleep(5000);
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+      return new GeolocationInfo();
+    });
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      parallelGeolocationInfoRetriever.retrieveAll(List.of(START_COORDINATES, FINAL_COORDINATES));
+
+    //then
+    assertThat(results.get(START_COORDINATES)).isEqualTo(GeolocationInfoResult.success(startGeolocationInfo));
+    assertThat(results.get(FINAL_COORDINATES).getError())
+      .isInstanceOf(GeolocationEnrichmentException.class)
+      .hasMessageContaining("Timed out");
+    assertThat(timedOutLookups.count()).isEqualTo(1);
+    Awaitility.await().atMost(Duration.ofSeconds(1)).until(() -> interrupted.getCount() == 0);
+  }
+
+  @Test
+  void shouldFailLookupFast_WhenPoolIsSaturated() {
+    //given
+    GeolocationLookupExecutor saturatedExecutor = new GeolocationLookupExecutor(1, 1, new SimpleMeterRegistry());
+    ParallelGeolocationInfoRetriever retriever = new ParallelGeolocationInfoRetriever(delegate, saturatedExecutor,
+      Duration.ofMillis(500), timedOutLookups, false);
+    GeolocationCoordinates otherCoordinates = new GeolocationCoordinates(59.938676, 30.314494);
+    CountDownLatch released = new CountDownLatch(1);
+    when(delegate.retrieve(START_COORDINATES)).thenAnswer(invocation -> {
+      released.await(5, TimeUnit.SECONDS);
+      return new GeolocationInfo();
+    });
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      retriever.retrieveAll(List.of(START_COORDINATES, FINAL_COORDINATES, otherCoordinates));
+
+    //then
+    assertThat(results.get(otherCoordinates).getError()).isInstanceOf(GeolocationProviderUnavailableException.class);
+    released.countDown();
+    saturatedExecutor.shutdown();
+  }
+
+  @Test
+  void shouldLeaveBatchToInnerTiers_WhenBatchIsEnabled() {
+    //given
+    ParallelGeolocationInfoRetriever retriever = new ParallelGeolocationInfoRetriever(delegate, lookupExecutor,
+      Duration.ofMillis(500), timedOutLookups, true);
+    Map<GeolocationCoordinates, GeolocationInfoResult> batchResults = Map.of(
+      START_COORDINATES, GeolocationInfoResult.success(new GeolocationInfo()),
+      FINAL_COORDINATES, GeolocationInfoResult.success(new GeolocationInfo()));
+    when(delegate.retrieveAll(List.of(START_COORDINATES, FINAL_COORDINATES))).thenReturn(batchResults);
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      retriever.retrieveAll(List.of(START_COORDINATES, FINAL_COORDINATES));
+
+    //then
+    assertThat(results).isEqualTo(batchResults);
+    verify(delegate, never()).retrieve(any());
+  }
+
+  @Test
+  void shouldKeepOtherResult_WhenOneLookupFails() {
+    //given
+    GeolocationInfo finalGeolocationInfo = new GeolocationInfo();
+    NotFoundException notFoundException = new NotFoundException("Geolocation info not found");
+    when(delegate.retrieve(START_COORDINATES)).thenThrow(notFoundException);
+    when(delegate.retrieve(FINAL_COORDINATES)).thenReturn(finalGeolocationInfo);
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      parallelGeolocationInfoRetriever.retrieveAll(List.of(START_COORDINATES, FINAL_COORDINATES));
+
+    //then
+    assertThat(results).containsOnly(
+      Map.entry(START_COORDINATES, GeolocationInfoResult.failure(notFoundException)),
+      Map.entry(FINAL_COORDINATES, GeolocationInfoResult.success(finalGeolocationInfo)));
+  }
+
+  private GeolocationInfo awaitOther(CountDownLatch bothStarted, GeolocationInfo geolocationInfo)
+    throws InterruptedException {
+    bothStarted.countDown();
+    if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("Lookups did not run concurrently");
+    }
+    return geolocationInfo;
+  }
+}
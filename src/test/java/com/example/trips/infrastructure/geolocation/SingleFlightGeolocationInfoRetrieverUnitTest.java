@@ -0,0 +1,187 @@
+package com.example.trips.infrastructure.geolocation;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SingleFlightGeolocationInfoRetrieverUnitTest {
+
+  private static final int CONCURRENT_CALLERS = 8;
+
+  private static final double LATITUDE = 55.755793;
+
+  private static final double LONGITUDE = 37.617134;
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private Counter coalescedCalls;
+
+  private SingleFlightGeolocationInfoRetriever singleFlightGeolocationInfoRetriever;
+
+  private ExecutorService executorService;
+
+  @BeforeEach
+  void setUp() {
+    coalescedCalls = new SimpleMeterRegistry().counter("geolocation.lookups.coalesced");
+    singleFlightGeolocationInfoRetriever = new SingleFlightGeolocationInfoRetriever(delegate, 4, coalescedCalls);
+    executorService = Executors.newFixedThreadPool(CONCURRENT_CALLERS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void shouldShareOneDelegateCall_BetweenConcurrentCallersForSameCoordinates() throws Exception {
+    //given
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    CountDownLatch release = new CountDownLatch(1);
+    when(delegate.retrieve(any())).thenAnswer(invocation -> {
+      release.await();
+      return geolocationInfo;
+    });
+
+    //when
+    List<Future<GeolocationInfo>> results = submitConcurrentCalls();
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> coalescedCalls.count() == CONCURRENT_CALLERS - 1);
+    release.countDown();
+
+    //then
+    for (Future<GeolocationInfo> result : results) {
+      assertThat(result.get()).isSameAs(geolocationInfo);
+    }
+    verify(delegate, times(1)).retrieve(any());
+  }
+
+  @Test
+  void shouldShareFailure_BetweenConcurrentCallersForSameCoordinates() {
+    //given
+    CountDownLatch release = new CountDownLatch(1);
+    when(delegate.retrieve(any())).thenAnswer(invocation -> {
+      release.await();
+      throw new GeolocationEnrichmentException("Provider is unavailable");
+    });
+
+    //when
+    List<Future<GeolocationInfo>> results = submitConcurrentCalls();
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> coalescedCalls.count() == CONCURRENT_CALLERS - 1);
+    release.countDown();
+
+    //then
+    for (Future<GeolocationInfo> result : results) {
+      assertThatThrownBy(result::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(GeolocationEnrichmentException.class);
+    }
+    verify(delegate, times(1)).retrieve(any());
+  }
+
+  @Test
+  void shouldCallDelegateAgain_AfterInFlightCallCompleted() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    when(delegate.retrieve(geolocationCoordinates)).thenReturn(new GeolocationInfo());
+
+    //when
+    singleFlightGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+    singleFlightGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    verify(delegate, times(2)).retrieve(geolocationCoordinates);
+    assertThat(coalescedCalls.count()).isZero();
+  }
+
+  @Test
+  void shouldAwaitInFlightCall_AndDelegateOnlyUnclaimedCoordinates_WhenRetrievingAll() throws Exception {
+    //given
+    GeolocationCoordinates inFlightCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationCoordinates otherCoordinates = new GeolocationCoordinates(38.899827, -77.037454);
+    GeolocationInfo inFlightGeolocationInfo = new GeolocationInfo();
+    GeolocationInfo otherGeolocationInfo = new GeolocationInfo();
+    CountDownLatch release = new CountDownLatch(1);
+    when(delegate.retrieve(inFlightCoordinates)).thenAnswer(invocation -> {
+      release.await();
+      return inFlightGeolocationInfo;
+    });
+    when(delegate.retrieveAll(List.of(otherCoordinates)))
+      .thenReturn(Map.of(otherCoordinates, GeolocationInfoResult.success(otherGeolocationInfo)));
+    Future<GeolocationInfo> inFlightCall = executorService.submit(() ->
+      singleFlightGeolocationInfoRetriever.retrieve(inFlightCoordinates));
+    Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> verify(delegate).retrieve(inFlightCoordinates));
+
+    //when
+    Future<Map<GeolocationCoordinates, GeolocationInfoResult>> results = executorService.submit(() ->
+      singleFlightGeolocationInfoRetriever.retrieveAll(List.of(inFlightCoordinates, otherCoordinates)));
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> coalescedCalls.count() == 1);
+    release.countDown();
+
+    //then
+    assertThat(results.get()).containsOnly(
+      Map.entry(inFlightCoordinates, GeolocationInfoResult.success(inFlightGeolocationInfo)),
+      Map.entry(otherCoordinates, GeolocationInfoResult.success(otherGeolocationInfo)));
+    assertThat(inFlightCall.get()).isSameAs(inFlightGeolocationInfo);
+    verify(delegate, times(1)).retrieveAll(anyCollection());
+  }
+
+  @Test
+  void shouldShareOneAsyncDelegateCall_BetweenCallersForSameCoordinates() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    CompletableFuture<GeolocationInfo> delegateCall = new CompletableFuture<>();
+    when(delegate.retrieveAsync(geolocationCoordinates)).thenReturn(delegateCall);
+
+    //when
+    CompletableFuture<GeolocationInfo> firstCall = singleFlightGeolocationInfoRetriever.retrieveAsync(geolocationCoordinates);
+    CompletableFuture<GeolocationInfo> secondCall = singleFlightGeolocationInfoRetriever.retrieveAsync(geolocationCoordinates);
+    delegateCall.complete(geolocationInfo);
+
+    //then
+    assertThat(firstCall.join()).isSameAs(geolocationInfo);
+    assertThat(secondCall.join()).isSameAs(geolocationInfo);
+    verify(delegate, times(1)).retrieveAsync(geolocationCoordinates);
+    assertThat(coalescedCalls.count()).isEqualTo(1);
+  }
+
+  private List<Future<GeolocationInfo>> submitConcurrentCalls() {
+    List<Future<GeolocationInfo>> results = new ArrayList<>();
+    for (int i = 0; i < CONCURRENT_CALLERS; i++) {
+      results.add(executorService.submit(() ->
+        singleFlightGeolocationInfoRetriever.retrieve(new GeolocationCoordinates(LATITUDE, LONGITUDE))));
+    }
+    return results;
+  }
+}
@@ -0,0 +1,108 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripOutbox;
+import com.example.trips.api.repository.TripRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MongoDbTripOutboxIntegrationTest {
+
+  private static final LocalDateTime START_TIME = LocalDateTime.of(2022, 2, 1, 1, 1, 1);
+
+  private static final LocalDateTime END_TIME = LocalDateTime.of(2022, 3, 1, 1, 1, 1);
+
+  @Autowired
+  private TripRepository tripRepository;
+
+  @Autowired
+  private TripOutbox tripOutbox;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Test
+  void shouldMarkTripPendingPublication_InSavedDocument() {
+    //when
+    Trip trip = tripRepository.save(buildTrip());
+
+    //then
+    assertThat(mongoTemplate.findById(trip.getId(), TripEntity.class))
+      .extracting(TripEntity::getVersion, TripEntity::getPendingPublicationSince)
+      .doesNotContainNull();
+    assertThat(tripOutbox.findPendingSince(LocalDateTime.now().plusSeconds(1), 10))
+      .extracting(TripDto::getId, TripDto::getVersion)
+      .containsExactly(tuple(trip.getId(), 0L));
+  }
+
+  @Test
+  void shouldLeaveTripPending_WhenOlderVersionIsMarkedPublished() {
+    //given
+    Trip firstVersion = tripRepository.save(buildTrip());
+    Trip secondVersion = tripRepository.save(
+      Trip.builderFromExisting(firstVersion).withOwnerEmail("test-updated@mail.com").build());
+
+    //when
+    tripOutbox.markPublished(List.of(TripDto.fromTrip(firstVersion)));
+
+    //then
+    assertThat(mongoTemplate.findById(secondVersion.getId(), TripEntity.class))
+      .extracting(TripEntity::getPendingPublicationSince)
+      .isNotNull();
+    assertThat(tripOutbox.findOldestPendingSince()).isPresent();
+  }
+
+  @Test
+  void shouldClearPendingPublication_WhenCurrentVersionIsMarkedPublished() {
+    //given
+    Trip trip = tripRepository.save(buildTrip());
+
+    //when
+    tripOutbox.markPublished(List.of(TripDto.fromTrip(trip)));
+
+    //then
+    assertThat(mongoTemplate.findById(trip.getId(), TripEntity.class))
+      .extracting(TripEntity::getPendingPublicationSince)
+      .isNull();
+    assertThat(tripOutbox.findOldestPendingSince()).isEmpty();
+  }
+
+  @AfterEach
+  @BeforeEach
+  void clear() {
+    tripRepository.deleteAll();
+  }
+
+  private Trip buildTrip() {
+    return Trip.builder()
+      .withStartDestination(buildGeolocationData(55.755793, 37.617134))
+      .withFinalDestination(buildGeolocationData(38.899827, -77.037454))
+      .withOwnerEmail("test@mail.com")
+      .withStartTime(START_TIME)
+      .withEndTime(END_TIME)
+      .withDateCreated(LocalDateTime.now())
+      .build();
+  }
+
+  private GeolocationData buildGeolocationData(double latitude, double longitude) {
+    GeolocationData geolocationData = new GeolocationData();
+    geolocationData.setLatitude(latitude);
+    geolocationData.setLongitude(longitude);
+    return geolocationData;
+  }
+}
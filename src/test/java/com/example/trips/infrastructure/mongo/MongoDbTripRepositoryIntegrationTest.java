@@ -0,0 +1,102 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.repository.TripRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MongoDbTripRepositoryIntegrationTest {
+
+  private static final LocalDateTime START_TIME = LocalDateTime.of(2022, 2, 1, 1, 1, 1);
+
+  private static final LocalDateTime END_TIME = LocalDateTime.of(2022, 3, 1, 1, 1, 1);
+
+  private static final double MOSCOW_LATITUDE = 55.755793;
+
+  private static final double MOSCOW_LONGITUDE = 37.617134;
+
+  private static final double WASHINGTON_LATITUDE = 38.899827;
+
+  private static final double WASHINGTON_LONGITUDE = -77.037454;
+
+  @Autowired
+  private TripRepository tripRepository;
+
+  @Test
+  void shouldUpdateGeolocation_IfTripIsStillAtEnrichedVersion() {
+    //given
+    Trip trip = tripRepository.save(buildTrip());
+
+    //when
+    boolean updated = tripRepository.updateGeolocation(enrich(trip));
+
+    //then
+    assertThat(updated).isTrue();
+    assertThat(tripRepository.findById(trip.getId()))
+      .get()
+      .extracting(storedTrip -> storedTrip.getStartDestination().getCountry(), Trip::getVersion)
+      .containsExactly("Russia", 0L);
+  }
+
+  @Test
+  void shouldNotUpdateGeolocation_IfTripWasSavedSinceEnrichedVersion() {
+    //given
+    Trip trip = tripRepository.save(buildTrip());
+    tripRepository.save(Trip.builderFromExisting(trip).withOwnerEmail("test-updated@mail.com").build());
+
+    //when
+    boolean updated = tripRepository.updateGeolocation(enrich(trip));
+
+    //then
+    assertThat(updated).isFalse();
+    assertThat(tripRepository.findById(trip.getId()))
+      .get()
+      .extracting(storedTrip -> storedTrip.getStartDestination().getCountry(), Trip::getVersion)
+      .containsExactly(null, 1L);
+  }
+
+  @AfterEach
+  @BeforeEach
+  void clear() {
+    tripRepository.deleteAll();
+  }
+
+  private Trip enrich(Trip trip) {
+    return Trip.builderFromExisting(trip)
+      .withStartDestination(buildGeolocationData(MOSCOW_LATITUDE, MOSCOW_LONGITUDE, "Russia", "Moscow"))
+      .withFinalDestination(buildGeolocationData(WASHINGTON_LATITUDE, WASHINGTON_LONGITUDE, "United States",
+        "Washington"))
+      .build();
+  }
+
+  private Trip buildTrip() {
+    return Trip.builder()
+      .withStartDestination(buildGeolocationData(MOSCOW_LATITUDE, MOSCOW_LONGITUDE, null, null))
+      .withFinalDestination(buildGeolocationData(WASHINGTON_LATITUDE, WASHINGTON_LONGITUDE, null, null))
+      .withOwnerEmail("test@mail.com")
+      .withStartTime(START_TIME)
+      .withEndTime(END_TIME)
+      .withDateCreated(LocalDateTime.now())
+      .build();
+  }
+
+  private GeolocationData buildGeolocationData(double latitude, double longitude, String country, String locality) {
+    GeolocationData geolocationData = new GeolocationData();
+    geolocationData.setLatitude(latitude);
+    geolocationData.setLongitude(longitude);
+    geolocationData.setCountry(country);
+    geolocationData.setLocality(locality);
+    return geolocationData;
+  }
+}
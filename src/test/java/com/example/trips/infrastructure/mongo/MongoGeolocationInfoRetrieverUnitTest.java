@@ -0,0 +1,159 @@
+package com.example.trips.infrastructure.mongo;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MongoGeolocationInfoRetrieverUnitTest {
+
+  private static final int COORDINATES_SCALE = 4;
+
+  private static final double LATITUDE = 55.755793;
+
+  private static final double LONGITUDE = 37.617134;
+
+  private static final String STORED_ID = "55.7558,37.6171";
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  @Mock
+  private SpringDataMongoGeolocationInfoRepository geolocationInfoRepository;
+
+  @Mock
+  private GeolocationInfoStoreWriter geolocationInfoStoreWriter;
+
+  private MongoGeolocationInfoRetriever mongoGeolocationInfoRetriever;
+
+  @BeforeEach
+  void setUp() {
+    mongoGeolocationInfoRetriever = new MongoGeolocationInfoRetriever(delegate, geolocationInfoRepository,
+      new GeolocationInfoEntityMapper(), geolocationInfoStoreWriter, Runnable::run, COORDINATES_SCALE);
+  }
+
+  @Test
+  void shouldReturnStoredGeolocationInfo_WithoutCallingDelegate() {
+    //given
+    GeolocationInfoEntity storedEntity = new GeolocationInfoEntity(STORED_ID, 55.7558, 37.6171, "Russia", "Moscow",
+      Instant.now());
+    when(geolocationInfoRepository.findById(STORED_ID)).thenReturn(Optional.of(storedEntity));
+
+    //when
+    GeolocationInfo geolocationInfo = mongoGeolocationInfoRetriever.retrieve(new GeolocationCoordinates(LATITUDE, LONGITUDE));
+
+    //then
+    assertThat(geolocationInfo)
+      .extracting(GeolocationInfo::getCountry, GeolocationInfo::getLocality)
+      .containsExactly("Russia", "Moscow");
+    verifyNoInteractions(delegate);
+    verifyNoInteractions(geolocationInfoStoreWriter);
+  }
+
+  @Test
+  void shouldCallDelegateAndStoreResultAsynchronously_WhenNotStored() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationInfo geolocationInfo = buildGeolocationInfo();
+    when(geolocationInfoRepository.findById(STORED_ID)).thenReturn(Optional.empty());
+    when(delegate.retrieve(geolocationCoordinates)).thenReturn(geolocationInfo);
+    ArgumentCaptor<GeolocationInfoEntity> captor = ArgumentCaptor.forClass(GeolocationInfoEntity.class);
+
+    //when
+    GeolocationInfo retrievedGeolocationInfo = mongoGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    assertThat(retrievedGeolocationInfo).isEqualTo(geolocationInfo);
+    verify(geolocationInfoStoreWriter).writeAsync(captor.capture());
+    assertThat(captor.getValue())
+      .extracting(GeolocationInfoEntity::getId, GeolocationInfoEntity::getCountry, GeolocationInfoEntity::getLocality)
+      .containsExactly(STORED_ID, "Russia", "Moscow");
+  }
+
+  @Test
+  void shouldFallBackToDelegate_WhenStoreIsUnavailable() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationInfo geolocationInfo = buildGeolocationInfo();
+    when(geolocationInfoRepository.findById(STORED_ID)).thenThrow(DataAccessResourceFailureException.class);
+    when(delegate.retrieve(geolocationCoordinates)).thenReturn(geolocationInfo);
+
+    //when
+    GeolocationInfo retrievedGeolocationInfo = mongoGeolocationInfoRetriever.retrieve(geolocationCoordinates);
+
+    //then
+    assertThat(retrievedGeolocationInfo).isEqualTo(geolocationInfo);
+  }
+
+  @Test
+  void shouldReadStoreOnStoreReadExecutor_WhenRetrievingAsynchronously() {
+    //given
+    List<Runnable> storeReads = new ArrayList<>();
+    mongoGeolocationInfoRetriever = new MongoGeolocationInfoRetriever(delegate, geolocationInfoRepository,
+      new GeolocationInfoEntityMapper(), geolocationInfoStoreWriter, storeReads::add, COORDINATES_SCALE);
+    GeolocationInfoEntity storedEntity = new GeolocationInfoEntity(STORED_ID, 55.7558, 37.6171, "Russia", "Moscow",
+      Instant.now());
+    when(geolocationInfoRepository.findById(STORED_ID)).thenReturn(Optional.of(storedEntity));
+
+    //when
+    CompletableFuture<GeolocationInfo> geolocationInfo =
+      mongoGeolocationInfoRetriever.retrieveAsync(new GeolocationCoordinates(LATITUDE, LONGITUDE));
+
+    //then
+    assertThat(geolocationInfo).isNotDone();
+    verifyNoInteractions(geolocationInfoRepository);
+    storeReads.forEach(Runnable::run);
+    assertThat(geolocationInfo.join())
+      .extracting(GeolocationInfo::getCountry, GeolocationInfo::getLocality)
+      .containsExactly("Russia", "Moscow");
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldCallDelegateAsynchronously_WhenStoreReadExecutorIsFull() {
+    //given
+    mongoGeolocationInfoRetriever = new MongoGeolocationInfoRetriever(delegate, geolocationInfoRepository,
+      new GeolocationInfoEntityMapper(), geolocationInfoStoreWriter, command -> {
+        throw new RejectedExecutionException();
+      }, COORDINATES_SCALE);
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationInfo geolocationInfo = buildGeolocationInfo();
+    when(delegate.retrieveAsync(geolocationCoordinates)).thenReturn(CompletableFuture.completedFuture(geolocationInfo));
+
+    //when
+    CompletableFuture<GeolocationInfo> retrievedGeolocationInfo =
+      mongoGeolocationInfoRetriever.retrieveAsync(geolocationCoordinates);
+
+    //then
+    assertThat(retrievedGeolocationInfo.join()).isEqualTo(geolocationInfo);
+    verifyNoInteractions(geolocationInfoRepository);
+    verify(geolocationInfoStoreWriter).writeAsync(any(GeolocationInfoEntity.class));
+  }
+
+  private GeolocationInfo buildGeolocationInfo() {
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry("Russia");
+    geolocationInfo.setLocality("Moscow");
+    return geolocationInfo;
+  }
+}
@@ -0,0 +1,209 @@
+package com.example.trips.infrastructure.proximity;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProximityGeolocationInfoRetrieverUnitTest {
+
+  private static final double RADIUS_METERS = 50;
+
+  private static final int MIN_AGREEING_POINTS = 2;
+
+  private static final GeolocationCoordinates RED_SQUARE = new GeolocationCoordinates(55.753930, 37.620795);
+
+  // about 30 metres north of RED_SQUARE
+  private static final GeolocationCoordinates NEAR_RED_SQUARE = new GeolocationCoordinates(55.754200, 37.620795);
+
+  // about 16 metres south-west and north-east of NEAR_RED_SQUARE
+  private static final GeolocationCoordinates SOUTH_WEST_OF_QUERY = new GeolocationCoordinates(55.754100, 37.620600);
+
+  private static final GeolocationCoordinates NORTH_EAST_OF_QUERY = new GeolocationCoordinates(55.754300, 37.621000);
+
+  // about 300 metres north of RED_SQUARE
+  private static final GeolocationCoordinates FAR_FROM_RED_SQUARE = new GeolocationCoordinates(55.756630, 37.620795);
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private MeterRegistry meterRegistry;
+
+  private ProximityGeolocationInfoRetriever proximityGeolocationInfoRetriever;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    ProximityIndex proximityIndex = new ProximityIndex(Caffeine.newBuilder().maximumSize(100).build(),
+      RADIUS_METERS, 4, MIN_AGREEING_POINTS);
+    proximityGeolocationInfoRetriever = new ProximityGeolocationInfoRetriever(delegate, proximityIndex, meterRegistry);
+  }
+
+  @Test
+  void shouldReuseNearbyResult_WhenAgreeingNeighboursSurroundQuery() {
+    //given
+    GeolocationInfo moscow = buildGeolocationInfo("Russia", "Moscow");
+    when(delegate.retrieve(any())).thenReturn(moscow);
+    proximityGeolocationInfoRetriever.retrieve(SOUTH_WEST_OF_QUERY);
+    proximityGeolocationInfoRetriever.retrieve(NORTH_EAST_OF_QUERY);
+
+    //when
+    GeolocationInfo nearbyGeolocationInfo = proximityGeolocationInfoRetriever.retrieve(NEAR_RED_SQUARE);
+    GeolocationInfo sameGeolocationInfo = proximityGeolocationInfoRetriever.retrieve(SOUTH_WEST_OF_QUERY);
+
+    //then
+    assertThat(nearbyGeolocationInfo).isSameAs(moscow);
+    assertThat(sameGeolocationInfo).isSameAs(moscow);
+    verify(delegate, times(2)).retrieve(any());
+    assertThat(lookups("approximate")).isEqualTo(1);
+    assertThat(lookups("exact")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCallDelegate_WhenOnlyOneNeighbourIsWithinRadius() {
+    //given
+    when(delegate.retrieve(any())).thenReturn(buildGeolocationInfo("Russia", "Moscow"));
+    proximityGeolocationInfoRetriever.retrieve(RED_SQUARE);
+
+    //when
+    proximityGeolocationInfoRetriever.retrieve(NEAR_RED_SQUARE);
+
+    //then
+    verify(delegate).retrieve(NEAR_RED_SQUARE);
+    assertThat(lookups("approximate")).isZero();
+  }
+
+  @Test
+  void shouldCallDelegate_WhenQueryIsOutsideBoundingBoxOfNeighbours() {
+    //given
+    // both about 30 metres south of the query, so a border may run between them and the query
+    GeolocationCoordinates southWest = new GeolocationCoordinates(55.753930, 37.620600);
+    GeolocationCoordinates southEast = new GeolocationCoordinates(55.753930, 37.621000);
+    when(delegate.retrieve(any())).thenReturn(buildGeolocationInfo("Russia", "Moscow"));
+    proximityGeolocationInfoRetriever.retrieve(southWest);
+    proximityGeolocationInfoRetriever.retrieve(southEast);
+
+    //when
+    proximityGeolocationInfoRetriever.retrieve(NEAR_RED_SQUARE);
+
+    //then
+    verify(delegate).retrieve(NEAR_RED_SQUARE);
+    assertThat(lookups("approximate")).isZero();
+  }
+
+  @Test
+  void shouldCallDelegate_WhenNoResultWithinRadius() {
+    //given
+    when(delegate.retrieve(any())).thenReturn(buildGeolocationInfo("Russia", "Moscow"));
+
+    //when
+    proximityGeolocationInfoRetriever.retrieve(RED_SQUARE);
+    proximityGeolocationInfoRetriever.retrieve(FAR_FROM_RED_SQUARE);
+
+    //then
+    verify(delegate).retrieve(FAR_FROM_RED_SQUARE);
+    assertThat(lookups("miss")).isEqualTo(2);
+  }
+
+  @Test
+  void shouldCallDelegate_WhenNeighboursDisagreeOnLocality() {
+    //given
+    // about 31 metres each side of the query and 62 metres from each other
+    GeolocationCoordinates westOfQuery = new GeolocationCoordinates(55.754200, 37.620300);
+    GeolocationCoordinates eastOfQuery = new GeolocationCoordinates(55.754200, 37.621300);
+    when(delegate.retrieve(westOfQuery)).thenReturn(buildGeolocationInfo("Russia", "Moscow"));
+    when(delegate.retrieve(eastOfQuery)).thenReturn(buildGeolocationInfo("Russia", "Kotelniki"));
+    when(delegate.retrieve(NEAR_RED_SQUARE)).thenReturn(buildGeolocationInfo("Russia", "Moscow"));
+    proximityGeolocationInfoRetriever.retrieve(westOfQuery);
+    proximityGeolocationInfoRetriever.retrieve(eastOfQuery);
+
+    //when
+    proximityGeolocationInfoRetriever.retrieve(NEAR_RED_SQUARE);
+
+    //then
+    verify(delegate).retrieve(NEAR_RED_SQUARE);
+    assertThat(lookups("approximate")).isZero();
+  }
+
+  @Test
+  void shouldNotReuseResult_WithoutLocality() {
+    //given
+    when(delegate.retrieve(any())).thenReturn(buildGeolocationInfo("Russia", null));
+
+    //when
+    proximityGeolocationInfoRetriever.retrieve(RED_SQUARE);
+    proximityGeolocationInfoRetriever.retrieve(NEAR_RED_SQUARE);
+
+    //then
+    verify(delegate, times(2)).retrieve(any());
+  }
+
+  @Test
+  void shouldFindNeighbours_AcrossAntimeridian() {
+    //given
+    GeolocationCoordinates westOfAntimeridian = new GeolocationCoordinates(-16.5001, 179.9999);
+    GeolocationCoordinates eastOfAntimeridian = new GeolocationCoordinates(-16.4999, -179.9999);
+    GeolocationCoordinates query = new GeolocationCoordinates(-16.5, -179.99995);
+    GeolocationInfo fiji = buildGeolocationInfo("Fiji", "Labasa");
+    when(delegate.retrieve(any())).thenReturn(fiji);
+    proximityGeolocationInfoRetriever.retrieve(westOfAntimeridian);
+    proximityGeolocationInfoRetriever.retrieve(eastOfAntimeridian);
+
+    //when
+    GeolocationInfo geolocationInfo = proximityGeolocationInfoRetriever.retrieve(query);
+
+    //then
+    assertThat(geolocationInfo).isSameAs(fiji);
+    assertThat(lookups("approximate")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldPassOnlyUnresolvedCoordinatesToDelegate_WhenRetrievingAll() {
+    //given
+    GeolocationInfo moscow = buildGeolocationInfo("Russia", "Moscow");
+    when(delegate.retrieve(any())).thenReturn(moscow);
+    proximityGeolocationInfoRetriever.retrieve(SOUTH_WEST_OF_QUERY);
+    proximityGeolocationInfoRetriever.retrieve(NORTH_EAST_OF_QUERY);
+    GeolocationInfo farGeolocationInfo = buildGeolocationInfo("Russia", "Moscow");
+    when(delegate.retrieveAll(List.of(FAR_FROM_RED_SQUARE)))
+      .thenReturn(Map.of(FAR_FROM_RED_SQUARE, GeolocationInfoResult.success(farGeolocationInfo)));
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      proximityGeolocationInfoRetriever.retrieveAll(List.of(NEAR_RED_SQUARE, FAR_FROM_RED_SQUARE));
+
+    //then
+    assertThat(results).containsOnly(
+      Map.entry(NEAR_RED_SQUARE, GeolocationInfoResult.success(moscow)),
+      Map.entry(FAR_FROM_RED_SQUARE, GeolocationInfoResult.success(farGeolocationInfo)));
+  }
+
+  private double lookups(String result) {
+    return meterRegistry.counter("geolocation.proximity.lookups", "result", result).count();
+  }
+
+  private GeolocationInfo buildGeolocationInfo(String country, String locality) {
+    GeolocationInfo geolocationInfo = new GeolocationInfo();
+    geolocationInfo.setCountry(country);
+    geolocationInfo.setLocality(locality);
+    return geolocationInfo;
+  }
+}
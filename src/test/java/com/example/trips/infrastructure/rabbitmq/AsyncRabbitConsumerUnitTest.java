@@ -0,0 +1,286 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripRepository;
+import com.example.trips.api.service.TripEnricher;
+import com.example.trips.api.service.TripService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncRabbitConsumerUnitTest {
+
+  private static final String TRIP_ID = "test";
+
+  private static final Message MESSAGE = new Message(new byte[0], new MessageProperties());
+
+  @Mock
+  private TripService tripService;
+
+  @Mock
+  private TripRepository tripRepository;
+
+  @Mock
+  private TripEnricher tripEnricher;
+
+  @Mock
+  private EnrichmentRetryQueues enrichmentRetryQueues;
+
+  private EnrichmentStoreExecutor storeExecutor;
+
+  private AsyncRabbitConsumer asyncRabbitConsumer;
+
+  @BeforeEach
+  void setUp() {
+    storeExecutor = new EnrichmentStoreExecutor(1, 10, new SimpleMeterRegistry());
+    asyncRabbitConsumer = new AsyncRabbitConsumer(tripService, tripRepository, tripEnricher,
+      new EnrichmentDeduplicator(tripRepository, new SimpleMeterRegistry()), new TripDtoMapper(), enrichmentRetryQueues,
+      storeExecutor, new AsyncEnrichmentConsumerProperties(1, 10, Duration.ofMillis(200), 1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    storeExecutor.shutdown();
+  }
+
+  @Test
+  void shouldSaveEnrichedTrip_WhenEnrichmentCompletes() throws Exception {
+    //given
+    Trip trip = Trip.builder().withId(TRIP_ID).build();
+    Trip enrichedTrip = Trip.builder().withId(TRIP_ID).withOwnerEmail("test@mail.com").build();
+    CompletableFuture<Trip> enrichment = new CompletableFuture<>();
+    when(tripService.findById(TRIP_ID)).thenReturn(trip);
+    when(tripEnricher.enrichAsync(trip)).thenReturn(enrichment);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+    boolean doneBeforeEnrichment = acknowledgement.isDone();
+    enrichment.complete(enrichedTrip);
+
+    //then
+    assertThat(doneBeforeEnrichment).isFalse();
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(tripRepository).updateGeolocation(enrichedTrip);
+  }
+
+  @Test
+  void shouldReadAndSaveTrip_OffThreadCompletingEnrichment() throws Exception {
+    //given
+    Trip trip = Trip.builder().withId(TRIP_ID).build();
+    Trip enrichedTrip = Trip.builder().withId(TRIP_ID).withOwnerEmail("test@mail.com").build();
+    List<String> storeThreads = new CopyOnWriteArrayList<>();
+    when(tripService.findById(TRIP_ID)).thenAnswer(invocation -> {
+      storeThreads.add(Thread.currentThread().getName());
+      return trip;
+    });
+    when(tripEnricher.enrichAsync(trip)).thenReturn(CompletableFuture.completedFuture(enrichedTrip));
+    when(tripRepository.updateGeolocation(enrichedTrip)).thenAnswer(invocation -> {
+      storeThreads.add(Thread.currentThread().getName());
+      return true;
+    });
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    assertThat(storeThreads).hasSize(2).allMatch(thread -> thread.startsWith("enrichment-store-"));
+  }
+
+  @Test
+  void shouldDeferMessage_WhenGeolocationProviderIsUnavailable() throws Exception {
+    //given
+    Trip trip = Trip.builder().withId(TRIP_ID).build();
+    when(tripService.findById(TRIP_ID)).thenReturn(trip);
+    when(tripEnricher.enrichAsync(trip)).thenReturn(CompletableFuture.failedFuture(
+      new GeolocationProviderUnavailableException("Geolocation provider circuit breaker is OPEN")));
+
+    when(enrichmentRetryQueues.deferLater(MESSAGE)).thenReturn(true);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(enrichmentRetryQueues).deferLater(MESSAGE);
+    verify(enrichmentRetryQueues, never()).retryLater(any(Message.class));
+    verifyNoInteractions(tripRepository);
+  }
+
+  @Test
+  void shouldDeferMessage_WhenEnrichmentTimesOut() throws Exception {
+    //given
+    Trip trip = Trip.builder().withId(TRIP_ID).build();
+    when(tripService.findById(TRIP_ID)).thenReturn(trip);
+    when(tripEnricher.enrichAsync(trip)).thenReturn(new CompletableFuture<>());
+
+    when(enrichmentRetryQueues.deferLater(MESSAGE)).thenReturn(true);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(enrichmentRetryQueues).deferLater(MESSAGE);
+    verifyNoInteractions(tripRepository);
+  }
+
+  @Test
+  void shouldRetryMessageLater_WhenItWasDeferredTooOften() throws Exception {
+    //given
+    Trip trip = Trip.builder().withId(TRIP_ID).build();
+    when(tripService.findById(TRIP_ID)).thenReturn(trip);
+    when(tripEnricher.enrichAsync(trip)).thenReturn(CompletableFuture.failedFuture(
+      new GeolocationProviderUnavailableException("Geolocation provider circuit breaker is OPEN")));
+    when(enrichmentRetryQueues.deferLater(MESSAGE)).thenReturn(false);
+    when(enrichmentRetryQueues.retryLater(MESSAGE)).thenReturn(true);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(enrichmentRetryQueues).retryLater(MESSAGE);
+  }
+
+  @Test
+  void shouldRequeueMessage_WhenBrokerDoesNotConfirmDeferredCopy() {
+    //given
+    Trip trip = Trip.builder().withId(TRIP_ID).build();
+    when(tripService.findById(TRIP_ID)).thenReturn(trip);
+    when(tripEnricher.enrichAsync(trip)).thenReturn(CompletableFuture.failedFuture(
+      new GeolocationProviderUnavailableException("Geolocation provider circuit breaker is OPEN")));
+    doThrow(new ImmediateRequeueAmqpException("Message was not confirmed")).when(enrichmentRetryQueues)
+      .deferLater(MESSAGE);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    assertThatThrownBy(() -> acknowledgement.get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(ImmediateRequeueAmqpException.class);
+  }
+
+  @Test
+  void shouldRetryMessageLater_WhenTripIsNotFound() throws Exception {
+    //given
+    when(tripService.findById(TRIP_ID)).thenThrow(new NotFoundException("Trip not found"));
+    when(enrichmentRetryQueues.retryLater(MESSAGE)).thenReturn(true);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(enrichmentRetryQueues).retryLater(MESSAGE);
+    verifyNoInteractions(tripEnricher);
+  }
+
+  @Test
+  void shouldRetryWaitingMessage_InsteadOfConsumedOne_WhenEnrichmentFails() throws Exception {
+    //given
+    TripDto consumed = new TripDto(TRIP_ID, null, new GeolocationCoordinates(55.555555, 44.444444),
+      new GeolocationCoordinates(55.555555, 44.444444));
+    TripDto waiting = new TripDto(TRIP_ID, null, new GeolocationCoordinates(38.899827, -77.037454),
+      new GeolocationCoordinates(38.899827, -77.037454));
+    CompletableFuture<Trip> enrichment = new CompletableFuture<>();
+    when(tripEnricher.enrichAsync(any())).thenReturn(enrichment);
+    when(enrichmentRetryQueues.retryOrDeferLater(eq(waiting), any())).thenReturn(true);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(consumed, MESSAGE);
+    ListenableFuture<Void> waitingAcknowledgement = asyncRabbitConsumer.consume(waiting, MESSAGE);
+    enrichment.completeExceptionally(new IllegalStateException("Unexpected response"));
+
+    //then
+    waitingAcknowledgement.get(5, TimeUnit.SECONDS);
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(enrichmentRetryQueues).retryOrDeferLater(eq(waiting), any(IllegalStateException.class));
+    verify(enrichmentRetryQueues, never()).retryLater(any(Message.class));
+    verify(tripRepository, never()).updateGeolocation(any());
+  }
+
+  @Test
+  void shouldRejectMessage_WhenTripIsNotFoundAfterEveryRetry() {
+    //given
+    when(tripService.findById(TRIP_ID)).thenThrow(new NotFoundException("Trip not found"));
+    when(enrichmentRetryQueues.retryLater(MESSAGE)).thenReturn(false);
+
+    //when
+    ListenableFuture<Void> acknowledgement = asyncRabbitConsumer.consume(new TripDto(TRIP_ID), MESSAGE);
+
+    //then
+    assertThatThrownBy(() -> acknowledgement.get(5, TimeUnit.SECONDS))
+      .isInstanceOf(ExecutionException.class)
+      .hasCauseInstanceOf(AmqpRejectAndDontRequeueException.class);
+    verifyNoInteractions(tripEnricher);
+    verify(tripService).findById(any());
+  }
+
+  @Test
+  void shouldUpdateGeolocationOfTripFromMessage_WithoutReadingIt() throws Exception {
+    //given
+    GeolocationCoordinates coordinates = new GeolocationCoordinates(55.555555, 44.444444);
+    Trip enrichedTrip = Trip.builder().withId(TRIP_ID).withOwnerEmail("test@mail.com").build();
+    when(tripEnricher.enrichAsync(any())).thenReturn(CompletableFuture.completedFuture(enrichedTrip));
+    when(tripRepository.existsWithVersion(TRIP_ID, 1L)).thenReturn(true);
+    when(tripRepository.updateGeolocation(enrichedTrip)).thenReturn(true);
+
+    //when
+    ListenableFuture<Void> acknowledgement =
+      asyncRabbitConsumer.consume(new TripDto(TRIP_ID, 1L, coordinates, coordinates), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verify(tripRepository).updateGeolocation(enrichedTrip);
+    verifyNoInteractions(tripService);
+  }
+
+  @Test
+  void shouldAcknowledgeMessage_WithoutEnrichment_IfTripWasChangedSinceItWasPublished() throws Exception {
+    //given
+    GeolocationCoordinates coordinates = new GeolocationCoordinates(55.555555, 44.444444);
+    when(tripRepository.existsWithVersion(TRIP_ID, 1L)).thenReturn(false);
+
+    //when
+    ListenableFuture<Void> acknowledgement =
+      asyncRabbitConsumer.consume(new TripDto(TRIP_ID, 1L, coordinates, coordinates), MESSAGE);
+
+    //then
+    acknowledgement.get(5, TimeUnit.SECONDS);
+    verifyNoInteractions(tripEnricher);
+    verify(tripRepository, never()).updateGeolocation(any());
+  }
+}
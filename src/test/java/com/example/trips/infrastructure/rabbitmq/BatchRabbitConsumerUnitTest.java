@@ -0,0 +1,174 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.InternalServerErrorException;
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.model.TripEnrichmentResult;
+import com.example.trips.api.repository.TripRepository;
+import com.example.trips.api.service.TripEnricher;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchRabbitConsumerUnitTest {
+
+  @Mock
+  private TripRepository tripRepository;
+
+  @Mock
+  private TripEnricher tripEnricher;
+
+  @Mock
+  private EnrichmentRetryQueues enrichmentRetryQueues;
+
+  @Mock
+  private Channel channel;
+
+  private BatchRabbitConsumer batchRabbitConsumer;
+
+  @BeforeEach
+  void setUp() {
+    batchRabbitConsumer = new BatchRabbitConsumer(tripRepository, tripEnricher,
+      new EnrichmentDeduplicator(tripRepository, new SimpleMeterRegistry()), enrichmentRetryQueues,
+      new SimpleMeterRegistry());
+  }
+
+  @Test
+  void shouldLoadEnrichAndSaveBatchTogether_AndAckEveryMessage() throws Exception {
+    //given
+    Trip first = buildTrip("first");
+    Trip second = buildTrip("second");
+    when(tripRepository.findAllById(Set.of("first", "second"))).thenReturn(List.of(first, second));
+    when(tripEnricher.enrichAll(List.of(first, second))).thenReturn(List.of(
+      TripEnrichmentResult.success(first), TripEnrichmentResult.success(second)));
+    when(tripRepository.updateGeolocationAll(List.of(first, second))).thenReturn(Map.of());
+
+    //when
+    batchRabbitConsumer.consume(List.of(buildMessage("first", 1), buildMessage("second", 2), buildMessage("first", 3)),
+      channel);
+
+    //then
+    verify(channel).basicAck(1, false);
+    verify(channel).basicAck(2, false);
+    verify(channel).basicAck(3, false);
+    verifyNoMoreInteractions(channel);
+  }
+
+  @Test
+  void shouldAckOrNackEveryMessageByItsOwnOutcome() throws Exception {
+    //given
+    when(enrichmentRetryQueues.retryLater(new TripDto("failed"), null, null)).thenReturn(true);
+    when(enrichmentRetryQueues.retryLater(new TripDto("not-written"), null, null)).thenReturn(true);
+    when(enrichmentRetryQueues.retryLater(new TripDto("missing"), 2, null)).thenReturn(false);
+    when(enrichmentRetryQueues.deferLater(new TripDto("deferred"), null, null)).thenReturn(true);
+    Trip saved = buildTrip("saved");
+    Trip deferred = buildTrip("deferred");
+    Trip failed = buildTrip("failed");
+    Trip notWritten = buildTrip("not-written");
+    when(tripRepository.findAllById(anyCollection())).thenReturn(List.of(saved, deferred, failed, notWritten));
+    when(tripEnricher.enrichAll(List.of(saved, deferred, failed, notWritten))).thenReturn(List.of(
+      TripEnrichmentResult.success(saved),
+      TripEnrichmentResult.failure(deferred, new GeolocationProviderUnavailableException("Circuit breaker is OPEN")),
+      TripEnrichmentResult.failure(failed, new GeolocationEnrichmentException("Provider answered with 500")),
+      TripEnrichmentResult.success(notWritten)));
+    when(tripRepository.updateGeolocationAll(List.of(saved, notWritten))).thenReturn(Map.of(
+      "not-written", new InternalServerErrorException("Could not save trip with id=not-written")));
+
+    //when
+    batchRabbitConsumer.consume(List.of(buildMessage("saved", 1), buildMessage("deferred", 2),
+      buildMessage("failed", 3), buildMessage("not-written", 4), buildRetriedMessage("missing", 5, 2)), channel);
+
+    //then
+    verify(enrichmentRetryQueues).deferLater(new TripDto("deferred"), null, null);
+    verify(channel).basicAck(1, false);
+    verify(channel).basicAck(2, false);
+    verify(channel).basicAck(3, false);
+    verify(channel).basicAck(4, false);
+    verify(channel).basicNack(5, false, false);
+    verifyNoMoreInteractions(channel);
+  }
+
+  @Test
+  void shouldAckAlreadyEnrichedTrip_WithoutEnrichingIt() throws Exception {
+    //given
+    Trip pending = buildTrip("pending");
+    Trip enriched = buildEnrichedTrip("enriched");
+    when(tripRepository.findAllById(anyCollection())).thenReturn(List.of(pending, enriched));
+    when(tripEnricher.enrichAll(List.of(pending))).thenReturn(List.of(TripEnrichmentResult.success(pending)));
+    when(tripRepository.updateGeolocationAll(List.of(pending))).thenReturn(Map.of());
+
+    //when
+    batchRabbitConsumer.consume(List.of(buildMessage("pending", 1), buildMessage("enriched", 2)), channel);
+
+    //then
+    verify(channel).basicAck(1, false);
+    verify(channel).basicAck(2, false);
+    verifyNoMoreInteractions(channel);
+  }
+
+  @Test
+  void shouldRetryWholeBatchLater_WhenTripsCannotBeLoaded() throws Exception {
+    //given
+    when(tripRepository.findAllById(anyCollection())).thenThrow(new IllegalStateException("Mongo is down"));
+    when(enrichmentRetryQueues.retryLater(new TripDto("first"), null, null)).thenReturn(true);
+    when(enrichmentRetryQueues.retryLater(new TripDto("second"), null, null))
+      .thenThrow(new ImmediateRequeueAmqpException("Message was not confirmed"));
+
+    //when
+    batchRabbitConsumer.consume(List.of(buildMessage("first", 1), buildMessage("second", 2)), channel);
+
+    //then
+    verify(channel).basicAck(1, false);
+    verify(channel).basicNack(2, false, true);
+    verifyNoInteractions(tripEnricher);
+  }
+
+  private Message<TripDto> buildMessage(String tripId, long deliveryTag) {
+    return MessageBuilder.withPayload(new TripDto(tripId))
+      .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+      .build();
+  }
+
+  private Message<TripDto> buildRetriedMessage(String tripId, long deliveryTag, int attempt) {
+    return MessageBuilder.withPayload(new TripDto(tripId))
+      .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+      .setHeader(EnrichmentRetryQueues.ATTEMPT_HEADER, attempt)
+      .build();
+  }
+
+  private Trip buildTrip(String tripId) {
+    return Trip.builder().withId(tripId).build();
+  }
+
+  private Trip buildEnrichedTrip(String tripId) {
+    GeolocationData geolocationData = new GeolocationData();
+    geolocationData.setCountry("Russia");
+    return Trip.builder()
+      .withId(tripId)
+      .withStartDestination(geolocationData)
+      .withFinalDestination(geolocationData)
+      .build();
+  }
+}
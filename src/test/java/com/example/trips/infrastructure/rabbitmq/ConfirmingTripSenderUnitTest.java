@@ -0,0 +1,90 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.TripDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+class ConfirmingTripSenderUnitTest {
+
+  @Mock
+  private RabbitTemplate rabbitTemplate;
+
+  private MeterRegistry meterRegistry;
+
+  private ConfirmingTripSender confirmingTripSender;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    confirmingTripSender = new ConfirmingTripSender(rabbitTemplate, meterRegistry, Duration.ofMillis(200));
+  }
+
+  @Test
+  void shouldReturnConfirmedMessages_AndCountNackedOnes() {
+    //given
+    TripDto acceptedTrip = new TripDto("accepted");
+    TripDto rejectedTrip = new TripDto("rejected");
+    doAnswer(invocation -> {
+      CorrelationData correlationData = invocation.getArgument(1);
+      boolean ack = !rejectedTrip.equals(invocation.getArgument(0));
+      correlationData.getFuture().set(new CorrelationData.Confirm(ack, ack ? null : "test"));
+      return null;
+    }).when(rabbitTemplate).correlationConvertAndSend(any(Object.class), any(CorrelationData.class));
+
+    //when
+    List<TripDto> confirmed = confirmingTripSender.send(List.of(acceptedTrip, rejectedTrip));
+
+    //then
+    assertThat(confirmed).containsExactly(acceptedTrip);
+    assertThat(failures("nack")).isEqualTo(1);
+    assertThat(meterRegistry.get("trip.publishing.confirm.latency").timer().count()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldCountUnconfirmedMessage_WhenConfirmTimesOut() {
+    //when
+    List<TripDto> confirmed = confirmingTripSender.send(List.of(new TripDto("unconfirmed")));
+
+    //then
+    assertThat(confirmed).isEmpty();
+    assertThat(failures("confirm_timeout")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountMessage_ThatCouldNotBeSent() {
+    //given
+    TripDto tripDto = new TripDto("unsent");
+    doThrow(new AmqpConnectException(new ConnectException()))
+      .when(rabbitTemplate).correlationConvertAndSend(eq(tripDto), any(CorrelationData.class));
+
+    //when
+    List<TripDto> confirmed = confirmingTripSender.send(List.of(tripDto));
+
+    //then
+    assertThat(confirmed).isEmpty();
+    assertThat(failures("send_error")).isEqualTo(1);
+  }
+
+  private double failures(String reason) {
+    return meterRegistry.get("trip.publishing.failures").tag("reason", reason).counter().count();
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.support.ListenerExecutionFailedException;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DeferringMessageRecovererUnitTest {
+
+  private static final Message MESSAGE = new Message(new byte[0], new MessageProperties());
+
+  @Mock
+  private EnrichmentRetryQueues enrichmentRetryQueues;
+
+  @Mock
+  private MessageRecoverer delegate;
+
+  @InjectMocks
+  private DeferringMessageRecoverer deferringMessageRecoverer;
+
+  @Test
+  void shouldDeferMessage_WhenProviderIsUnavailable() {
+    //given
+    Throwable cause = new ListenerExecutionFailedException("Listener threw exception",
+      new GeolocationProviderUnavailableException("Geolocation provider circuit breaker is OPEN"), MESSAGE);
+    when(enrichmentRetryQueues.deferLater(MESSAGE)).thenReturn(true);
+
+    //when
+    deferringMessageRecoverer.recover(MESSAGE, cause);
+
+    //then
+    verify(enrichmentRetryQueues).deferLater(MESSAGE);
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldDelegate_WhenMessageWasDeferredTooOften() {
+    //given
+    Throwable cause = new ListenerExecutionFailedException("Listener threw exception",
+      new GeolocationProviderUnavailableException("Geolocation provider circuit breaker is OPEN"), MESSAGE);
+    when(enrichmentRetryQueues.deferLater(MESSAGE)).thenReturn(false);
+
+    //when
+    deferringMessageRecoverer.recover(MESSAGE, cause);
+
+    //then
+    verify(delegate).recover(MESSAGE, cause);
+  }
+
+  @Test
+  void shouldDelegate_WhenEnrichmentFailedForOtherReason() {
+    //given
+    Throwable cause = new ListenerExecutionFailedException("Listener threw exception",
+      new GeolocationEnrichmentException("Exception when trying to get geolocation data"), MESSAGE);
+
+    //when
+    deferringMessageRecoverer.recover(MESSAGE, cause);
+
+    //then
+    verify(delegate).recover(MESSAGE, cause);
+    verifyNoInteractions(enrichmentRetryQueues);
+  }
+}
@@ -0,0 +1,159 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrichmentDeduplicatorUnitTest {
+
+  private static final String TRIP_ID = "test";
+
+  @Mock
+  private TripRepository tripRepository;
+
+  private MeterRegistry meterRegistry;
+
+  private EnrichmentDeduplicator enrichmentDeduplicator;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    enrichmentDeduplicator = new EnrichmentDeduplicator(tripRepository, meterRegistry);
+  }
+
+  @Test
+  void shouldSkipTripInFlight_AndHandLatestSkippedMessageToHolder() {
+    //given
+    TripDto firstSkipped = buildTripDto(1.0);
+    TripDto secondSkipped = buildTripDto(2.0);
+    enrichmentDeduplicator.tryAcquire(buildTripDto(0.0));
+
+    //when
+    boolean firstSkippedAcquired = enrichmentDeduplicator.tryAcquire(firstSkipped);
+    boolean secondSkippedAcquired = enrichmentDeduplicator.tryAcquire(secondSkipped);
+
+    //then
+    assertThat(firstSkippedAcquired).isFalse();
+    assertThat(secondSkippedAcquired).isFalse();
+    assertThat(enrichmentDeduplicator.releaseOrRerun(TRIP_ID)).contains(secondSkipped);
+    assertThat(enrichmentDeduplicator.releaseOrRerun(TRIP_ID)).isEmpty();
+    assertThat(enrichmentDeduplicator.tryAcquire(firstSkipped)).isTrue();
+    assertThat(skipped("in_flight")).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReturnPendingMessage_WhenReleasedAfterFailure() {
+    //given
+    TripDto skipped = buildTripDto(1.0);
+    enrichmentDeduplicator.tryAcquire(buildTripDto(0.0));
+    enrichmentDeduplicator.tryAcquire(skipped);
+
+    //when
+    Optional<TripDto> pendingMessage = enrichmentDeduplicator.release(TRIP_ID);
+
+    //then
+    assertThat(pendingMessage).contains(skipped);
+    assertThat(enrichmentDeduplicator.releaseOrRerun(TRIP_ID)).isEmpty();
+    assertThat(enrichmentDeduplicator.tryAcquire(buildTripDto(0.0))).isTrue();
+  }
+
+  @Test
+  void shouldReturnNoPendingMessage_WhenReleasedAfterFailureWithoutSkippedMessage() {
+    //given
+    enrichmentDeduplicator.tryAcquire(buildTripDto(0.0));
+
+    //when
+    Optional<TripDto> pendingMessage = enrichmentDeduplicator.release(TRIP_ID);
+
+    //then
+    assertThat(pendingMessage).isEmpty();
+    assertThat(enrichmentDeduplicator.tryAcquire(buildTripDto(0.0))).isTrue();
+  }
+
+  @Test
+  void shouldTreatTripAsEnriched_OnlyWhenBothDestinationsHaveCountry() {
+    //given
+    Trip enrichedTrip = buildTrip("Russia", "Finland");
+    Trip partiallyEnrichedTrip = buildTrip("Russia", null);
+    Trip tripWithoutDestinations = Trip.builder().withId(TRIP_ID).build();
+
+    //when
+    boolean enriched = enrichmentDeduplicator.isAlreadyEnriched(enrichedTrip);
+    boolean partiallyEnriched = enrichmentDeduplicator.isAlreadyEnriched(partiallyEnrichedTrip);
+    boolean withoutDestinations = enrichmentDeduplicator.isAlreadyEnriched(tripWithoutDestinations);
+
+    //then
+    assertThat(enriched).isTrue();
+    assertThat(partiallyEnriched).isFalse();
+    assertThat(withoutDestinations).isFalse();
+    assertThat(skipped("already_enriched")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldTreatMessageAsOutdated_OnlyWhenStoredTripHasAnotherVersion() {
+    //given
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(0.0, 0.0);
+    TripDto currentMessage = new TripDto(TRIP_ID, 2L, geolocationCoordinates, geolocationCoordinates);
+    TripDto outdatedMessage = new TripDto(TRIP_ID, 1L, geolocationCoordinates, geolocationCoordinates);
+    when(tripRepository.existsWithVersion(TRIP_ID, 2L)).thenReturn(true);
+    when(tripRepository.existsWithVersion(TRIP_ID, 1L)).thenReturn(false);
+
+    //when
+    boolean currentOutdated = enrichmentDeduplicator.isOutdated(currentMessage);
+    boolean outdated = enrichmentDeduplicator.isOutdated(outdatedMessage);
+
+    //then
+    assertThat(currentOutdated).isFalse();
+    assertThat(outdated).isTrue();
+    assertThat(skipped("outdated")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotTreatMessageAsOutdated_WhenItHasNoVersion() {
+    //when
+    boolean outdated = enrichmentDeduplicator.isOutdated(buildTripDto(0.0));
+
+    //then
+    assertThat(outdated).isFalse();
+    verifyNoInteractions(tripRepository);
+  }
+
+  private double skipped(String reason) {
+    return meterRegistry.get("enrichment.messages.skipped").tag("reason", reason).counter().count();
+  }
+
+  private TripDto buildTripDto(double latitude) {
+    GeolocationCoordinates geolocationCoordinates = new GeolocationCoordinates(latitude, 0.0);
+    return new TripDto(TRIP_ID, null, geolocationCoordinates, geolocationCoordinates);
+  }
+
+  private Trip buildTrip(String startCountry, String finalCountry) {
+    return Trip.builder()
+      .withId(TRIP_ID)
+      .withStartDestination(buildGeolocationData(startCountry))
+      .withFinalDestination(buildGeolocationData(finalCountry))
+      .build();
+  }
+
+  private GeolocationData buildGeolocationData(String country) {
+    GeolocationData geolocationData = new GeolocationData();
+    geolocationData.setCountry(country);
+    return geolocationData;
+  }
+}
@@ -0,0 +1,122 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrichmentListenerAutoscalerUnitTest {
+
+  private static final String QUEUE_NAME = "trips-enrichment-queue";
+
+  private static final int MIN_CONSUMERS = 1;
+
+  private static final int MAX_CONSUMERS = 4;
+
+  private static final int BACKLOG_PER_CONSUMER = 100;
+
+  private static final Duration MAX_LATENCY = Duration.ofSeconds(1);
+
+  @Mock
+  private RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
+
+  @Mock
+  private AmqpAdmin amqpAdmin;
+
+  @Mock
+  private SimpleMessageListenerContainer container;
+
+  private MeterRegistry meterRegistry;
+
+  private EnrichmentListenerAutoscaler autoscaler;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    autoscaler = new EnrichmentListenerAutoscaler(rabbitListenerEndpointRegistry, amqpAdmin, meterRegistry,
+      QUEUE_NAME, MIN_CONSUMERS, MAX_CONSUMERS, BACKLOG_PER_CONSUMER, MAX_LATENCY);
+  }
+
+  @AfterEach
+  void tearDown() {
+    autoscaler.shutdown();
+  }
+
+  @Test
+  void shouldScaleUpToBacklog_AndExposeConsumersAndBacklog() {
+    //given
+    givenContainer(1);
+    when(amqpAdmin.getQueueInfo(QUEUE_NAME)).thenReturn(new QueueInformation(QUEUE_NAME, 250, 1));
+
+    //when
+    autoscaler.scale();
+
+    //then
+    verify(container).setConcurrentConsumers(3);
+    assertThat(meterRegistry.get("enrichment.queue.backlog").gauge().value()).isEqualTo(250);
+    assertThat(meterRegistry.get("enrichment.listener.consumers").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotScaleUp_WhenProcessingLatencyIsAboveMax() {
+    //given
+    givenContainer(1);
+    when(amqpAdmin.getQueueInfo(QUEUE_NAME)).thenReturn(new QueueInformation(QUEUE_NAME, 1000, 1));
+    meterRegistry.timer("spring.rabbitmq.listener", "queue", QUEUE_NAME).record(3, TimeUnit.SECONDS);
+
+    //when
+    autoscaler.scale();
+
+    //then
+    verify(container, never()).setConcurrentConsumers(anyInt());
+  }
+
+  @Test
+  void shouldScaleDownOneConsumerAtATime_WhenBacklogIsDrained() {
+    //given
+    givenContainer(4);
+    when(amqpAdmin.getQueueInfo(QUEUE_NAME)).thenReturn(new QueueInformation(QUEUE_NAME, 0, 4));
+
+    //when
+    autoscaler.scale();
+
+    //then
+    verify(container).setConcurrentConsumers(3);
+  }
+
+  @Test
+  void shouldKeepConsumersWithinMinAndMax() {
+    //when
+    int wantedForHugeBacklog = autoscaler.wantedConsumers(MAX_CONSUMERS, 100_000, 0);
+    int wantedForEmptyBacklog = autoscaler.wantedConsumers(MIN_CONSUMERS, 0, 0);
+
+    //then
+    assertThat(wantedForHugeBacklog).isEqualTo(MAX_CONSUMERS);
+    assertThat(wantedForEmptyBacklog).isEqualTo(MIN_CONSUMERS);
+  }
+
+  private void givenContainer(int activeConsumers) {
+    when(rabbitListenerEndpointRegistry.getListenerContainers()).thenReturn(List.of(container));
+    when(container.getQueueNames()).thenReturn(new String[]{QUEUE_NAME});
+    when(container.getActiveConsumerCount()).thenReturn(activeConsumers);
+  }
+}
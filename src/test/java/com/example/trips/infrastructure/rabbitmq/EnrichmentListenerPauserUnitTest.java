@@ -0,0 +1,88 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrichmentListenerPauserUnitTest {
+
+  private static final String QUEUE_NAME = "trips-enrichment-queue";
+
+  @Mock
+  private RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry;
+
+  private EnrichmentListenerPauser pauser;
+
+  @BeforeEach
+  void setUp() {
+    pauser = new EnrichmentListenerPauser(rabbitListenerEndpointRegistry, new SimpleMeterRegistry(), QUEUE_NAME);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pauser.shutdown();
+  }
+
+  @Test
+  void shouldStopEnrichmentContainers_AndStartOnlyThoseItStopped() {
+    //given
+    TestContainer enrichmentContainer = new TestContainer(QUEUE_NAME);
+    enrichmentContainer.start();
+    TestContainer stoppedEnrichmentContainer = new TestContainer(QUEUE_NAME);
+    TestContainer otherContainer = new TestContainer("other-queue");
+    otherContainer.start();
+    when(rabbitListenerEndpointRegistry.getListenerContainers())
+      .thenReturn(List.of(enrichmentContainer, stoppedEnrichmentContainer, otherContainer));
+
+    //when
+    pauser.onStateTransition(CircuitBreaker.StateTransition.CLOSED_TO_OPEN);
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> !enrichmentContainer.isRunning());
+    pauser.onStateTransition(CircuitBreaker.StateTransition.OPEN_TO_HALF_OPEN);
+
+    //then
+    Awaitility.await().atMost(Duration.ofSeconds(5)).until(enrichmentContainer::isRunning);
+    assertThat(stoppedEnrichmentContainer.isRunning()).isFalse();
+    assertThat(otherContainer.isRunning()).isTrue();
+    assertThat(otherContainer.stops).isZero();
+  }
+
+  /**
+   * Container without consumers; the lifecycle methods of the real containers are final and cannot be mocked.
+   */
+  private static class TestContainer extends AbstractMessageListenerContainer {
+
+    private int stops;
+
+    TestContainer(String queueName) {
+      setConnectionFactory(mock(ConnectionFactory.class));
+      setQueueNames(queueName);
+      setMicrometerEnabled(false);
+    }
+
+    @Override
+    protected void doInitialize() {
+    }
+
+    @Override
+    protected void doShutdown() {
+      stops++;
+    }
+  }
+}
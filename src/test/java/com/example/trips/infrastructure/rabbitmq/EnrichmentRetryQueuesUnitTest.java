@@ -0,0 +1,191 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.model.TripDto;
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EnrichmentRetryQueuesUnitTest {
+
+  private static final List<String> QUEUE_NAMES = List.of(
+    EnrichmentRetryQueues.queueName("enrichment-queue", 0), EnrichmentRetryQueues.queueName("enrichment-queue", 1));
+
+  private static final int MAX_DEFERRALS = 2;
+
+  @Mock
+  private RabbitTemplate rabbitTemplate;
+
+  private EnrichmentRetryQueues enrichmentRetryQueues;
+
+  @BeforeEach
+  void setUp() {
+    enrichmentRetryQueues = new EnrichmentRetryQueues(rabbitTemplate, QUEUE_NAMES,
+      EnrichmentRetryQueues.deferralQueueName("enrichment-queue"), MAX_DEFERRALS, Duration.ofMillis(200));
+  }
+
+  @Test
+  void shouldMoveMessageToNextTier_WithIncrementedAttempt() {
+    //given
+    confirmSends(true);
+    MessageProperties messageProperties = new MessageProperties();
+    messageProperties.setHeader(EnrichmentRetryQueues.ATTEMPT_HEADER, 1);
+    Message message = new Message("{}".getBytes(), messageProperties);
+
+    //when
+    boolean retried = enrichmentRetryQueues.retryLater(message);
+
+    //then
+    assertThat(retried).isTrue();
+    ArgumentCaptor<Message> sentMessage = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitTemplate).send(eq(""), eq("enrichment-queue.retry-2"), sentMessage.capture(),
+      any(CorrelationData.class));
+    assertThat(sentMessage.getValue().getBody()).isEqualTo(message.getBody());
+    assertThat((Integer) sentMessage.getValue().getMessageProperties().getHeader(EnrichmentRetryQueues.ATTEMPT_HEADER))
+      .isEqualTo(2);
+  }
+
+  @Test
+  void shouldMoveTripToFirstTier_WhenMessageWasNotRetriedYet() {
+    //given
+    confirmSends(true);
+    when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+
+    //when
+    boolean retried = enrichmentRetryQueues.retryLater(new TripDto("test"), null, null);
+
+    //then
+    assertThat(retried).isTrue();
+    ArgumentCaptor<Message> sentMessage = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitTemplate).send(eq(""), eq("enrichment-queue.retry-1"), sentMessage.capture(),
+      any(CorrelationData.class));
+    assertThat((Integer) sentMessage.getValue().getMessageProperties().getHeader(EnrichmentRetryQueues.ATTEMPT_HEADER))
+      .isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotRetry_WhenMessageWentThroughEveryTier() {
+    //when
+    boolean retried = enrichmentRetryQueues.retryLater(new TripDto("test"), 2, null);
+
+    //then
+    assertThat(retried).isFalse();
+    verifyNoInteractions(rabbitTemplate);
+  }
+
+  @Test
+  void shouldDeferMessage_WithoutUsingUpRetryTier() {
+    //given
+    confirmSends(true);
+    MessageProperties messageProperties = new MessageProperties();
+    messageProperties.setHeader(EnrichmentRetryQueues.ATTEMPT_HEADER, 2);
+    Message message = new Message("{}".getBytes(), messageProperties);
+
+    //when
+    boolean deferred = enrichmentRetryQueues.deferLater(message);
+
+    //then
+    assertThat(deferred).isTrue();
+    ArgumentCaptor<Message> sentMessage = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitTemplate).send(eq(""), eq("enrichment-queue.deferred"), sentMessage.capture(),
+      any(CorrelationData.class));
+    MessageProperties sentProperties = sentMessage.getValue().getMessageProperties();
+    assertThat((Integer) sentProperties.getHeader(EnrichmentRetryQueues.ATTEMPT_HEADER)).isEqualTo(2);
+    assertThat((Integer) sentProperties.getHeader(EnrichmentRetryQueues.DEFERRAL_HEADER)).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotDefer_WhenMessageWasDeferredMaxTimes() {
+    //given
+    MessageProperties messageProperties = new MessageProperties();
+    messageProperties.setHeader(EnrichmentRetryQueues.DEFERRAL_HEADER, MAX_DEFERRALS);
+    Message message = new Message("{}".getBytes(), messageProperties);
+
+    //when
+    boolean deferred = enrichmentRetryQueues.deferLater(message);
+
+    //then
+    assertThat(deferred).isFalse();
+    verifyNoInteractions(rabbitTemplate);
+  }
+
+  @Test
+  void shouldKeepDeferralCount_WhenRetryingMessage() {
+    //given
+    confirmSends(true);
+    MessageProperties messageProperties = new MessageProperties();
+    messageProperties.setHeader(EnrichmentRetryQueues.DEFERRAL_HEADER, MAX_DEFERRALS);
+    Message message = new Message("{}".getBytes(), messageProperties);
+
+    //when
+    enrichmentRetryQueues.retryLater(message);
+
+    //then
+    ArgumentCaptor<Message> sentMessage = ArgumentCaptor.forClass(Message.class);
+    verify(rabbitTemplate).send(eq(""), eq("enrichment-queue.retry-1"), sentMessage.capture(),
+      any(CorrelationData.class));
+    assertThat((Integer) sentMessage.getValue().getMessageProperties().getHeader(EnrichmentRetryQueues.DEFERRAL_HEADER))
+      .isEqualTo(MAX_DEFERRALS);
+  }
+
+  @Test
+  void shouldDeferTrip_WhenItWaitedOnRunFailedForUnavailableProvider() {
+    //given
+    confirmSends(true);
+    when(rabbitTemplate.getMessageConverter()).thenReturn(new Jackson2JsonMessageConverter());
+
+    //when
+    boolean moved = enrichmentRetryQueues.retryOrDeferLater(new TripDto("test"),
+      new GeolocationProviderUnavailableException("Geolocation provider circuit breaker is OPEN"));
+
+    //then
+    assertThat(moved).isTrue();
+    verify(rabbitTemplate).send(eq(""), eq("enrichment-queue.deferred"), any(Message.class),
+      any(CorrelationData.class));
+  }
+
+  @Test
+  void shouldRequeueMessage_WhenBrokerDoesNotAcceptRetry() {
+    //given
+    confirmSends(false);
+    Message message = new Message("{}".getBytes(), new MessageProperties());
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> enrichmentRetryQueues.retryLater(message);
+
+    //then
+    assertThatThrownBy(executable).isInstanceOf(ImmediateRequeueAmqpException.class);
+  }
+
+  private void confirmSends(boolean ack) {
+    doAnswer(invocation -> {
+      CorrelationData correlationData = invocation.getArgument(3);
+      correlationData.getFuture().set(new CorrelationData.Confirm(ack, ack ? null : "test"));
+      return null;
+    }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+  }
+}
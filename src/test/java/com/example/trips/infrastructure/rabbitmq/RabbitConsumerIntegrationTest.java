@@ -1,5 +1,6 @@
 package com.example.trips.infrastructure.rabbitmq;
 
+import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationData;
 import com.example.trips.api.model.Trip;
 import com.example.trips.api.model.TripDto;
@@ -243,6 +244,26 @@ class RabbitConsumerIntegrationTest {
     Mockito.verify(rabbitConsumer, times(3)).consume(tripDto);
   }
 
+  @Test
+  void shouldNotUpdateTrip_WhenMessageCarriesCoordinatesChangedSince() {
+    //given
+    Trip trip = tripRepository.save(buildTrip(RUSSIA_MOSCOW_LATITUDE, RUSSIA_MOSCOW_LONGITUDE, USA_WASHINGTON_LATITUDE, USA_WASHINGTON_LONGITUDE));
+    TripDto tripDto = new TripDto(trip.getId(), trip.getVersion(),
+      new GeolocationCoordinates(RUSSIA_UNKNOWN_LOCALITY_LATITUDE, RUSSIA_UNKNOWN_LOCALITY_LONGITUDE),
+      new GeolocationCoordinates(USA_WASHINGTON_LATITUDE, USA_WASHINGTON_LONGITUDE));
+    publishToRabbitMQ(tripDto);
+
+    //when
+    Awaitility
+      .await()
+      .untilAsserted(() -> Mockito.verify(rabbitConsumer).consume(tripDto));
+
+    //then
+    Optional<Trip> foundTripOptional = tripRepository.findById(trip.getId());
+    assertTrue(foundTripOptional.isPresent());
+    assertThat(foundTripOptional.get()).isEqualTo(trip);
+  }
+
   @AfterEach
   void clear() {
     tripRepository.deleteAll();
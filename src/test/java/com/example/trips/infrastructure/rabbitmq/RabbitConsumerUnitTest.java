@@ -1,6 +1,7 @@
 package com.example.trips.infrastructure.rabbitmq;
 
 import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
 import com.example.trips.api.model.GeolocationData;
 import com.example.trips.api.model.Trip;
 import com.example.trips.api.model.TripDto;
@@ -8,12 +9,14 @@ import com.example.trips.api.repository.TripRepository;
 import com.example.trips.api.service.TripEnricher;
 import com.example.trips.api.service.TripService;
 import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.ThrowableAssert;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -21,8 +24,13 @@ import java.time.LocalDateTime;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNoException;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +63,16 @@ class RabbitConsumerUnitTest {
   @Mock
   private TripEnricher tripEnricher;
 
+  @Spy
+  private EnrichmentDeduplicator enrichmentDeduplicator = new EnrichmentDeduplicator(mock(TripRepository.class),
+    new SimpleMeterRegistry());
+
+  @Spy
+  private TripDtoMapper tripDtoMapper = new TripDtoMapper();
+
+  @Mock
+  private EnrichmentRetryQueues enrichmentRetryQueues;
+
   @InjectMocks
   private RabbitConsumer rabbitConsumer;
 
@@ -99,9 +117,9 @@ class RabbitConsumerUnitTest {
     TripDto tripDto = new TripDto(TRIP_ID);
     Trip trip = buildTrip();
     when(tripService.findById(TRIP_ID)).thenReturn(trip);
-    var enrichedTrip = enrichGeolocationDataAndGet(trip);
+    var enrichedTrip = enrichGeolocationDataAndGet(buildTrip());
     when(tripEnricher.enrich(trip)).thenReturn(enrichedTrip);
-    when(tripRepository.save(enrichedTrip)).thenAnswer(invocation -> invocation.getArgument(0));
+    when(tripRepository.updateGeolocation(enrichedTrip)).thenReturn(true);
     ArgumentCaptor<Trip> captor = ArgumentCaptor.forClass(Trip.class);
 
     //when
@@ -109,11 +127,129 @@ class RabbitConsumerUnitTest {
 
     //then
     assertThatNoException().isThrownBy(executable);
-    verify(tripRepository).save(captor.capture());
+    verify(tripRepository).updateGeolocation(captor.capture());
     Trip savedTrip = captor.getValue();
     assertThat(savedTrip).isEqualTo(enrichedTrip);
   }
 
+  @Test
+  void shouldSkipTrip_IfAlreadyEnriched() {
+    //given
+    TripDto tripDto = new TripDto(TRIP_ID);
+    when(tripService.findById(TRIP_ID)).thenReturn(enrichGeolocationDataAndGet(buildTrip()));
+
+    //when
+    rabbitConsumer.consume(tripDto);
+
+    //then
+    verifyNoInteractions(tripEnricher);
+    verifyNoInteractions(tripRepository);
+  }
+
+  @Test
+  void shouldSkipMessage_AndEnrichTripOnceMore_IfTripIsBeingEnriched() {
+    //given
+    TripDto tripDto = new TripDto(TRIP_ID);
+    Trip trip = buildTrip();
+    Trip updatedTrip = Trip.builderFromExisting(buildTrip()).withOwnerEmail("updated@mail.com").build();
+    Trip enrichedTrip = enrichGeolocationDataAndGet(buildTrip());
+    when(tripService.findById(TRIP_ID)).thenReturn(trip, updatedTrip);
+    when(tripEnricher.enrich(any())).thenAnswer(invocation -> {
+      if (invocation.getArgument(0) == trip) {
+        rabbitConsumer.consume(tripDto);
+      }
+      return enrichedTrip;
+    });
+
+    //when
+    rabbitConsumer.consume(tripDto);
+
+    //then
+    verify(tripEnricher).enrich(trip);
+    verify(tripEnricher).enrich(updatedTrip);
+    verify(tripRepository, times(2)).updateGeolocation(enrichedTrip);
+    verify(tripService, times(2)).findById(TRIP_ID);
+  }
+
+  @Test
+  void shouldRetryWaitingMessage_AndAcknowledgeConsumedOne_IfEnrichmentFails() {
+    //given
+    GeolocationCoordinates coordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    GeolocationCoordinates updatedCoordinates = new GeolocationCoordinates(LONGITUDE, LATITUDE);
+    TripDto tripDto = new TripDto(TRIP_ID, null, coordinates, coordinates);
+    TripDto waitingTripDto = new TripDto(TRIP_ID, null, updatedCoordinates, updatedCoordinates);
+    FeignException failure = mock(FeignException.class);
+    when(tripEnricher.enrich(any())).thenAnswer(invocation -> {
+      rabbitConsumer.consume(waitingTripDto);
+      throw failure;
+    });
+    when(enrichmentRetryQueues.retryOrDeferLater(waitingTripDto, failure)).thenReturn(true);
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> rabbitConsumer.consume(tripDto);
+
+    //then
+    assertThatNoException().isThrownBy(executable);
+    verify(tripEnricher).enrich(any());
+    verify(enrichmentRetryQueues).retryOrDeferLater(waitingTripDto, failure);
+    verifyNoInteractions(tripRepository);
+  }
+
+  @Test
+  void shouldEnrichTripFromMessage_AndOnlyUpdateGeolocation() {
+    //given
+    GeolocationCoordinates coordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    TripDto tripDto = new TripDto(TRIP_ID, null, coordinates, coordinates);
+    Trip enrichedTrip = enrichGeolocationDataAndGet(buildTrip());
+    when(tripEnricher.enrich(any())).thenReturn(enrichedTrip);
+    when(tripRepository.updateGeolocation(enrichedTrip)).thenReturn(true);
+    ArgumentCaptor<Trip> captor = ArgumentCaptor.forClass(Trip.class);
+
+    //when
+    rabbitConsumer.consume(tripDto);
+
+    //then
+    verify(tripEnricher).enrich(captor.capture());
+    assertThat(captor.getValue().getId()).isEqualTo(TRIP_ID);
+    assertThat(captor.getValue().getStartDestination().getLatitude()).isEqualTo(LATITUDE);
+    assertThat(captor.getValue().getFinalDestination().getLongitude()).isEqualTo(LONGITUDE);
+    verify(tripRepository).updateGeolocation(enrichedTrip);
+    verifyNoMoreInteractions(tripRepository);
+    verifyNoInteractions(tripService);
+  }
+
+  @Test
+  void shouldAcknowledgeMessage_IfTripWasDeletedBeforeEnrichmentWasSaved() {
+    //given
+    GeolocationCoordinates coordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    TripDto tripDto = new TripDto(TRIP_ID, null, coordinates, coordinates);
+    Trip enrichedTrip = enrichGeolocationDataAndGet(buildTrip());
+    when(tripEnricher.enrich(any())).thenReturn(enrichedTrip);
+    when(tripRepository.updateGeolocation(enrichedTrip)).thenReturn(false);
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> rabbitConsumer.consume(tripDto);
+
+    //then
+    assertThatNoException().isThrownBy(executable);
+  }
+
+  @Test
+  void shouldSkipMessage_IfTripWasChangedSinceItWasPublished() {
+    //given
+    GeolocationCoordinates coordinates = new GeolocationCoordinates(LATITUDE, LONGITUDE);
+    TripDto tripDto = new TripDto(TRIP_ID, 1L, coordinates, coordinates);
+    doReturn(true).when(enrichmentDeduplicator).isOutdated(tripDto);
+
+    //when
+    rabbitConsumer.consume(tripDto);
+
+    //then
+    verifyNoInteractions(tripEnricher);
+    verifyNoInteractions(tripRepository);
+    verifyNoInteractions(tripService);
+  }
+
   private Trip enrichGeolocationDataAndGet(Trip trip) {
     trip.getStartDestination().setCountry(START_LOCATION_COUNTRY);
     trip.getStartDestination().setLocality(START_LOCATION_LOCALITY);
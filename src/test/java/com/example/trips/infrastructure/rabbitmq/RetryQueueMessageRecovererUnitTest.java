@@ -0,0 +1,56 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RetryQueueMessageRecovererUnitTest {
+
+  private static final Message MESSAGE = new Message(new byte[0], new MessageProperties());
+
+  private static final Throwable CAUSE = new GeolocationEnrichmentException("Provider answered with 500");
+
+  @Mock
+  private EnrichmentRetryQueues enrichmentRetryQueues;
+
+  @Mock
+  private MessageRecoverer delegate;
+
+  @InjectMocks
+  private RetryQueueMessageRecoverer retryQueueMessageRecoverer;
+
+  @Test
+  void shouldRetryMessageLater_WithoutDelegating() {
+    //given
+    when(enrichmentRetryQueues.retryLater(MESSAGE)).thenReturn(true);
+
+    //when
+    retryQueueMessageRecoverer.recover(MESSAGE, CAUSE);
+
+    //then
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldDelegate_WhenMessageWentThroughEveryTier() {
+    //given
+    when(enrichmentRetryQueues.retryLater(MESSAGE)).thenReturn(false);
+
+    //when
+    retryQueueMessageRecoverer.recover(MESSAGE, CAUSE);
+
+    //then
+    verify(delegate).recover(MESSAGE, CAUSE);
+  }
+}
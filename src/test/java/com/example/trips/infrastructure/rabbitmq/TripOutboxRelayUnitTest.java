@@ -0,0 +1,105 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TripOutboxRelayUnitTest {
+
+  private static final Instant NOW = Instant.parse("2022-06-01T10:00:00Z");
+
+  private static final Duration GRACE_PERIOD = Duration.ofSeconds(30);
+
+  private static final LocalDateTime PENDING_BEFORE = LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minus(GRACE_PERIOD);
+
+  @Mock
+  private TripOutbox tripOutbox;
+
+  @Mock
+  private ConfirmingTripSender confirmingTripSender;
+
+  private MeterRegistry meterRegistry;
+
+  private TripOutboxRelay tripOutboxRelay;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    tripOutboxRelay = new TripOutboxRelay(tripOutbox, confirmingTripSender, meterRegistry,
+      Clock.fixed(NOW, ZoneOffset.UTC), GRACE_PERIOD, 2);
+  }
+
+  @Test
+  void shouldRelayOutboxInBatches_UntilBatchComesBackShort() {
+    //given
+    List<TripDto> firstBatch = List.of(new TripDto("first"), new TripDto("second"));
+    List<TripDto> secondBatch = List.of(new TripDto("third"));
+    when(tripOutbox.findOldestPendingSince()).thenReturn(Optional.of(PENDING_BEFORE.minusMinutes(1)));
+    when(tripOutbox.findPendingSince(PENDING_BEFORE, 2)).thenReturn(firstBatch, secondBatch);
+    when(confirmingTripSender.send(firstBatch)).thenReturn(firstBatch);
+    when(confirmingTripSender.send(secondBatch)).thenReturn(secondBatch);
+
+    //when
+    tripOutboxRelay.relay();
+
+    //then
+    verify(tripOutbox).markPublished(firstBatch);
+    verify(tripOutbox).markPublished(secondBatch);
+    assertThat(meterRegistry.get("trip.outbox.relayed").counter().count()).isEqualTo(3);
+    assertThat(meterRegistry.get("trip.outbox.relay.batch.size").summary().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("trip.outbox.lag").timeGauge().value(TimeUnit.SECONDS)).isEqualTo(90);
+  }
+
+  @Test
+  void shouldStopRelaying_WhenBatchIsNotFullyConfirmed() {
+    //given
+    TripDto confirmedTrip = new TripDto("confirmed");
+    List<TripDto> batch = List.of(confirmedTrip, new TripDto("unconfirmed"));
+    when(tripOutbox.findOldestPendingSince()).thenReturn(Optional.of(PENDING_BEFORE));
+    when(tripOutbox.findPendingSince(PENDING_BEFORE, 2)).thenReturn(batch);
+    when(confirmingTripSender.send(batch)).thenReturn(List.of(confirmedTrip));
+
+    //when
+    tripOutboxRelay.relay();
+
+    //then
+    verify(tripOutbox, times(1)).findPendingSince(PENDING_BEFORE, 2);
+    verify(tripOutbox).markPublished(List.of(confirmedTrip));
+    assertThat(meterRegistry.get("trip.outbox.relayed").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportNoLag_WhenOutboxIsEmpty() {
+    //given
+    when(tripOutbox.findOldestPendingSince()).thenReturn(Optional.empty());
+    when(tripOutbox.findPendingSince(PENDING_BEFORE, 2)).thenReturn(List.of());
+
+    //when
+    tripOutboxRelay.relay();
+
+    //then
+    assertThat(meterRegistry.get("trip.outbox.lag").timeGauge().value(TimeUnit.SECONDS)).isZero();
+    assertThat(meterRegistry.get("trip.outbox.relay.batch.size").summary().count()).isZero();
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.trips.infrastructure.rabbitmq;
+
+import com.example.trips.api.exception.ServiceUnavailableException;
+import com.example.trips.api.model.TripDto;
+import com.example.trips.api.repository.TripOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.ThrowableAssert;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TripPublisherImplUnitTest {
+
+  @Mock
+  private ConfirmingTripSender confirmingTripSender;
+
+  @Mock
+  private TripOutbox tripOutbox;
+
+  private MeterRegistry meterRegistry;
+
+  private final List<TripPublisherImpl> tripPublishers = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  void tearDown() {
+    tripPublishers.forEach(TripPublisherImpl::shutdown);
+  }
+
+  @Test
+  void shouldPublishQueuedMessage_AndTakeConfirmedTripOutOfOutbox() {
+    //given
+    TripDto tripDto = new TripDto("queued");
+    when(confirmingTripSender.send(List.of(tripDto))).thenReturn(List.of(tripDto));
+    TripPublisherImpl tripPublisher = createTripPublisher(10, TripPublishingProperties.OverflowPolicy.REJECT);
+    tripPublisher.start();
+
+    //when
+    tripPublisher.publish(tripDto);
+
+    //then
+    Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+      verify(tripOutbox).markPublished(List.of(tripDto)));
+    assertThat(meterRegistry.get("trip.publishing.queue.depth").gauge().value()).isZero();
+  }
+
+  @Test
+  void shouldRejectTripBeforeSave_WhenQueueIsFull() {
+    //given
+    TripPublisherImpl tripPublisher = createTripPublisher(1, TripPublishingProperties.OverflowPolicy.REJECT);
+    tripPublisher.publish(new TripDto("queued"));
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = tripPublisher::checkCapacity;
+
+    //then
+    assertThatThrownBy(executable).isInstanceOf(ServiceUnavailableException.class);
+    assertThat(meterRegistry.get("trip.publishing.overflows").tag("policy", "reject").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldPublishOnCallingThread_WhenQueueFilledUpAfterCapacityCheck() {
+    //given
+    TripDto overflowingTrip = new TripDto("overflowing");
+    when(confirmingTripSender.send(List.of(overflowingTrip))).thenReturn(List.of(overflowingTrip));
+    TripPublisherImpl tripPublisher = createTripPublisher(1, TripPublishingProperties.OverflowPolicy.REJECT);
+    tripPublisher.checkCapacity();
+    tripPublisher.publish(new TripDto("queued"));
+
+    //when
+    tripPublisher.publish(overflowingTrip);
+
+    //then
+    verify(tripOutbox).markPublished(List.of(overflowingTrip));
+  }
+
+  @Test
+  void shouldPublishOnCallingThread_WhenQueueIsFullAndPolicyIsCallerRuns() {
+    //given
+    TripDto overflowingTrip = new TripDto("overflowing");
+    when(confirmingTripSender.send(List.of(overflowingTrip))).thenReturn(List.of(overflowingTrip));
+    TripPublisherImpl tripPublisher = createTripPublisher(1, TripPublishingProperties.OverflowPolicy.CALLER_RUNS);
+    tripPublisher.publish(new TripDto("queued"));
+
+    //when
+    tripPublisher.publish(overflowingTrip);
+
+    //then
+    verify(tripOutbox).markPublished(List.of(overflowingTrip));
+    assertThat(meterRegistry.get("trip.publishing.queue.depth").gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldLeaveMessageToOutboxRelay_WhenQueueIsFullAndPolicyIsDrop() {
+    //given
+    TripPublisherImpl tripPublisher = createTripPublisher(1, TripPublishingProperties.OverflowPolicy.DROP);
+    tripPublisher.publish(new TripDto("queued"));
+
+    //when
+    tripPublisher.publish(new TripDto("overflowing"));
+
+    //then
+    verifyNoInteractions(confirmingTripSender);
+    verifyNoInteractions(tripOutbox);
+    assertThat(meterRegistry.get("trip.publishing.overflows").tag("policy", "drop").counter().count()).isEqualTo(1);
+  }
+
+  private TripPublisherImpl createTripPublisher(int queueCapacity,
+                                                TripPublishingProperties.OverflowPolicy overflowPolicy) {
+    TripPublisherImpl tripPublisher = new TripPublisherImpl(confirmingTripSender, tripOutbox, meterRegistry,
+      queueCapacity, overflowPolicy, 10, Duration.ofMillis(200));
+    tripPublishers.add(tripPublisher);
+    return tripPublisher;
+  }
+}
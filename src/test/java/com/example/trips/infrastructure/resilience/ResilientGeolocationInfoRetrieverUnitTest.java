@@ -0,0 +1,170 @@
+package com.example.trips.infrastructure.resilience;
+
+import com.example.trips.api.exception.GeolocationEnrichmentException;
+import com.example.trips.api.exception.GeolocationProviderThrottledException;
+import com.example.trips.api.exception.GeolocationProviderUnavailableException;
+import com.example.trips.api.exception.NotFoundException;
+import com.example.trips.api.model.GeolocationCoordinates;
+import com.example.trips.api.model.GeolocationInfo;
+import com.example.trips.api.model.GeolocationInfoResult;
+import com.example.trips.api.service.GeolocationInfoRetriever;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.ThrowableAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientGeolocationInfoRetrieverUnitTest {
+
+  private static final int MINIMUM_NUMBER_OF_CALLS = 4;
+
+  private static final GeolocationCoordinates COORDINATES = new GeolocationCoordinates(55.755793, 37.617134);
+
+  @Mock
+  private GeolocationInfoRetriever delegate;
+
+  private CircuitBreaker circuitBreaker;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private ResilientGeolocationInfoRetriever resilientGeolocationInfoRetriever;
+
+  @BeforeEach
+  void setUp() {
+    circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+      .slidingWindowSize(MINIMUM_NUMBER_OF_CALLS)
+      .minimumNumberOfCalls(MINIMUM_NUMBER_OF_CALLS)
+      .failureRateThreshold(50)
+      .waitDurationInOpenState(Duration.ofMinutes(1))
+      .ignoreExceptions(NotFoundException.class, GeolocationProviderThrottledException.class)
+      .build());
+    meterRegistry = new SimpleMeterRegistry();
+    resilientGeolocationInfoRetriever = new ResilientGeolocationInfoRetriever(delegate, circuitBreaker,
+      Bulkhead.of("test", BulkheadConfig.custom().maxConcurrentCalls(2).build()), true, meterRegistry);
+  }
+
+  @Test
+  void shouldFailFast_WhenProviderKeepsFailing() {
+    //given
+    when(delegate.retrieve(any())).thenThrow(new GeolocationEnrichmentException("Provider is unavailable"));
+    for (int i = 0; i < MINIMUM_NUMBER_OF_CALLS; i++) {
+      assertThatThrownBy(() -> resilientGeolocationInfoRetriever.retrieve(COORDINATES))
+        .isNotInstanceOf(GeolocationProviderUnavailableException.class);
+    }
+
+    //when
+    ThrowableAssert.ThrowingCallable executable = () -> resilientGeolocationInfoRetriever.retrieve(COORDINATES);
+
+    //then
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThatThrownBy(executable).isInstanceOf(GeolocationProviderUnavailableException.class);
+    verify(delegate, times(MINIMUM_NUMBER_OF_CALLS)).retrieve(any());
+    assertThat(meterRegistry.get("geolocation.provider.rejections").tag("reason", "circuit-open").counter().count())
+      .isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotOpen_WhenProviderAnswersNotFound() {
+    //given
+    when(delegate.retrieve(any())).thenThrow(new NotFoundException("Geolocation info not found"));
+
+    //when
+    for (int i = 0; i < MINIMUM_NUMBER_OF_CALLS * 2; i++) {
+      assertThatThrownBy(() -> resilientGeolocationInfoRetriever.retrieve(COORDINATES))
+        .isInstanceOf(NotFoundException.class);
+    }
+
+    //then
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void shouldNotOpen_WhenProviderThrottlesCalls() {
+    //given
+    when(delegate.retrieve(any()))
+      .thenThrow(new GeolocationProviderThrottledException("Geolocation provider throttled the call", null));
+
+    //when
+    for (int i = 0; i < MINIMUM_NUMBER_OF_CALLS * 2; i++) {
+      assertThatThrownBy(() -> resilientGeolocationInfoRetriever.retrieve(COORDINATES))
+        .isInstanceOf(GeolocationProviderThrottledException.class);
+    }
+
+    //then
+    assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void shouldFailEveryCoordinate_WhenRetrievingAllWithOpenCircuit() {
+    //given
+    GeolocationCoordinates otherCoordinates = new GeolocationCoordinates(38.899827, -77.037454);
+    circuitBreaker.transitionToOpenState();
+
+    //when
+    Map<GeolocationCoordinates, GeolocationInfoResult> results =
+      resilientGeolocationInfoRetriever.retrieveAll(List.of(COORDINATES, otherCoordinates));
+
+    //then
+    assertThat(results).hasSize(2);
+    assertThat(results.values())
+      .allSatisfy(result -> assertThat(result.getError()).isInstanceOf(GeolocationProviderUnavailableException.class));
+    verifyNoInteractions(delegate);
+  }
+
+  @Test
+  void shouldRecordBatchAsFailure_WhenNoCoordinateWasAnswered() {
+    //given
+    GeolocationEnrichmentException providerFailure = new GeolocationEnrichmentException("Provider is unavailable");
+    when(delegate.retrieveAll(anyCollection()))
+      .thenReturn(Map.of(COORDINATES, GeolocationInfoResult.failure(providerFailure)));
+
+    //when
+    resilientGeolocationInfoRetriever.retrieveAll(List.of(COORDINATES));
+    when(delegate.retrieveAll(anyCollection()))
+      .thenReturn(Map.of(COORDINATES, GeolocationInfoResult.success(new GeolocationInfo())));
+    resilientGeolocationInfoRetriever.retrieveAll(List.of(COORDINATES));
+
+    //then
+    assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldNotTakeBulkheadPermit_WhenAsyncCallsAreBoundedBelow() {
+    //given
+    Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom().maxConcurrentCalls(1).build());
+    ResilientGeolocationInfoRetriever retriever =
+      new ResilientGeolocationInfoRetriever(delegate, circuitBreaker, bulkhead, false, meterRegistry);
+    when(delegate.retrieveAsync(any())).thenReturn(new CompletableFuture<>());
+
+    //when
+    CompletableFuture<GeolocationInfo> first = retriever.retrieveAsync(COORDINATES);
+    CompletableFuture<GeolocationInfo> second = retriever.retrieveAsync(COORDINATES);
+
+    //then
+    assertThat(first).isNotDone();
+    assertThat(second).isNotDone();
+    assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+  }
+}
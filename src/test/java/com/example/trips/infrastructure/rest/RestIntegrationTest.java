@@ -7,6 +7,7 @@ import com.example.trips.api.model.Trip;
 import com.example.trips.api.model.TripDto;
 import com.example.trips.api.repository.TripRepository;
 import com.example.trips.api.service.TripPublisher;
+import com.example.trips.infrastructure.mongo.TripEntity;
 import org.assertj.core.api.Condition;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,8 +16,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -27,13 +33,16 @@ import org.springframework.test.context.ActiveProfiles;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -59,9 +68,12 @@ class RestIntegrationTest {
   @Autowired
   private TestRestTemplate testRestTemplate;
 
-  @Autowired
+  @SpyBean
   private TripRepository tripRepository;
 
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
   @Autowired
   private AuthenticationProperties authenticationProperties;
 
@@ -302,6 +314,60 @@ class RestIntegrationTest {
     verify(tripPublisher).publish(any(TripDto.class));
   }
 
+  @Test
+  void shouldNotUpdateTrip_AndReturn409_CONFLICT_IfTripWasSavedSinceItWasRead() {
+    //given
+    Trip trip = tripRepository.save(buildTrip(getMoscowLocationData(), getWashingtonLocationData()));
+    doAnswer(invocation -> {
+      Optional<?> readTrip = (Optional<?>) invocation.callRealMethod();
+      tripRepository.save(Trip.builderFromExisting((Trip) readTrip.orElseThrow())
+        .withOwnerEmail("test-concurrent@mail.com")
+        .build());
+      return readTrip;
+    }).when(tripRepository).findById(trip.getId());
+    HttpEntity<TripUpdateRequest> tripUpdateRequestEntity = new HttpEntity<>(buildTripUpdateRequest(), getAuthorizationHeader());
+
+    //when
+    ResponseEntity<String> updateTripResponse = testRestTemplate.exchange("/trips/{id}",
+      HttpMethod.PUT, tripUpdateRequestEntity, String.class, Map.of("id", trip.getId()));
+
+    //then
+    assertThat(updateTripResponse)
+      .has(createResponseCondition(response -> response.getStatusCode() == HttpStatus.CONFLICT));
+
+    assertThat(tripRepository.findAllByEmail("test-concurrent@mail.com"))
+      .extracting(Trip::getId, Trip::getVersion)
+      .containsExactly(tuple(trip.getId(), 1L));
+
+    verifyNoInteractions(tripPublisher);
+  }
+
+  @Test
+  void shouldUpdateTripSavedWithoutVersion_AndReturn200_OK() {
+    //given
+    Trip trip = tripRepository.save(buildTrip(getMoscowLocationData(), getWashingtonLocationData()));
+    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(trip.getId())), new Update().unset("version"),
+      TripEntity.class);
+    TripUpdateRequest tripUpdateRequest = buildTripUpdateRequest();
+    HttpEntity<TripUpdateRequest> tripUpdateRequestEntity = new HttpEntity<>(tripUpdateRequest, getAuthorizationHeader());
+    doNothing().when(tripPublisher).publish(any());
+
+    //when
+    ResponseEntity<TripResponse> updateTripResponse = testRestTemplate.exchange("/trips/{id}",
+      HttpMethod.PUT, tripUpdateRequestEntity, TripResponse.class, Map.of("id", trip.getId()));
+
+    //then
+    assertThat(updateTripResponse)
+      .has(createResponseCondition(response -> response.getStatusCode() == HttpStatus.OK));
+
+    assertThat(tripRepository.findById(trip.getId()))
+      .get()
+      .extracting(Trip::getOwnerEmail, Trip::getVersion)
+      .containsExactly(tripUpdateRequest.getOwnerEmail(), 0L);
+
+    verify(tripPublisher).publish(any(TripDto.class));
+  }
+
   @AfterEach
   @BeforeEach
   void clear() {
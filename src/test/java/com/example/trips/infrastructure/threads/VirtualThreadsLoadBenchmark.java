@@ -0,0 +1,296 @@
+package com.example.trips.infrastructure.threads;
+
+import com.example.trips.TripApplication;
+import com.example.trips.api.model.GeolocationData;
+import com.example.trips.api.model.Trip;
+import com.example.trips.api.repository.TripRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the running application with Tomcat and the enrichment listener on platform threads and on virtual
+ * threads. Each run starts the application with the test profile against the services of
+ * src/test/resources/docker-compose.yml, stubs the geolocation provider in Wiremock with a fixed delay and keeps
+ * {@value #CONCURRENT_REQUESTS} trip creations in flight: every request is a Tomcat request writing to Mongo and
+ * publishing to Rabbit, every published trip is enriched by the listener. Reported are the request throughput, the time
+ * the listener needs to enrich every created trip, the peak number of platform threads and the heap used after a GC,
+ * sampled while the load is steady.
+ * <p>
+ * Trips are published from the single publishing thread in both runs: the {@code @Async} publisher this benchmark was
+ * first asked to cover was replaced by the publishing queue, so there is no publisher thread pool to compare.
+ * <p>
+ * Needs a Java 21 runtime, run with {@code ./gradlew benchmark -PruntimeJavaVersion=21}.
+ */
+@Tag("benchmark")
+class VirtualThreadsLoadBenchmark {
+
+  private static final int CONCURRENT_REQUESTS = 500;
+
+  private static final Duration WARM_UP = Duration.ofSeconds(10);
+
+  private static final Duration LOAD = Duration.ofSeconds(30);
+
+  private static final int HEAP_SAMPLES = 5;
+
+  private static final int PROVIDER_DELAY_MILLIS = 50;
+
+  private static final Duration ENRICHMENT_TIMEOUT = Duration.ofMinutes(5);
+
+  private static final String[] BENCHMARK_PROPERTIES = {
+    "--server.port=0",
+    "--spring.rabbitmq.listener.simple.concurrency=50",
+    "--spring.rabbitmq.listener.simple.prefetch=1",
+    "--feign.httpclient.max-connections=100",
+    "--feign.httpclient.max-connections-per-route=100",
+    "--geolocation-cache.enabled=false",
+    "--geolocation-rate-limit.enabled=false",
+    "--geolocation-resilience.max-concurrent-calls=100",
+    "--trip-publishing.queue-capacity=10000"
+  };
+
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+  private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+    .executor(clientExecutor)
+    .connectTimeout(Duration.ofSeconds(5))
+    .build();
+
+  @BeforeEach
+  void setUp() {
+    Assumptions.assumeTrue(VirtualThreadExecutor.isSupported(), "Virtual threads need Java 21 or newer");
+  }
+
+  @Test
+  void compareApplicationOnPlatformAndVirtualThreads() throws Exception {
+    try {
+      Result platform = run(false);
+      Result virtual = run(true);
+
+      print("platform threads", platform);
+      print("virtual threads", virtual);
+      assertThat(virtual.failedRequests).isZero();
+      assertThat(virtual.requestsPerSecond).isGreaterThan(platform.requestsPerSecond);
+    } finally {
+      clientExecutor.shutdownNow();
+    }
+  }
+
+  private Result run(boolean virtualThreads) throws Exception {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TripApplication.class)
+      .profiles("test")
+      .run(withVirtualThreads(virtualThreads))) {
+      String baseUrl = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+      String secret = context.getEnvironment().getRequiredProperty("auth.secret");
+      String providerUrl = context.getEnvironment().getRequiredProperty("geolocation-api.url");
+      TripRepository tripRepository = context.getBean(TripRepository.class);
+      String ownerEmail = "benchmark-" + UUID.randomUUID() + "@example.com";
+      String stubId = stubProvider(providerUrl);
+      try {
+        load(baseUrl, secret, ownerEmail, WARM_UP, false);
+        Load load = load(baseUrl, secret, ownerEmail, LOAD, true);
+        long enrichmentMillis = awaitEnriched(tripRepository, ownerEmail, load.startNanos);
+        return new Result(load.succeeded * 1000d / LOAD.toMillis(), load.failed, enrichmentMillis, load.peakThreads,
+          load.heapKilobytes);
+      } finally {
+        removeStub(providerUrl, stubId);
+        tripRepository.findAllByEmail(ownerEmail).forEach(trip -> tripRepository.deleteById(trip.getId()));
+      }
+    }
+  }
+
+  private static String[] withVirtualThreads(boolean virtualThreads) {
+    List<String> args = new ArrayList<>(List.of(BENCHMARK_PROPERTIES));
+    args.add("--virtual-threads.enabled=" + virtualThreads);
+    return args.toArray(new String[0]);
+  }
+
+  /**
+   * Keeps {@value #CONCURRENT_REQUESTS} requests in flight for the given duration. When measured, heap is sampled after
+   * a GC at even intervals of the second half of the run, once the thread pools and queues have filled up.
+   */
+  private Load load(String baseUrl, String secret, String ownerEmail, Duration duration, boolean measured)
+    throws Exception {
+    Semaphore inFlight = new Semaphore(CONCURRENT_REQUESTS);
+    AtomicLong succeeded = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    List<Long> heapSamples = new ArrayList<>();
+    long startNanos = System.nanoTime();
+    long endNanos = startNanos + duration.toNanos();
+    long sampleIntervalNanos = duration.toNanos() / 2 / HEAP_SAMPLES;
+    long nextSampleNanos = startNanos + duration.toNanos() / 2;
+    threadMXBean.resetPeakThreadCount();
+    while (System.nanoTime() < endNanos) {
+      if (measured && System.nanoTime() >= nextSampleNanos) {
+        heapSamples.add(heapUsedAfterGc());
+        nextSampleNanos += sampleIntervalNanos;
+      }
+      if (!inFlight.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+        continue;
+      }
+      httpClient.sendAsync(createTripRequest(baseUrl, secret, ownerEmail), HttpResponse.BodyHandlers.discarding())
+        .whenComplete((response, throwable) -> {
+          inFlight.release();
+          if (throwable == null && response.statusCode() == 201) {
+            succeeded.incrementAndGet();
+          } else {
+            failed.incrementAndGet();
+          }
+        });
+    }
+    inFlight.acquire(CONCURRENT_REQUESTS);
+    int peakThreads = threadMXBean.getPeakThreadCount();
+    Collections.sort(heapSamples);
+    long heapKilobytes = heapSamples.isEmpty() ? 0 : heapSamples.get(heapSamples.size() / 2) / 1024;
+    return new Load(startNanos, succeeded.get(), failed.get(), peakThreads, heapKilobytes);
+  }
+
+  private long heapUsedAfterGc() {
+    System.gc();
+    return memoryMXBean.getHeapMemoryUsage().getUsed();
+  }
+
+  private HttpRequest createTripRequest(String baseUrl, String secret, String ownerEmail) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String body = String.format(Locale.ROOT,
+      "{\"startTime\":\"2022-02-01T01:01:01\",\"endTime\":\"2022-03-01T01:01:01\","
+        + "\"startDestinationCoordinates\":{\"latitude\":%f,\"longitude\":%f},"
+        + "\"finalDestinationCoordinates\":{\"latitude\":%f,\"longitude\":%f},\"ownerEmail\":\"%s\"}",
+      random.nextDouble(-80, 80), random.nextDouble(-170, 170), random.nextDouble(-80, 80),
+      random.nextDouble(-170, 170), ownerEmail);
+    return HttpRequest.newBuilder(URI.create(baseUrl + "/trips"))
+      .header("Authorization", "Bearer " + secret)
+      .header("Content-Type", "application/json")
+      .timeout(Duration.ofSeconds(30))
+      .POST(HttpRequest.BodyPublishers.ofString(body))
+      .build();
+  }
+
+  /**
+   * @return the time from the start of the measured load until every trip of the owner is enriched
+   */
+  private static long awaitEnriched(TripRepository tripRepository, String ownerEmail, long startNanos)
+    throws InterruptedException {
+    long deadline = System.nanoTime() + ENRICHMENT_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      List<Trip> trips = tripRepository.findAllByEmail(ownerEmail);
+      boolean enriched = trips.stream()
+        .map(Trip::getStartDestination)
+        .map(GeolocationData::getCountry)
+        .allMatch(Objects::nonNull);
+      if (enriched) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      }
+      Thread.sleep(500);
+    }
+    throw new IllegalStateException("Trips were not enriched within " + ENRICHMENT_TIMEOUT);
+  }
+
+  /**
+   * Answers every reverse lookup with the same place after {@value #PROVIDER_DELAY_MILLIS} ms, below the priority of
+   * the mappings the integration tests rely on.
+   */
+  private String stubProvider(String providerUrl) throws Exception {
+    String mapping = "{\"priority\":10,"
+      + "\"request\":{\"method\":\"GET\",\"urlPath\":\"/reverse\"},"
+      + "\"response\":{\"status\":200,\"fixedDelayMilliseconds\":" + PROVIDER_DELAY_MILLIS + ","
+      + "\"headers\":{\"Content-Type\":\"application/json\"},"
+      + "\"jsonBody\":{\"data\":[{\"latitude\":55.75583,\"longitude\":37.6173,\"locality\":\"Moscow\","
+      + "\"country\":\"Russia\",\"country_code\":\"RUS\"}]}}}";
+    HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(providerUrl + "/__admin/mappings"))
+      .header("Content-Type", "application/json")
+      .POST(HttpRequest.BodyPublishers.ofString(mapping))
+      .build(), HttpResponse.BodyHandlers.ofString());
+    JsonNode stub = objectMapper.readTree(response.body());
+    return stub.get("id").asText();
+  }
+
+  private void removeStub(String providerUrl, String stubId) throws Exception {
+    httpClient.send(HttpRequest.newBuilder(URI.create(providerUrl + "/__admin/mappings/" + stubId))
+      .DELETE()
+      .build(), HttpResponse.BodyHandlers.discarding());
+  }
+
+  private static void print(String name, Result result) {
+    System.out.printf("%s: %.0f requests/s, %d failed, all trips enriched after %d ms, %d peak platform threads, "
+        + "%d KB heap after GC%n", name, result.requestsPerSecond, result.failedRequests, result.enrichmentMillis,
+      result.peakThreads, result.heapKilobytes);
+  }
+
+  private static class Load {
+
+    private final long startNanos;
+
+    private final long succeeded;
+
+    private final long failed;
+
+    private final int peakThreads;
+
+    private final long heapKilobytes;
+
+    private Load(long startNanos, long succeeded, long failed, int peakThreads, long heapKilobytes) {
+      this.startNanos = startNanos;
+      this.succeeded = succeeded;
+      this.failed = failed;
+      this.peakThreads = peakThreads;
+      this.heapKilobytes = heapKilobytes;
+    }
+  }
+
+  private static class Result {
+
+    private final double requestsPerSecond;
+
+    private final long failedRequests;
+
+    private final long enrichmentMillis;
+
+    private final int peakThreads;
+
+    private final long heapKilobytes;
+
+    private Result(double requestsPerSecond, long failedRequests, long enrichmentMillis, int peakThreads,
+                   long heapKilobytes) {
+      this.requestsPerSecond = requestsPerSecond;
+      this.failedRequests = failedRequests;
+      this.enrichmentMillis = enrichmentMillis;
+      this.peakThreads = peakThreads;
+      this.heapKilobytes = heapKilobytes;
+    }
+  }
+}